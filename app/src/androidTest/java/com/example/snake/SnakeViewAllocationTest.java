@@ -0,0 +1,98 @@
+package com.example.snake;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.os.Debug;
+import android.os.SystemClock;
+import android.view.View;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * Garantie « zéro allocation » des pas de jeu et du rendu sur l'appareil : la vue est mise
+ * en page hors écran, le pilote automatique joue et chaque frame est dessinée dans un Canvas
+ * sur Bitmap. Les allocations du thread sont comptées par Debug (Android n'a pas de
+ * ThreadMXBean ; côté JVM, voir SteadyStateAllocationTest dans core).
+ *
+ * Tous les pas sont comptés, pommes mangées comprises (nouvelle pomme, notification du
+ * score, sprites de la pomme et de la tête). Seul le post() vers le thread UI est remplacé :
+ * hors fenêtre, View le met dans une file qui alloue à chaque appel.
+ */
+@RunWith(AndroidJUnit4.class)
+public class SnakeViewAllocationTest {
+
+    private static final int WIDTH = 1080;
+    private static final int HEIGHT = 1920;
+
+    private static final int WARM_UP_TICKS = 500;
+    private static final int MEASURED_TICKS = 2_000;
+    private static final long SPRITES_TIMEOUT_MS = 10_000;
+
+    @Test
+    @SuppressWarnings("deprecation") // Compteurs Debug : seuls disponibles par thread
+    public void stepsAndFrames_doNotAllocate() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        SnakeView[] created = new SnakeView[1];
+        int[] notifications = new int[1];
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> {
+            SnakeView view = new SnakeView(context) {
+                @Override
+                public boolean post(Runnable action) {
+                    // Notifications (score, fin) comptées, sans la file de View
+                    notifications[0]++;
+                    return true;
+                }
+            };
+            view.measure(View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+                    View.MeasureSpec.makeMeasureSpec(HEIGHT, View.MeasureSpec.EXACTLY));
+            view.layout(0, 0, WIDTH, HEIGHT);
+            view.setAutopilotEnabled(true);
+            created[0] = view;
+        });
+        SnakeView view = created[0];
+        Canvas canvas = new Canvas(Bitmap.createBitmap(WIDTH, HEIGHT, Bitmap.Config.ARGB_8888));
+
+        // Sans sprites, le dessin de la tête et de la pomme serait sauté
+        long deadline = SystemClock.uptimeMillis() + SPRITES_TIMEOUT_MS;
+        while (!view.hasSprites()) {
+            assertTrue("Sprites non chargés", SystemClock.uptimeMillis() < deadline);
+            SystemClock.sleep(10);
+        }
+
+        for (int i = 0; i < WARM_UP_TICKS; i++) {
+            view.stepGame();
+            view.renderTo(canvas);
+        }
+
+        int allocations = 0;
+        int measured = 0;
+        int scoreBefore = view.getScore();
+        notifications[0] = 0;
+        Debug.startAllocCounting();
+        try {
+            for (int i = 0; i < MEASURED_TICKS && !view.isGameOver(); i++) {
+                Debug.resetThreadAllocCount();
+                view.stepGame();
+                view.renderTo(canvas);
+                allocations += Debug.getThreadAllocCount();
+                measured++;
+            }
+        } finally {
+            Debug.stopAllocCounting();
+        }
+
+        assertEquals(0, allocations);
+        assertTrue(measured > MEASURED_TICKS / 2);
+        // Des pommes ont été mangées pendant la mesure
+        assertTrue(view.getScore() > scoreBefore);
+        assertTrue(notifications[0] > 0);
+    }
+}
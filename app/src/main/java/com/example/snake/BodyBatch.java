@@ -0,0 +1,99 @@
+package com.example.snake;
+
+import android.graphics.Canvas;
+import android.graphics.Paint;
+
+import java.util.Arrays;
+
+/**
+ * Lot de segments du corps à dessiner d'un coup :
+ *  - Chaque segment ajoute deux triangles (remplissage) et quatre traits (bordure) dans
+ *    des tableaux de floats préalloués.
+ *  - draw() envoie tout le lot en deux appels (drawVertices puis drawLines), quel que soit
+ *    le nombre de segments, au lieu de deux drawRect par segment.
+ *  - La capacité suit la fenêtre visible (ensureCapacity au redimensionnement) : aucune
+ *    allocation par frame.
+ */
+class BodyBatch {
+
+    /** Floats par segment : 2 triangles de 3 sommets (x, y). */
+    private static final int FILL_FLOATS = 2 * 3 * 2;
+    /** Floats par segment : 4 traits de 2 points (x, y). */
+    private static final int OUTLINE_FLOATS = 4 * 2 * 2;
+
+    private float[] fill = new float[0];
+    private float[] outline = new float[0];
+    /** Nombre de segments dans le lot. */
+    private int count;
+
+    /** Réserve la place de capacity segments (à appeler hors de la boucle de rendu). */
+    void ensureCapacity(int capacity) {
+        if (capacity * FILL_FLOATS > fill.length) {
+            fill = Arrays.copyOf(fill, capacity * FILL_FLOATS);
+            outline = Arrays.copyOf(outline, capacity * OUTLINE_FLOATS);
+        }
+    }
+
+    /** Ajoute le segment de la case carrée (left, top, size). */
+    void add(float left, float top, float size) {
+        if (count * FILL_FLOATS == fill.length) {
+            // Fenêtre plus grande que prévu : ne devrait pas arriver après ensureCapacity
+            ensureCapacity(Math.max(16, count * 2));
+        }
+        float right = left + size;
+        float bottom = top + size;
+
+        int f = count * FILL_FLOATS;
+        fill[f] = left;
+        fill[f + 1] = top;
+        fill[f + 2] = right;
+        fill[f + 3] = top;
+        fill[f + 4] = right;
+        fill[f + 5] = bottom;
+        fill[f + 6] = left;
+        fill[f + 7] = top;
+        fill[f + 8] = right;
+        fill[f + 9] = bottom;
+        fill[f + 10] = left;
+        fill[f + 11] = bottom;
+
+        int o = count * OUTLINE_FLOATS;
+        // Haut, droite, bas, gauche
+        outline[o] = left;
+        outline[o + 1] = top;
+        outline[o + 2] = right;
+        outline[o + 3] = top;
+        outline[o + 4] = right;
+        outline[o + 5] = top;
+        outline[o + 6] = right;
+        outline[o + 7] = bottom;
+        outline[o + 8] = right;
+        outline[o + 9] = bottom;
+        outline[o + 10] = left;
+        outline[o + 11] = bottom;
+        outline[o + 12] = left;
+        outline[o + 13] = bottom;
+        outline[o + 14] = left;
+        outline[o + 15] = top;
+        count++;
+    }
+
+    int size() {
+        return count;
+    }
+
+    /**
+     * Dessine le lot (remplissage puis bordure) et le vide. La bordure est tracée par
+     * drawLines : stroke doit avoir des extrémités carrées pour fermer les coins.
+     */
+    void draw(Canvas canvas, Paint fillPaint, Paint strokePaint) {
+        if (count == 0) {
+            return;
+        }
+        // Sans couleurs ni textures par sommet, la couleur de fillPaint est utilisée
+        canvas.drawVertices(Canvas.VertexMode.TRIANGLES, count * FILL_FLOATS, fill, 0,
+                null, 0, null, 0, null, 0, 0, fillPaint);
+        canvas.drawLines(outline, 0, count * OUTLINE_FLOATS, strokePaint);
+        count = 0;
+    }
+}
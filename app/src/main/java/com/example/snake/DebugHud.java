@@ -0,0 +1,64 @@
+package com.example.snake;
+
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.os.SystemClock;
+
+import com.example.snake.metrics.FrameMetrics;
+
+/**
+ * HUD de debug dessiné par-dessus le jeu : latences des commandes (LatencyTracker) et
+ * mesures de rendu par phase (FrameMetrics).
+ * Le texte n'est reconstruit que deux fois par seconde ; entre-temps, chaque frame ne fait
+ * que redessiner les lignes en cache. Appelé sous le verrou du moteur (voir SnakeView).
+ */
+class DebugHud {
+
+    /** Intervalle de rafraîchissement du texte (ns). */
+    private static final long REFRESH_NANOS = 500_000_000L;
+
+    private final Paint paint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final StringBuilder builder = new StringBuilder(256);
+    private String[] lines = new String[0];
+    private long updatedAt;
+    private boolean enabled;
+
+    DebugHud() {
+        paint.setColor(Color.YELLOW);
+        paint.setTextSize(28f);
+    }
+
+    void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+        // Texte à reconstruire dès la prochaine frame
+        updatedAt = 0;
+    }
+
+    boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Dessine le HUD, la dernière ligne à la hauteur bottom.
+     */
+    void draw(Canvas canvas, float x, float bottom, LatencyTracker latency, FrameMetrics frames) {
+        if (!enabled) {
+            return;
+        }
+        long now = SystemClock.elapsedRealtimeNanos();
+        if (updatedAt == 0 || now - updatedAt >= REFRESH_NANOS) {
+            updatedAt = now;
+            builder.setLength(0);
+            latency.dump(builder);
+            frames.dump(builder);
+            lines = builder.toString().split("\n");
+        }
+        float lineHeight = paint.getTextSize() * 1.2f;
+        float y = bottom - (lines.length - 1) * lineHeight;
+        for (String line : lines) {
+            canvas.drawText(line, x, y, paint);
+            y += lineHeight;
+        }
+    }
+}
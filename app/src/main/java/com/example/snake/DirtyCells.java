@@ -0,0 +1,59 @@
+package com.example.snake;
+
+/**
+ * Liste des cases à redessiner depuis la dernière frame (rendu incrémental) :
+ *  - Alimentée à chaque pas du jeu (nouvelle tête, ancienne tête, queue libérée, pomme).
+ *  - Tableau d'entiers préalloué : aucune allocation par pas.
+ *  - Si trop de cases s'accumulent (ou sur demande), on bascule en redessin complet.
+ */
+class DirtyCells {
+
+    /** Cases marquées (sans dédoublonnage : redessiner deux fois une case est sans effet). */
+    private final int[] cells;
+    /** Nombre de cases marquées. */
+    private int count;
+    /** Vrai si toute la grille doit être redessinée. */
+    private boolean full = true;
+
+    DirtyCells(int capacity) {
+        cells = new int[capacity];
+    }
+
+    /** Marque une case à redessiner (ignorée si négative). */
+    void add(int cell) {
+        if (cell < 0 || full) {
+            return;
+        }
+        if (count == cells.length) {
+            // Trop de changements : plus simple de tout redessiner
+            markAll();
+            return;
+        }
+        cells[count++] = cell;
+    }
+
+    /** Demande un redessin complet. */
+    void markAll() {
+        full = true;
+        count = 0;
+    }
+
+    /** Vrai si un redessin complet est nécessaire. */
+    boolean isFull() {
+        return full;
+    }
+
+    int size() {
+        return count;
+    }
+
+    int get(int i) {
+        return cells[i];
+    }
+
+    /** Vide la liste une fois la frame dessinée. */
+    void clear() {
+        full = false;
+        count = 0;
+    }
+}
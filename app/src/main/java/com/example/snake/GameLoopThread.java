@@ -0,0 +1,97 @@
+package com.example.snake;
+
+import com.example.snake.engine.FixedTimestep;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Thread dédié à la boucle de jeu (hors thread UI) :
+ *  - Fait avancer le jeu à pas fixe (FixedTimestep), avec rattrapage si le thread a pris
+ *    du retard, indépendamment de la fréquence des capteurs.
+ *  - Dessine ensuite une frame si quelque chose a changé.
+ *  - Dort jusqu'au prochain pas (ou jusqu'à un réveil explicite via wake()).
+ * Les blocages du thread UI (layout, TextView du score) ne retardent donc plus le jeu.
+ */
+class GameLoopThread extends Thread {
+
+    /** Rattrapage maximal après une interruption (au-delà, les pas sont abandonnés). */
+    private static final int MAX_CATCH_UP_STEPS = 5;
+
+    /** Attente maximale quand le jeu est en pause (un wake() réveille plus tôt). */
+    private static final long PAUSED_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(250);
+
+    private final SnakeView view;
+    private final FixedTimestep timestep;
+
+    /** Durée d'un pas demandée (appliquée par la boucle au tour suivant). */
+    private volatile long tickPeriodNanos;
+    private volatile boolean paused;
+    private volatile boolean running = true;
+
+    GameLoopThread(SnakeView view, long tickPeriodNanos, boolean paused) {
+        super("SnakeGameLoop");
+        this.view = view;
+        this.tickPeriodNanos = tickPeriodNanos;
+        this.paused = paused;
+        this.timestep = new FixedTimestep(tickPeriodNanos, MAX_CATCH_UP_STEPS);
+    }
+
+    @Override
+    public void run() {
+        timestep.reset(System.nanoTime());
+        while (running) {
+            long now = System.nanoTime();
+            if (timestep.getStepNanos() != tickPeriodNanos) {
+                timestep.setStepNanos(tickPeriodNanos);
+            }
+
+            if (paused) {
+                // Le temps passé en pause n'est pas rattrapé
+                timestep.reset(now);
+            } else {
+                int steps = timestep.advance(now);
+                for (int i = 0; i < steps; i++) {
+                    view.stepGame();
+                }
+            }
+
+            view.renderFrame();
+
+            LockSupport.parkNanos(paused ? PAUSED_PARK_NANOS : timestep.nanosUntilNextStep());
+        }
+    }
+
+    /** Change la vitesse du jeu (durée d'un pas, en ns). */
+    void setTickPeriodNanos(long tickPeriodNanos) {
+        this.tickPeriodNanos = tickPeriodNanos;
+        wake();
+    }
+
+    void setPaused(boolean paused) {
+        this.paused = paused;
+        wake();
+    }
+
+    /** Réveille la boucle (par ex. pour dessiner tout de suite après un redimensionnement). */
+    void wake() {
+        LockSupport.unpark(this);
+    }
+
+    /** Arrête la boucle et attend la fin du thread. */
+    void shutdown() {
+        running = false;
+        wake();
+        boolean interrupted = false;
+        while (isAlive()) {
+            try {
+                join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.snake;
+
+import android.view.KeyEvent;
+import android.view.View;
+
+import com.example.snake.input.InputSource;
+import com.example.snake.input.TurnQueue;
+
+/**
+ * Pilotage du serpent au D-pad ou au clavier (flèches et ZQSD / WASD) :
+ * chaque touche enfoncée ajoute un virage à la TurnQueue (thread UI).
+ */
+class KeyInput implements InputSource, View.OnKeyListener {
+
+    private final View view;
+
+    /** File alimentée (null quand la source est arrêtée). */
+    private TurnQueue turns;
+
+    KeyInput(View view) {
+        this.view = view;
+    }
+
+    @Override
+    public void start(TurnQueue turns) {
+        this.turns = turns;
+        view.setFocusable(true);
+        view.setFocusableInTouchMode(true);
+        view.setOnKeyListener(this);
+        view.requestFocus();
+    }
+
+    @Override
+    public void stop() {
+        view.setOnKeyListener(null);
+        turns = null;
+    }
+
+    @Override
+    public boolean onKey(View v, int keyCode, KeyEvent event) {
+        int dx = 0;
+        int dy = 0;
+        switch (keyCode) {
+            case KeyEvent.KEYCODE_DPAD_LEFT:
+            case KeyEvent.KEYCODE_A:
+            case KeyEvent.KEYCODE_Q:
+                dx = -1;
+                break;
+            case KeyEvent.KEYCODE_DPAD_RIGHT:
+            case KeyEvent.KEYCODE_D:
+                dx = 1;
+                break;
+            case KeyEvent.KEYCODE_DPAD_UP:
+            case KeyEvent.KEYCODE_W:
+            case KeyEvent.KEYCODE_Z:
+                dy = -1;
+                break;
+            case KeyEvent.KEYCODE_DPAD_DOWN:
+            case KeyEvent.KEYCODE_S:
+                dy = 1;
+                break;
+            default:
+                return false;
+        }
+        if (event.getAction() == KeyEvent.ACTION_DOWN && event.getRepeatCount() == 0
+                && turns != null) {
+            turns.offer(SwipeInput.fromScreenDelta(dx, dy),
+                    SwipeInput.toElapsedNanos(event.getEventTime()));
+        }
+        return true;
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.snake;
+
+import android.os.SystemClock;
+
+import com.example.snake.input.TurnQueue;
+import com.example.snake.metrics.LatencyHistogram;
+
+/**
+ * Mesure de la latence de bout en bout d'une commande du joueur :
+ *  - Chaque virage porte l'horodatage de l'événement d'origine (SensorEvent.timestamp,
+ *    ou instant du toucher / de la touche), en base SystemClock.elapsedRealtimeNanos().
+ *  - Quand le pas de jeu applique le virage : latence "entrée -> pas".
+ *  - Quand la frame qui dessine ce pas est postée à l'écran : latence "entrée -> image".
+ *  - Les deux vont dans des histogrammes sans allocation (LatencyHistogram), consultables
+ *    via dump() ou affichés par le HUD de debug (DebugHud).
+ * Toutes les méthodes sont appelées sous le verrou du moteur (voir SnakeView).
+ */
+class LatencyTracker {
+
+    /** Nombre maximal de virages en attente d'affichage (au-delà, ils ne sont pas mesurés). */
+    private static final int MAX_PENDING = 16;
+
+    private final LatencyHistogram inputToTick = new LatencyHistogram();
+    private final LatencyHistogram inputToFrame = new LatencyHistogram();
+
+    /** Horodatages des virages joués mais pas encore dessinés. */
+    private final long[] pending = new long[MAX_PENDING];
+    private int pendingCount;
+
+    /** Horodatages des virages dessinés dans la frame en cours d'envoi. */
+    private final long[] presenting = new long[MAX_PENDING];
+    private int presentingCount;
+
+    /**
+     * Un virage horodaté vient d'être appliqué par le pas de jeu.
+     */
+    void onTurnApplied(long inputTimestamp) {
+        if (inputTimestamp == TurnQueue.NO_TIMESTAMP) {
+            return;
+        }
+        inputToTick.record(SystemClock.elapsedRealtimeNanos() - inputTimestamp);
+        if (pendingCount < MAX_PENDING) {
+            pending[pendingCount++] = inputTimestamp;
+        }
+    }
+
+    /** Début du dessin d'une frame : les virages joués jusqu'ici y apparaissent. */
+    void onFrameDrawn() {
+        System.arraycopy(pending, 0, presenting, presentingCount,
+                Math.min(pendingCount, MAX_PENDING - presentingCount));
+        presentingCount = Math.min(presentingCount + pendingCount, MAX_PENDING);
+        pendingCount = 0;
+    }
+
+    /** La frame vient d'être postée à l'écran. */
+    void onFramePresented() {
+        long now = SystemClock.elapsedRealtimeNanos();
+        for (int i = 0; i < presentingCount; i++) {
+            inputToFrame.record(now - presenting[i]);
+        }
+        presentingCount = 0;
+    }
+
+    /** Efface les mesures. */
+    void reset() {
+        inputToTick.reset();
+        inputToFrame.reset();
+        pendingCount = 0;
+        presentingCount = 0;
+    }
+
+    /** Écrit les deux histogrammes sous forme lisible. */
+    void dump(StringBuilder out) {
+        out.append("Latence entrée -> pas   : ");
+        inputToTick.dump(out);
+        out.append('\n');
+        out.append("Latence entrée -> image : ");
+        inputToFrame.dump(out);
+        out.append('\n');
+    }
+
+    /** Copie l'histogramme entrée -> image dans target. */
+    void copyInputToFrame(LatencyHistogram target) {
+        inputToFrame.copyInto(target);
+    }
+}
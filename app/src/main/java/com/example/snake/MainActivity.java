@@ -1,9 +1,6 @@
 package com.example.snake;
 
 import android.content.Context;
-import android.hardware.Sensor;
-import android.hardware.SensorEvent;
-import android.hardware.SensorEventListener;
 import android.hardware.SensorManager;
 import android.os.Bundle;
 import android.widget.Button;
@@ -11,14 +8,35 @@ import android.widget.TextView;
 
 import androidx.appcompat.app.AppCompatActivity;
 
+import com.example.snake.input.InputSource;
+import com.example.snake.scores.ScoreStore;
+import com.example.snake.scores.TopScores;
+
+import java.io.File;
+import java.io.FileDescriptor;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
 /**
  * MainActivity qui gère :
- *  - Le sensor (accéléromètre) pour contrôler le serpent
+ *  - Les commandes (accéléromètre, glissement, D-pad / clavier) pour contrôler le serpent
  *  - Le score (via un TextView)
  *  - La pause / reprise / restart
+ *  - Le pilote automatique (bouton Auto / Manuel)
+ *  - La sauvegarde de la partie (rotation de l'écran, mort du processus)
+ *  - Le tableau des scores (journal sur disque, ouvert en arrière-plan)
  *  - Les interactions avec le SnakeView (dessin + logique du serpent)
+ *
+ * Le jeu avance à vitesse fixe sur le thread de jeu du SnakeView : les sources de commandes
+ * ne font qu'ajouter des virages dans sa file, et le SnakeView notifie le score / game over
+ * (GameListener). Les événements du capteur sont traités hors du thread UI (TiltController).
  */
-public class MainActivity extends AppCompatActivity implements SensorEventListener {
+public class MainActivity extends AppCompatActivity implements SnakeView.GameListener {
 
     //----------------------------------------------------------------------------------------------
     // Constantes et champs
@@ -27,27 +45,49 @@ public class MainActivity extends AppCompatActivity implements SensorEventListen
     /** Vue personnalisée où est dessiné le Snake (classe SnakeView). */
     private SnakeView snakeView;
 
-    /** Gestion du capteur d'accéléromètre. */
-    private SensorManager sensorManager;
-    private Sensor accelerometer;
+    /** Journal de la dernière partie (rejouable avec Replayer), dans le dossier privé de l'app. */
+    private static final String LAST_GAME_FILE = "last_game.snk";
+
+    /** Clé du Bundle pour l'instantané de la partie (SnakeView.saveGameState). */
+    private static final String STATE_SNAPSHOT = "snapshot";
+
+    /**
+     * Copie de l'instantané dans le dossier privé de l'app : reprise après la mort du
+     * processus, y compris pour les très longs serpents qui ne passent pas par le Bundle.
+     */
+    private static final String SNAPSHOT_FILE = "snapshot.snk";
+
+    /** Journal des scores de toutes les parties (ScoreStore), dans le dossier privé de l'app. */
+    private static final String SCORES_FILE = "scores.snl";
+
+    /**
+     * Tableau des scores, ouvert une seule fois par processus : il survit aux rotations,
+     * et son thread d'écriture n'a pas besoin d'être arrêté (chaque écriture est forcée
+     * sur le disque). Protégé par MainActivity.class.
+     */
+    private static ScoreStore scoreStore;
+
+    /** Taille maximale d'un instantané placé dans le Bundle (limite des transactions Binder). */
+    private static final int MAX_BUNDLE_SNAPSHOT_BYTES = 256 * 1024;
+
+    /** Distance minimale d'un glissement de doigt pour tourner (dp). */
+    private static final float SWIPE_MIN_DISTANCE_DP = 24f;
+
+    /** Sources de commandes : accéléromètre (sur son propre thread), glissement, clavier. */
+    private InputSource[] inputSources;
 
     /** État de pause et de fin de jeu. */
     private boolean isPaused = false;
     private boolean isGameOver = false;
 
-    /** Bouton Pause/Restart et affichage du score. */
+    /** Bouton Pause/Restart, bouton du pilote automatique et affichage du score. */
     private Button pauseButton;
+    private Button autopilotButton;
     private TextView scoreText;
 
-    /** Fréquence minimale de mise à jour via l'accéléromètre (en ms). */
-    private long lastUpdate = 0;
-    private static final int UPDATE_THRESHOLD = 100;
-
-    /** Directions (identiques à celles définies dans SnakeView). */
-    private static final int UP = SnakeView.UP;
-    private static final int DOWN = SnakeView.DOWN;
-    private static final int LEFT = SnakeView.LEFT;
-    private static final int RIGHT = SnakeView.RIGHT;
+    /** Tableau des scores une fois ouvert (null avant), et copie de son classement. */
+    private volatile ScoreStore scores;
+    private final TopScores topScores = new TopScores(ScoreStore.DEFAULT_TOP_COUNT);
 
     //----------------------------------------------------------------------------------------------
     // Cycle de vie de l'Activity
@@ -63,6 +103,16 @@ public class MainActivity extends AppCompatActivity implements SensorEventListen
         snakeView = findViewById(R.id.snake_view);
         scoreText = findViewById(R.id.score_text);
         pauseButton = findViewById(R.id.pause_button);
+        autopilotButton = findViewById(R.id.autopilot_button);
+
+        // Notifications du jeu (score, game over) sur le thread UI
+        snakeView.setGameListener(this);
+
+        // Debug : un appui long sur le score affiche / masque le HUD (latences, rendu)
+        scoreText.setOnLongClickListener(v -> {
+            snakeView.setDebugHudEnabled(!snakeView.isDebugHudEnabled());
+            return true;
+        });
 
         // 2) Configuration du bouton Pause/Restart
         pauseButton.setOnClickListener(v -> {
@@ -84,49 +134,96 @@ public class MainActivity extends AppCompatActivity implements SensorEventListen
             }
         });
 
-        // 3) Initialisation de l'accéléromètre
-        sensorManager = (SensorManager) getSystemService(Context.SENSOR_SERVICE);
-        accelerometer = sensorManager.getDefaultSensor(Sensor.TYPE_ACCELEROMETER);
+        // 3) Pilote automatique : le bouton bascule entre Auto et Manuel
+        autopilotButton.setOnClickListener(v -> {
+            boolean enabled = !snakeView.isAutopilotEnabled();
+            snakeView.setAutopilotEnabled(enabled);
+            autopilotButton.setText(enabled ? "Manuel" : "Auto");
+        });
+
+        // 4) Initialisation des sources de commandes (alimentent la file de virages)
+        SensorManager sensorManager = (SensorManager) getSystemService(Context.SENSOR_SERVICE);
+        float density = getResources().getDisplayMetrics().density;
+        inputSources = new InputSource[]{
+                new TiltController(sensorManager),
+                new SwipeInput(snakeView, SWIPE_MIN_DISTANCE_DP * density),
+                new KeyInput(snakeView)
+        };
+
+        // 5) Activity recréée (rotation, mort du processus) : on reprend la partie
+        if (savedInstanceState != null) {
+            restoreGame(savedInstanceState);
+        }
+
+        // 6) Tableau des scores : le journal est relu hors du thread UI
+        File scoresFile = new File(getFilesDir(), SCORES_FILE);
+        new Thread(() -> loadScores(scoresFile), "scores-open").start();
+    }
+
+    /**
+     * Sauvegarde la partie : dans le Bundle si l'instantané est assez petit, et toujours
+     * dans un fichier (le processus peut être tué ensuite sans autre appel).
+     */
+    @Override
+    protected void onSaveInstanceState(Bundle outState) {
+        super.onSaveInstanceState(outState);
+        ByteBuffer snapshot = snakeView.saveGameState();
+        if (snapshot.remaining() <= MAX_BUNDLE_SNAPSHOT_BYTES) {
+            outState.putByteArray(STATE_SNAPSHOT,
+                    Arrays.copyOf(snapshot.array(), snapshot.remaining()));
+        }
+        try (FileChannel channel =
+                     new FileOutputStream(new File(getFilesDir(), SNAPSHOT_FILE)).getChannel()) {
+            while (snapshot.hasRemaining()) {
+                channel.write(snapshot);
+            }
+        } catch (IOException e) {
+            // Reprise impossible après la mort du processus (le Bundle suffit à la rotation)
+        }
     }
 
     /**
      * Appelé lorsque l'Activity devient visible (premier plan) :
-     * on enregistre le listener pour l'accéléromètre.
+     * on démarre les sources de commandes.
      */
     @Override
     protected void onResume() {
         super.onResume();
-        registerSensorListener();
+        if (!isPaused) {
+            startInputs();
+        }
     }
 
     /**
      * Appelé lorsque l'Activity passe en pause (par exemple, écran éteint) :
-     * on désactive l'écoute de l'accéléromètre.
+     * on arrête les sources de commandes.
      */
     @Override
     protected void onPause() {
         super.onPause();
-        unregisterSensorListener();
+        stopInputs();
     }
 
     //----------------------------------------------------------------------------------------------
-    // Gestion du Sensor (accéléromètre)
+    // Sources de commandes (accéléromètre, glissement, clavier)
     //----------------------------------------------------------------------------------------------
 
     /**
-     * Enregistre le listener de l'accéléromètre si le capteur est disponible.
+     * Démarre toutes les sources de commandes.
      */
-    private void registerSensorListener() {
-        if (accelerometer != null) {
-            sensorManager.registerListener(this, accelerometer, SensorManager.SENSOR_DELAY_UI);
+    private void startInputs() {
+        for (InputSource source : inputSources) {
+            source.start(snakeView.getTurnQueue());
         }
     }
 
     /**
-     * Désenregistre le listener de l'accéléromètre.
+     * Arrête toutes les sources de commandes.
      */
-    private void unregisterSensorListener() {
-        sensorManager.unregisterListener(this);
+    private void stopInputs() {
+        for (InputSource source : inputSources) {
+            source.stop();
+        }
     }
 
     //----------------------------------------------------------------------------------------------
@@ -134,93 +231,139 @@ public class MainActivity extends AppCompatActivity implements SensorEventListen
     //----------------------------------------------------------------------------------------------
 
     /**
-     * Met en pause le jeu : arrête l'accéléromètre et change le texte du bouton.
+     * Met en pause le jeu : arrête la boucle de jeu, les commandes et change le texte du bouton.
      */
     private void pauseGame() {
         isPaused = true;
         pauseButton.setText("Reprendre");
-        unregisterSensorListener();
+        snakeView.setPaused(true);
+        stopInputs();
     }
 
     /**
-     * Reprend la partie : réactive l'accéléromètre et change le texte du bouton.
+     * Reprend la partie : relance la boucle de jeu, les commandes et change le texte du bouton.
      */
     private void resumeGame() {
         isPaused = false;
         pauseButton.setText("Pause");
-        registerSensorListener();
+        snakeView.setPaused(false);
+        startInputs();
     }
 
     //----------------------------------------------------------------------------------------------
-    // SensorEventListener : gestion des changements de l'accéléromètre
+    // SnakeView.GameListener : notifications du thread de jeu (reçues sur le thread UI)
     //----------------------------------------------------------------------------------------------
 
-    /**
-     * Callback lorsque le capteur envoie de nouvelles valeurs (accéléromètre).
-     */
     @Override
-    public void onSensorChanged(SensorEvent event) {
-        // Si le jeu est en pause ou déjà perdu, on n'agit pas
-        if (isPaused || snakeView.isGameOver()) {
+    public void onScoreChanged(int score) {
+        updateScoreText();
+    }
+
+    @Override
+    public void onGameOver() {
+        // Notification obsolète (partie relancée entre-temps)
+        if (!snakeView.isGameOver()) {
             return;
         }
+        // Collision => game over : le bouton propose de recommencer
+        isGameOver = true;
+        pauseButton.setText("Restart");
+        saveLastGame();
+    }
 
-        // Vérifier qu'on reçoit bien l'accéléromètre
-        if (event.sensor.getType() == Sensor.TYPE_ACCELEROMETER) {
-            handleSensorChange(event);
+    /**
+     * Sauvegarde le journal de la partie qui vient de se terminer (quelques octets à
+     * quelques Ko), pour pouvoir la rejouer à l'identique.
+     */
+    private void saveLastGame() {
+        byte[] recording = snakeView.getLastRecording();
+        if (recording == null) {
+            return;
         }
+        try (FileOutputStream out = new FileOutputStream(new File(getFilesDir(), LAST_GAME_FILE))) {
+            out.write(recording);
+        } catch (IOException e) {
+            // Pas de rejeu possible, le jeu continue normalement
+        }
+    }
 
-        // Mettre à jour l'affichage du score après le mouvement
-        updateScoreText();
+    //----------------------------------------------------------------------------------------------
+    // Tableau des scores
+    //----------------------------------------------------------------------------------------------
 
-        // Vérifier si le jeu vient de se terminer (collision => game over)
-        if (snakeView.isGameOver()) {
-            isGameOver = true;
-            pauseButton.setText("Restart");
+    /** Ouvre le tableau des scores au premier appel du processus (hors du thread UI). */
+    private static synchronized ScoreStore openScoreStore(File file) throws IOException {
+        if (scoreStore == null) {
+            scoreStore = ScoreStore.open(file, ScoreStore.DEFAULT_TOP_COUNT);
         }
+        return scoreStore;
     }
 
     /**
-     * Gère la logique pour l'accéléromètre : détermine si on va haut/bas/gauche/droite.
+     * Ouvre le tableau des scores, le branche sur le SnakeView et affiche le record
+     * (thread d'arrière-plan).
      */
-    private void handleSensorChange(SensorEvent event) {
-        long currentTime = System.currentTimeMillis();
-        // Empêche de déclencher trop souvent (limite à UPDATE_THRESHOLD ms)
-        if ((currentTime - lastUpdate) > UPDATE_THRESHOLD) {
-            lastUpdate = currentTime;
-
-            float x = event.values[0]; // Inclinaison horizontale
-            float y = event.values[1]; // Inclinaison verticale
-
-            // On priorise le mouvement vertical si |y| > |x|
-            if (Math.abs(y) > Math.abs(x)) {
-                // Mouvement vertical
-                if (y < -1) {
-                    // Haut
-                    snakeView.moveSnake(0, -1, UP);
-                } else if (y > 1) {
-                    // Bas
-                    snakeView.moveSnake(0, 1, DOWN);
-                }
-            } else {
-                // Mouvement horizontal
-                if (x < -1) {
-                    // Gauche
-                    snakeView.moveSnake(-1, 0, LEFT);
-                } else if (x > 1) {
-                    // Droite
-                    snakeView.moveSnake(1, 0, RIGHT);
-                }
-            }
+    private void loadScores(File file) {
+        ScoreStore store;
+        try {
+            store = openScoreStore(file);
+        } catch (IOException e) {
+            // Pas de tableau des scores, le jeu continue normalement
+            return;
         }
+        scores = store;
+        snakeView.setScoreStore(store);
+        runOnUiThread(this::updateScoreText);
     }
 
+    //----------------------------------------------------------------------------------------------
+    // Reprise de la partie
+    //----------------------------------------------------------------------------------------------
+
     /**
-     * Callback non utilisé ici (SensorEventListener).
+     * Reprend la partie sauvée par onSaveInstanceState (Bundle, sinon fichier projeté en
+     * mémoire) et remet les boutons dans l'état correspondant.
      */
+    private void restoreGame(Bundle savedInstanceState) {
+        byte[] bytes = savedInstanceState.getByteArray(STATE_SNAPSHOT);
+        if (bytes != null) {
+            snakeView.restoreGameState(ByteBuffer.wrap(bytes));
+        } else {
+            try (FileChannel channel =
+                         new FileInputStream(new File(getFilesDir(), SNAPSHOT_FILE)).getChannel()) {
+                snakeView.restoreGameState(
+                        channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+            } catch (IOException e) {
+                // Pas d'instantané : nouvelle partie
+            }
+        }
+
+        isPaused = snakeView.isPaused();
+        isGameOver = snakeView.isGameOver();
+        if (isGameOver) {
+            pauseButton.setText("Restart");
+        } else if (isPaused) {
+            pauseButton.setText("Reprendre");
+        }
+        autopilotButton.setText(snakeView.isAutopilotEnabled() ? "Manuel" : "Auto");
+        updateScoreText();
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // Diagnostic : adb shell dumpsys activity com.example.snake/.MainActivity
+    //----------------------------------------------------------------------------------------------
+
     @Override
-    public void onAccuracyChanged(Sensor sensor, int accuracy) {
-        // Rien de spécial
+    public void dump(String prefix, FileDescriptor fd, PrintWriter writer, String[] args) {
+        super.dump(prefix, fd, writer, args);
+        StringBuilder out = new StringBuilder();
+        snakeView.dumpMetrics(out);
+        ScoreStore store = scores;
+        if (store != null) {
+            out.append("\nScores : ");
+            store.dump(out);
+        }
+        writer.print(out);
     }
 
     //----------------------------------------------------------------------------------------------
@@ -228,10 +371,19 @@ public class MainActivity extends AppCompatActivity implements SensorEventListen
     //----------------------------------------------------------------------------------------------
 
     /**
-     * Met à jour le TextView pour afficher "Score : X".
+     * Met à jour le TextView pour afficher "Score : X", suivi du record une fois le tableau
+     * des scores ouvert.
      */
     private void updateScoreText() {
         int currentScore = snakeView.getScore();
-        scoreText.setText("Score : " + currentScore);
+        ScoreStore store = scores;
+        if (store == null) {
+            scoreText.setText("Score : " + currentScore);
+            return;
+        }
+        store.copyTop(topScores);
+        int best = topScores.size() > 0 ? Math.max(topScores.getScore(0), currentScore)
+                : currentScore;
+        scoreText.setText("Score : " + currentScore + "   Record : " + best);
     }
 }
\ No newline at end of file
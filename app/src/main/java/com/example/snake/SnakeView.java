@@ -1,36 +1,87 @@
 package com.example.snake;
 
 import android.content.Context;
+import android.content.res.TypedArray;
 import android.graphics.Bitmap;
-import android.graphics.BitmapFactory;
 import android.graphics.Canvas;
 import android.graphics.Color;
 import android.graphics.Paint;
+import android.graphics.Rect;
+import android.os.Debug;
+import android.os.SystemClock;
 import android.util.AttributeSet;
-import android.view.View;
-
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Random;
+import android.view.Display;
+import android.view.SurfaceHolder;
+import android.view.SurfaceView;
+
+import com.example.snake.camera.Camera;
+import com.example.snake.engine.SnakeEngine;
+import com.example.snake.input.TurnQueue;
+import com.example.snake.metrics.FrameMetrics;
+import com.example.snake.metrics.LatencyHistogram;
+import com.example.snake.replay.InputLogWriter;
+import com.example.snake.replay.StateStreamWriter;
+import com.example.snake.scores.ScoreStore;
+import com.example.snake.sim.AutopilotPolicy;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
 
 /**
- * Vue personnalisée (SnakeView) qui dessine un Snake sur un Canvas :
- *  - Affiche une grille (cases carrées).
- *  - Gère la position et le dessin de la pomme.
- *  - Gère la position et le dessin du serpent (tête + corps).
- *  - Gère la logique : score, collisions, game over, etc.
- *  - Autorise un demi-tour uniquement si le serpent n'a qu'un segment (sinon ignore la commande).
+ * Vue personnalisée (SnakeView) qui dessine un Snake sur une Surface :
+ *  - Affiche une grille (cases carrées), de taille configurable (attributs boardRows et
+ *    boardColumns). Si elle ne tient pas à l'écran avec des cases lisibles, seule une
+ *    fenêtre (Camera) qui suit la tête est affichée, et seules ses cases sont dessinées.
+ *  - Dessine la pomme et le serpent (tête + corps) à partir de l'état du SnakeEngine.
+ *  - Rendu incrémental : seules les cases modifiées à chaque pas sont redessinées dans un
+ *    tampon persistant (backBuffer), recopié ensuite en un seul drawBitmap. Les segments du
+ *    corps à redessiner sont envoyés en un seul lot (BodyBatch) : le nombre d'appels de
+ *    dessin ne dépend pas de la longueur du serpent.
+ *  - Toute la logique (score, collisions, game over, etc.) est déléguée au SnakeEngine,
+ *    qui ne dépend pas d'Android.
+ *  - Chaque partie part d'une graine explicite (fixe en mode déterministe) et ses
+ *    directions sont enregistrées (InputLogWriter) : la partie peut être rejouée à l'identique.
+ *    Elle peut aussi être diffusée en direct à des spectateurs (StateStreamWriter).
+ *  - Chaque partie terminée ou abandonnée est ajoutée au tableau des scores (ScoreStore),
+ *    sans accès disque sur le thread du jeu.
+ *  - Le jeu avance à vitesse fixe et est dessiné sur un thread dédié (GameLoopThread),
+ *    tant que la Surface existe. À chaque pas, au plus un virage est retiré de la file
+ *    des virages (TurnQueue), alimentée par les sources de commandes (InputSource).
+ *
+ * Le moteur sert aussi de verrou : tout accès à l'état du jeu ou aux objets de dessin
+ * depuis le thread UI se fait dans un bloc synchronized (engine).
  */
-public class SnakeView extends View {
+public class SnakeView extends SurfaceView implements SurfaceHolder.Callback {
+
+    /**
+     * Notifications envoyées à l'activité, toujours sur le thread UI.
+     */
+    public interface GameListener {
+        /** Le score a changé. */
+        void onScoreChanged(int score);
+
+        /** La partie vient de se terminer. */
+        void onGameOver();
+    }
 
     //----------------------------------------------------------------------------------------------
     // Constantes et champs de configuration
     //----------------------------------------------------------------------------------------------
 
-    /** Nombre de lignes dans la grille. */
-    private int rowCount = 11;
-    /** Nombre de colonnes dans la grille. */
-    private int columnCount = 11;
+    /** Nombre de lignes dans la grille, par défaut (attribut boardRows). */
+    private static final int DEFAULT_ROW_COUNT = 11;
+    /** Nombre de colonnes dans la grille, par défaut (attribut boardColumns). */
+    private static final int DEFAULT_COLUMN_COUNT = 11;
+
+    /** Taille minimale d'une case à l'écran (dp) : en dessous, la caméra suit la tête. */
+    private static final float MIN_CELL_SIZE_DP = 24f;
+
+    /** Durée par défaut d'un pas de jeu (ms). */
+    public static final long DEFAULT_TICK_PERIOD_MS = 100;
 
     /** Taille (en pixels) de chaque cellule. */
     private float cellSize;
@@ -39,10 +90,13 @@ public class SnakeView extends View {
     private float offsetX;
     private float offsetY;
 
-    /** Largeur/Hauteur totales de la grille (en pixels). */
+    /** Largeur/Hauteur totales de la partie visible de la grille (en pixels). */
     private float totalGridWidth;
     private float totalGridHeight;
 
+    /** Partie visible de la grille (protégée par engine). */
+    private Camera camera;
+
     //----------------------------------------------------------------------------------------------
     // Objets de dessin (Paint, Bitmaps)
     //----------------------------------------------------------------------------------------------
@@ -53,42 +107,163 @@ public class SnakeView extends View {
     /** Peinture pour remplir le corps du serpent. */
     private Paint paintBodyFill;
 
-    /** Peinture pour tracer la bordure autour du corps. */
+    /** Peinture pour tracer la bordure autour du corps (traits à extrémités carrées). */
     private Paint paintBodyStroke;
 
-    // Bitmaps pour la tête du serpent (4 directions).
-    private Bitmap headUp, headDown, headLeft, headRight;
-    // Bitmap pour la pomme.
-    private Bitmap appleBitmap;
+    /** Peintures de l'écran de fin (voile et texte). */
+    private Paint paintGameOverVeil;
+    private Paint paintGameOverText;
+
+    /**
+     * Calque statique pré-rendu (fond noir + grille), reconstruit seulement quand la taille
+     * de la vue change. Chaque frame le recopie en un seul drawBitmap.
+     */
+    private Bitmap backgroundLayer;
+
+    /** Tampon persistant contenant la dernière image du jeu (fond + pomme + serpent). */
+    private Bitmap backBuffer;
+    private Canvas backCanvas;
+
+    /** Cases modifiées depuis la dernière frame. */
+    private final DirtyCells dirtyCells = new DirtyCells(64);
+
+    /** Rectangle réutilisé pour redessiner une case (évite une allocation par case). */
+    private final Rect cellBounds = new Rect();
+
+    /** Segments du corps à dessiner en un seul lot (remplissage + bordures). */
+    private final BodyBatch bodyBatch = new BodyBatch();
+
+    /**
+     * Sprites (tête dans les 4 directions + pomme) à la taille d'une cellule, partagés par le
+     * dépôt du processus (null tant qu'ils sont en cours de décodage ; protégés par engine).
+     */
+    private SpriteCache sprites;
+    private SpriteRepository spriteRepository;
+
+    /** Appelé par le dépôt quand les sprites demandés sont prêts (pré-alloué). */
+    private final SpriteRepository.Callback spritesReady = this::onSpritesReady;
+
+    /** Création de la vue et première frame affichée (elapsedRealtimeNanos, 0 : pas encore). */
+    private long createdNanos;
+    private long firstFrameNanos;
 
     //----------------------------------------------------------------------------------------------
-    // État du jeu : serpent, pomme, score, etc.
+    // État du jeu (moteur)
     //----------------------------------------------------------------------------------------------
 
-    /** Liste des coordonnées [row, col] du serpent. index=0 => tête. */
-    private List<int[]> snakeCoordinates;
+    /** Moteur du jeu : serpent, pomme, score, collisions, etc. */
+    private SnakeEngine engine;
 
-    /** Position de la pomme (row, col). */
-    private int appleRow;
-    private int appleCol;
+    // Directions possibles (identiques à celles du moteur)
+    public static final int UP = SnakeEngine.UP;
+    public static final int DOWN = SnakeEngine.DOWN;
+    public static final int LEFT = SnakeEngine.LEFT;
+    public static final int RIGHT = SnakeEngine.RIGHT;
 
-    /** Score du joueur. */
-    private int score = 0;
+    //----------------------------------------------------------------------------------------------
+    // Boucle de jeu et communication avec le thread UI
+    //----------------------------------------------------------------------------------------------
+
+    /** Thread de jeu + rendu (null tant que la Surface n'existe pas). */
+    private GameLoopThread gameLoop;
+
+    /** Durée d'un pas de jeu (ns). */
+    private long tickPeriodNanos = TimeUnit.MILLISECONDS.toNanos(DEFAULT_TICK_PERIOD_MS);
+
+    /** Jeu en pause (conservé si la Surface est recréée). */
+    private boolean paused;
+
+    /** Virages demandés par le joueur, consommés un par pas. */
+    private final TurnQueue turnQueue = new TurnQueue();
+
+    /** Faux après un restart tant que le joueur n'a donné aucun virage (protégé par engine). */
+    private boolean started;
+
+    /** Pilote automatique : choisit la direction à la place du joueur (protégé par engine). */
+    private final AutopilotPolicy autopilot = new AutopilotPolicy();
+    private boolean autopilotEnabled;
+
+    //----------------------------------------------------------------------------------------------
+    // Graine et enregistrement des parties (protégés par engine)
+    //----------------------------------------------------------------------------------------------
+
+    /** Mode déterministe : chaque partie commence avec fixedSeed. */
+    private boolean deterministic;
+    private long fixedSeed;
+
+    /** Graine de la partie en cours. */
+    private long currentSeed;
+
+    /** Directions jouées dans la partie en cours (journal binaire, voir InputLog). */
+    private final ByteArrayOutputStream recordingBytes = new ByteArrayOutputStream(1024);
+    private final InputLogWriter recorder = new InputLogWriter(recordingBytes);
+
+    /** Journal de la dernière partie terminée (null si aucune). */
+    private byte[] lastRecording;
 
-    /** Indique si la partie est terminée. */
-    private boolean isGameOver = false;
+    /** Flux d'état diffusé aux spectateurs (null si aucun). */
+    private StateStreamWriter spectatorStream;
 
-    // Directions possibles
-    public static final int UP = 0;
-    public static final int DOWN = 1;
-    public static final int LEFT = 2;
-    public static final int RIGHT = 3;
+    /** Tableau des scores (null tant qu'il n'est pas ouvert). */
+    private volatile ScoreStore scoreStore;
 
-    /** Direction actuelle du serpent (UP, DOWN, LEFT, RIGHT). */
-    private int currentDirection = RIGHT;
+    /** Temps de jeu de la partie en cours, pauses exclues (ns). */
+    private long playedNanos;
 
-    /** Générateur aléatoire (pour placer la pomme). */
-    private Random random;
+    /** Tampon réutilisé par saveGameState (réalloué seulement si le serpent a trop grandi). */
+    private ByteBuffer snapshotBuffer;
+
+    /** Latence commande -> pas -> image (protégée par engine). */
+    private final LatencyTracker latency = new LatencyTracker();
+
+    //----------------------------------------------------------------------------------------------
+    // Mesures de rendu (debug, protégées par engine)
+    //----------------------------------------------------------------------------------------------
+
+    /** Phases d'une frame, dans l'ordre où elles se déroulent. */
+    static final int PHASE_LOCK = 0;       // lockCanvas (attente d'un tampon de la Surface)
+    static final int PHASE_BUFFER = 1;     // mise à jour du tampon (cases modifiées)
+    static final int PHASE_BLIT = 2;       // recopie du tampon (ou du fond) sur la Surface
+    static final int PHASE_GAME_OVER = 3;  // voile et texte de fin
+    static final int PHASE_HUD = 4;        // HUD de debug
+    static final int PHASE_POST = 5;       // unlockCanvasAndPost
+    private static final String[] PHASE_NAMES =
+            {"verrou", "tampon", "copie", "fin", "hud", "post"};
+
+    /**
+     * Durées par phase, percentiles, frames hors budget et frames retenues par l'attente d'un
+     * tampon (inactives par défaut).
+     */
+    @SuppressWarnings("deprecation")
+    private final FrameMetrics frameMetrics = new FrameMetrics(PHASE_NAMES,
+            FrameMetrics.DEFAULT_FRAME_BUDGET_NANOS, Debug::getThreadAllocCount);
+
+    /** HUD de debug (latences + mesures de rendu). */
+    private final DebugHud debugHud = new DebugHud();
+
+    /** Vrai si une nouvelle frame doit être dessinée (protégé par engine). */
+    private boolean renderRequested = true;
+
+    /** Destinataire des notifications (score, game over). */
+    private volatile GameListener gameListener;
+
+    /** Dernier score publié et état game over publié (protégés par engine). */
+    private volatile int publishedScore;
+    private boolean gameOverPublished;
+
+    /** Notifications pré-allouées, postées sur le thread UI. */
+    private final Runnable scoreNotifier = () -> {
+        GameListener listener = gameListener;
+        if (listener != null) {
+            listener.onScoreChanged(publishedScore);
+        }
+    };
+    private final Runnable gameOverNotifier = () -> {
+        GameListener listener = gameListener;
+        if (listener != null) {
+            listener.onGameOver();
+        }
+    };
 
     //----------------------------------------------------------------------------------------------
     // Constructeurs
@@ -96,12 +271,12 @@ public class SnakeView extends View {
 
     public SnakeView(Context context) {
         super(context);
-        init();
+        init(null);
     }
 
     public SnakeView(Context context, AttributeSet attrs) {
         super(context, attrs);
-        init();
+        init(attrs);
     }
 
     //----------------------------------------------------------------------------------------------
@@ -111,12 +286,31 @@ public class SnakeView extends View {
     /**
      * Méthode d'initialisation, appelée par les constructeurs.
      */
-    private void init() {
-        // Pour l'aléatoire (pomme, etc.)
-        random = new Random();
-
-        // Prépare la liste des coordonnées du serpent.
-        snakeCoordinates = new ArrayList<>();
+    private void init(AttributeSet attrs) {
+        // La Surface est dessinée par le thread de jeu
+        getHolder().addCallback(this);
+
+        // Attendre un tampon de la Surface n'est pas un rendu lent : hors budget
+        frameMetrics.setWaitPhase(PHASE_LOCK);
+
+        // Moteur du jeu (graine aléatoire différente à chaque lancement)
+        int rowCount = DEFAULT_ROW_COUNT;
+        int columnCount = DEFAULT_COLUMN_COUNT;
+        if (attrs != null) {
+            TypedArray a = getContext().obtainStyledAttributes(attrs, R.styleable.SnakeView);
+            try {
+                rowCount = a.getInt(R.styleable.SnakeView_boardRows, DEFAULT_ROW_COUNT);
+                columnCount = a.getInt(R.styleable.SnakeView_boardColumns, DEFAULT_COLUMN_COUNT);
+            } finally {
+                a.recycle();
+            }
+        }
+        engine = new SnakeEngine(rowCount, columnCount, System.nanoTime());
+        camera = new Camera(rowCount, columnCount);
+        synchronized (engine) {
+            // Première partie : les changements de taille ne la touchent plus
+            resetGame();
+        }
 
         // Peinture de la grille (lignes grises).
         paintGrid = new Paint();
@@ -133,15 +327,20 @@ public class SnakeView extends View {
         paintBodyStroke.setColor(Color.BLACK); // Bordure noire
         paintBodyStroke.setStyle(Paint.Style.STROKE);
         paintBodyStroke.setStrokeWidth(2f);
-
-        // Chargement des bitmaps pour la tête (4 directions).
-        headUp = BitmapFactory.decodeResource(getResources(), R.drawable.snake_head_up);
-        headDown = BitmapFactory.decodeResource(getResources(), R.drawable.snake_head_down);
-        headLeft = BitmapFactory.decodeResource(getResources(), R.drawable.snake_head_left);
-        headRight = BitmapFactory.decodeResource(getResources(), R.drawable.snake_head_right);
-
-        // Chargement du bitmap pour la pomme.
-        appleBitmap = BitmapFactory.decodeResource(getResources(), R.drawable.apple);
+        // Les coins des bordures tracées par drawLines (BodyBatch) sont fermés
+        paintBodyStroke.setStrokeCap(Paint.Cap.SQUARE);
+
+        // Peintures de l'écran de fin (créées une fois, pas à chaque frame)
+        paintGameOverVeil = new Paint();
+        paintGameOverVeil.setColor(Color.argb(150, 0, 0, 0));
+        paintGameOverText = new Paint();
+        paintGameOverText.setColor(Color.WHITE);
+        paintGameOverText.setTextSize(70);
+
+        // Sprites de la pomme et de la tête : décodés en arrière-plan à la taille d'une
+        // cellule, une fois connue (onSizeChanged), et partagés entre les vues
+        spriteRepository = SpriteRepository.get(getContext());
+        createdNanos = SystemClock.elapsedRealtimeNanos();
     }
 
     //----------------------------------------------------------------------------------------------
@@ -149,87 +348,454 @@ public class SnakeView extends View {
     //----------------------------------------------------------------------------------------------
 
     /**
-     * Appelée lorsque la vue est mesurée : on calcule la taille des cellules carrées et on centre.
+     * Appelée lorsque la vue est mesurée : on choisit le nombre de cases visibles (toute la
+     * grille si elle tient avec des cases lisibles), on calcule la taille des cellules carrées
+     * et on centre. L'état du jeu n'est pas modifié (rotation, redimensionnement).
      */
     @Override
     protected void onSizeChanged(int w, int h, int oldw, int oldh) {
         super.onSizeChanged(w, h, oldw, oldh);
 
-        // Taille brute : largeur / colonnes et hauteur / lignes
-        float cellW = (float) w / columnCount;
-        float cellH = (float) h / rowCount;
+        synchronized (engine) {
+            // Nombre de cases visibles, pour des cases d'au moins MIN_CELL_SIZE_DP
+            float minCellPx = MIN_CELL_SIZE_DP * getResources().getDisplayMetrics().density;
+            int visibleColumns = Camera.visibleCount(w, minCellPx, engine.getColumnCount());
+            int visibleRows = Camera.visibleCount(h, minCellPx, engine.getRowCount());
+            camera.setVisibleSize(visibleRows, visibleColumns);
+            bodyBatch.ensureCapacity(visibleRows * visibleColumns);
+
+            // Taille brute : largeur / colonnes et hauteur / lignes
+            float cellW = (float) w / visibleColumns;
+            float cellH = (float) h / visibleRows;
+
+            // On veut des cases carrées => on prend la plus petite dimension
+            cellSize = Math.min(cellW, cellH);
+
+            // Largeur / hauteur totales de la partie visible de la grille
+            totalGridWidth = cellSize * visibleColumns;
+            totalGridHeight = cellSize * visibleRows;
+
+            // Décalage pour centrer la grille
+            offsetX = (w - totalGridWidth) / 2f;
+            offsetY = (h - totalGridHeight) / 2f;
+
+            // Sprites à la nouvelle taille de cellule : déjà prêts (autre vue, rotation
+            // précédente) ou décodés en arrière-plan, la partie s'affiche sans eux en attendant
+            int spriteSize = (int) cellSize;
+            sprites = spriteRepository.peek(spriteSize);
+            if (sprites == null) {
+                spriteRepository.load(spriteSize, spritesReady);
+            }
+
+            // Pré-rend le fond et la grille pour cette taille
+            buildBackgroundLayer(w, h);
+
+            // Nouveau tampon de rendu : tout est à redessiner
+            buildBackBuffer(w, h);
+            dirtyCells.markAll();
+
+            // La partie continue telle quelle : seule la caméra est recentrée sur la tête
+            int head = engine.getHeadCell();
+            camera.centerOn(head / engine.getColumnCount(), head % engine.getColumnCount());
+            renderRequested = true;
+        }
+        wakeGameLoop();
+    }
+
+    /**
+     * Sprites décodés (thread de décodage) : ils remplacent les précédents s'ils ont
+     * toujours la taille d'une cellule, et tout est redessiné.
+     */
+    private void onSpritesReady(SpriteCache loaded) {
+        synchronized (engine) {
+            if (loaded.getSize() != (int) cellSize || loaded == sprites) {
+                return;
+            }
+            sprites = loaded;
+            dirtyCells.markAll();
+            renderRequested = true;
+        }
+        wakeGameLoop();
+    }
 
-        // On veut des cases carrées => on prend la plus petite dimension
-        cellSize = Math.min(cellW, cellH);
+    //----------------------------------------------------------------------------------------------
+    // Surface et thread de jeu
+    //----------------------------------------------------------------------------------------------
 
-        // Largeur / hauteur totales de la grille
-        totalGridWidth = cellSize * columnCount;
-        totalGridHeight = cellSize * rowCount;
+    @Override
+    public void surfaceCreated(SurfaceHolder holder) {
+        // Budget d'une frame : une période de rafraîchissement de l'écran
+        Display display = getDisplay();
+        if (display != null && display.getRefreshRate() > 0f) {
+            synchronized (engine) {
+                frameMetrics.setFrameBudgetNanos((long) (1e9 / display.getRefreshRate()));
+            }
+        }
 
-        // Décalage pour centrer la grille
-        offsetX = (w - totalGridWidth) / 2f;
-        offsetY = (h - totalGridHeight) / 2f;
+        gameLoop = new GameLoopThread(this, tickPeriodNanos, paused);
+        gameLoop.start();
+    }
 
-        // Initialise (ou réinitialise) la position du serpent + pomme
-        resetPositions();
+    @Override
+    public void surfaceChanged(SurfaceHolder holder, int format, int width, int height) {
+        synchronized (engine) {
+            renderRequested = true;
+        }
+        wakeGameLoop();
+    }
+
+    @Override
+    public void surfaceDestroyed(SurfaceHolder holder) {
+        // Le thread ne doit plus toucher la Surface une fois cette méthode terminée
+        if (gameLoop != null) {
+            gameLoop.shutdown();
+            gameLoop = null;
+        }
+    }
+
+    private void wakeGameLoop() {
+        GameLoopThread loop = gameLoop;
+        if (loop != null) {
+            loop.wake();
+        }
     }
 
     /**
-     * Réinitialise le serpent (tête au centre), le score, et place la pomme.
+     * Un pas de jeu, appelé par le thread de jeu à vitesse fixe : déplace le serpent dans
+     * la dernière direction demandée, note les cases modifiées (anciennes et nouvelles tête
+     * et pomme, queue libérée) et notifie le thread UI si le score ou l'état a changé.
      */
-    private void resetPositions() {
-        snakeCoordinates.clear();
-        isGameOver = false;
-        score = 0;
+    void stepGame() {
+        boolean scoreChanged;
+        boolean gameJustEnded;
+        synchronized (engine) {
+            if (engine.isGameOver()) {
+                return;
+            }
+
+            // Un virage par pas (demi-tours interdits déjà écartés par la file),
+            // sinon le serpent continue tout droit
+            int direction = turnQueue.poll(engine.getDirection(), engine.getLength() == 1);
+            long inputTimestamp = turnQueue.lastPolledTimestamp();
+            if (autopilotEnabled) {
+                // Les virages du joueur sont ignorés
+                direction = autopilot.chooseDirection(engine);
+                inputTimestamp = TurnQueue.NO_TIMESTAMP;
+            } else if (direction == TurnQueue.NO_DIRECTION) {
+                if (!started) {
+                    // Le serpent attend la première commande du joueur
+                    return;
+                }
+                direction = engine.getDirection();
+            }
+            started = true;
+
+            int previousHead = engine.getHeadCell();
+            int previousApple = engine.getAppleCell();
+
+            engine.tick(direction);
+            playedNanos += tickPeriodNanos;
+            record(direction);
+            spectate(false);
+            latency.onTurnApplied(inputTimestamp);
+
+            int head = engine.getHeadCell();
+            int columnCount = engine.getColumnCount();
+            if (camera.follow(head / columnCount, head % columnCount)) {
+                // Tout l'écran défile
+                dirtyCells.markAll();
+            } else {
+                dirtyCells.add(previousHead);
+                dirtyCells.add(previousApple);
+                dirtyCells.add(head);
+                dirtyCells.add(engine.getLastVacatedCell());
+                dirtyCells.add(engine.getAppleCell());
+            }
+            renderRequested = true;
+
+            scoreChanged = engine.getScore() != publishedScore;
+            if (scoreChanged) {
+                publishedScore = engine.getScore();
+            }
+            gameJustEnded = engine.isGameOver() && !gameOverPublished;
+            if (gameJustEnded) {
+                gameOverPublished = true;
+                finishRecording();
+                recordScore();
+            }
+        }
 
-        // Position de départ : milieu de la grille
-        int startRow = rowCount / 2;
-        int startCol = columnCount / 2;
-        snakeCoordinates.add(new int[]{startRow, startCol});
-        currentDirection = RIGHT; // Direction initiale
+        if (scoreChanged) {
+            post(scoreNotifier);
+        }
+        if (gameJustEnded) {
+            post(gameOverNotifier);
+        }
+    }
+
+    /**
+     * Dessine une frame sur la Surface si quelque chose a changé (appelé par le thread de jeu).
+     */
+    void renderFrame() {
+        synchronized (engine) {
+            if (!renderRequested || backBuffer == null) {
+                return;
+            }
+            frameMetrics.beginFrame();
+        }
 
-        // Place la pomme
-        spawnApple();
+        SurfaceHolder holder = getHolder();
+        Canvas canvas = holder.lockCanvas();
+        if (canvas == null) {
+            return;
+        }
+        try {
+            synchronized (engine) {
+                frameMetrics.endPhase(PHASE_LOCK);
+                drawFrame(canvas);
+                latency.onFrameDrawn();
+                renderRequested = false;
+            }
+        } finally {
+            holder.unlockCanvasAndPost(canvas);
+        }
+        synchronized (engine) {
+            frameMetrics.endPhase(PHASE_POST);
+            frameMetrics.endFrame();
+            latency.onFramePresented();
+            if (firstFrameNanos == 0) {
+                firstFrameNanos = SystemClock.elapsedRealtimeNanos();
+            }
+        }
     }
 
     //----------------------------------------------------------------------------------------------
     // Dessin principal
     //----------------------------------------------------------------------------------------------
 
-    @Override
-    protected void onDraw(Canvas canvas) {
-        super.onDraw(canvas);
+    /**
+     * Dessine la frame courante dans un Canvas quelconque, sans la Surface ni les mesures
+     * (tests de rendu hors écran, voir SnakeViewAllocationTest).
+     */
+    void renderTo(Canvas canvas) {
+        synchronized (engine) {
+            drawFrame(canvas);
+            renderRequested = false;
+        }
+    }
 
-        // 1) Fond noir
-        canvas.drawColor(Color.BLACK);
+    /** Vrai si les sprites de la taille de cellule actuelle sont chargés (tests). */
+    boolean hasSprites() {
+        synchronized (engine) {
+            return sprites != null;
+        }
+    }
 
-        // 2) Dessiner la grille
-        drawGrid(canvas);
+    /**
+     * Dessine une frame complète sur le Canvas de la Surface (verrou engine déjà pris).
+     */
+    private void drawFrame(Canvas canvas) {
+        if (backBuffer == null) {
+            return;
+        }
 
-        // 3) Vérifier si Game Over => dessiner message et stopper
-        if (isGameOver) {
+        // 1) Vérifier si Game Over => fond + grille, message, et stopper
+        if (engine.isGameOver()) {
+            canvas.drawBitmap(backgroundLayer, 0, 0, null);
+            frameMetrics.endPhase(PHASE_BLIT);
             drawGameOver(canvas);
+            frameMetrics.endPhase(PHASE_GAME_OVER);
+            // Au prochain affichage du jeu, le tampon sera entièrement redessiné
+            dirtyCells.markAll();
+            drawDebugHud(canvas);
+            return;
+        }
+
+        // 2) Mettre à jour le tampon : tout, ou seulement les cases modifiées
+        if (dirtyCells.isFull()) {
+            redrawAll();
+        } else {
+            for (int i = 0; i < dirtyCells.size(); i++) {
+                redrawCell(dirtyCells.get(i));
+            }
+        }
+        dirtyCells.clear();
+        frameMetrics.endPhase(PHASE_BUFFER);
+
+        // 3) Recopier le tampon à l'écran
+        canvas.drawBitmap(backBuffer, 0, 0, null);
+        frameMetrics.endPhase(PHASE_BLIT);
+
+        // 4) HUD de debug (par-dessus, hors tampon)
+        drawDebugHud(canvas);
+    }
+
+    /**
+     * HUD de debug (latences, mesures de rendu), en bas de la vue.
+     */
+    private void drawDebugHud(Canvas canvas) {
+        debugHud.draw(canvas, 16f, getHeight() - 24f, latency, frameMetrics);
+        frameMetrics.endPhase(PHASE_HUD);
+    }
+
+    /**
+     * (Re)crée le tampon de rendu persistant de w x h pixels (l'ancien est recyclé).
+     */
+    private void buildBackBuffer(int w, int h) {
+        if (backBuffer != null) {
+            backBuffer.recycle();
+            backBuffer = null;
+            backCanvas = null;
+        }
+        if (w <= 0 || h <= 0) {
+            return;
+        }
+        backBuffer = Bitmap.createBitmap(w, h, Bitmap.Config.ARGB_8888);
+        backCanvas = new Canvas(backBuffer);
+    }
+
+    /**
+     * Redessine tout le tampon : fond + grille, puis le corps visible en un seul lot, puis
+     * la tête et la pomme. Ne parcourt que la fenêtre de la caméra : le coût ne dépend ni de
+     * la taille de la grille ni de la longueur du serpent, et le nombre d'appels de dessin
+     * est constant.
+     */
+    private void redrawAll() {
+        backCanvas.drawBitmap(backgroundLayer, 0, 0, null);
+        int lastRow = camera.getFirstRow() + camera.getVisibleRows();
+        int lastColumn = camera.getFirstColumn() + camera.getVisibleColumns();
+        for (int row = camera.getFirstRow(); row < lastRow; row++) {
+            for (int col = camera.getFirstColumn(); col < lastColumn; col++) {
+                batchBodyCell(row, col);
+            }
+        }
+        drawBodyAndSprites(backCanvas);
+    }
+
+    /** Abscisse (pixels) du bord gauche de la colonne col à l'écran. */
+    private float cellLeft(int col) {
+        return offsetX + (col - camera.getFirstColumn()) * cellSize;
+    }
+
+    /** Ordonnée (pixels) du bord haut de la ligne row à l'écran. */
+    private float cellTop(int row) {
+        return offsetY + (row - camera.getFirstRow()) * cellSize;
+    }
+
+    /**
+     * Redessine une seule case dans le tampon. La zone restaurée déborde un peu sur les
+     * voisines (bordures du corps et lignes de grille à cheval sur deux cases) : on redessine
+     * donc aussi le contenu des 4 voisines, limité à cette zone. Les cases hors de la
+     * fenêtre de la caméra sont ignorées.
+     */
+    private void redrawCell(int cell) {
+        int columnCount = engine.getColumnCount();
+        int row = cell / columnCount;
+        int col = cell % columnCount;
+        if (!camera.contains(row, col)) {
             return;
         }
 
-        // 4) Dessiner la pomme
-        drawApple(canvas);
+        float left = cellLeft(col);
+        float top  = cellTop(row);
+        float pad = paintBodyStroke.getStrokeWidth();
+        cellBounds.set(
+                (int) Math.floor(left - pad),
+                (int) Math.floor(top - pad),
+                (int) Math.ceil(left + cellSize + pad),
+                (int) Math.ceil(top + cellSize + pad)
+        );
 
-        // 5) Dessiner le serpent (tête + corps)
-        drawSnake(canvas);
+        backCanvas.save();
+        backCanvas.clipRect(cellBounds);
+        // Restaure le fond + la grille sous la case
+        backCanvas.drawBitmap(backgroundLayer, cellBounds, cellBounds, null);
+        batchBodyCell(row, col);
+        batchBodyCell(row - 1, col);
+        batchBodyCell(row + 1, col);
+        batchBodyCell(row, col - 1);
+        batchBodyCell(row, col + 1);
+        // Tête et pomme : hors de la zone restaurée, elles sont écartées par le clip
+        drawBodyAndSprites(backCanvas);
+        backCanvas.restore();
     }
 
     /**
-     * Dessine la grille (lignes horizontales et verticales).
+     * Ajoute la case au lot du corps si elle est visible et occupée par un segment autre que
+     * la tête.
+     */
+    private void batchBodyCell(int row, int col) {
+        if (!camera.contains(row, col)) {
+            return;
+        }
+        int cell = engine.cellOf(row, col);
+        if (cell != engine.getHeadCell() && engine.isOccupied(cell)) {
+            bodyBatch.add(cellLeft(col), cellTop(row), cellSize);
+        }
+    }
+
+    /**
+     * Dessine le lot du corps (deux appels), puis la tête et la pomme par-dessus si elles
+     * sont visibles.
+     */
+    private void drawBodyAndSprites(Canvas canvas) {
+        bodyBatch.draw(canvas, paintBodyFill, paintBodyStroke);
+        if (sprites == null) {
+            // Sprites en cours de décodage : tout sera redessiné à leur arrivée
+            return;
+        }
+
+        int columnCount = engine.getColumnCount();
+        int head = engine.getHeadCell();
+        int headRow = head / columnCount;
+        int headCol = head % columnCount;
+        if (camera.contains(headRow, headCol)) {
+            canvas.drawBitmap(sprites.head(engine.getDirection()), cellLeft(headCol),
+                    cellTop(headRow), null);
+        }
+        int apple = engine.getAppleCell();
+        if (apple != SnakeEngine.NO_APPLE) {
+            int appleRow = apple / columnCount;
+            int appleCol = apple % columnCount;
+            if (camera.contains(appleRow, appleCol)) {
+                canvas.drawBitmap(sprites.apple(), cellLeft(appleCol), cellTop(appleRow), null);
+            }
+        }
+    }
+
+    /**
+     * (Re)construit le calque de fond : fond noir + grille, pour une vue de w x h pixels.
+     * L'ancien calque est recyclé.
+     */
+    private void buildBackgroundLayer(int w, int h) {
+        if (backgroundLayer != null) {
+            backgroundLayer.recycle();
+            backgroundLayer = null;
+        }
+        if (w <= 0 || h <= 0) {
+            return;
+        }
+
+        // Fond opaque => RGB_565 suffit (deux fois moins de mémoire qu'ARGB_8888)
+        backgroundLayer = Bitmap.createBitmap(w, h, Bitmap.Config.RGB_565);
+        Canvas layerCanvas = new Canvas(backgroundLayer);
+        layerCanvas.drawColor(Color.BLACK);
+        drawGrid(layerCanvas);
+    }
+
+    /**
+     * Dessine la grille (lignes horizontales et verticales) de la partie visible.
+     * Appelée uniquement lors de la construction du calque de fond : les lignes tombent aux
+     * mêmes endroits quelle que soit la position de la caméra.
      */
     private void drawGrid(Canvas canvas) {
         // Lignes horizontales
-        for (int r = 0; r <= rowCount; r++) {
+        for (int r = 0; r <= camera.getVisibleRows(); r++) {
             float y = offsetY + r * cellSize;
             canvas.drawLine(offsetX, y, offsetX + totalGridWidth, y, paintGrid);
         }
         // Lignes verticales
-        for (int c = 0; c <= columnCount; c++) {
+        for (int c = 0; c <= camera.getVisibleColumns(); c++) {
             float x = offsetX + c * cellSize;
             canvas.drawLine(x, offsetY, x, offsetY + totalGridHeight, paintGrid);
         }
@@ -240,218 +806,472 @@ public class SnakeView extends View {
      */
     private void drawGameOver(Canvas canvas) {
         // Voile
-        Paint p = new Paint();
-        p.setColor(Color.argb(150, 0, 0, 0));
-        canvas.drawRect(offsetX, offsetY, offsetX + totalGridWidth, offsetY + totalGridHeight, p);
-
-        // Texte "GAME OVER!"
-        p.setColor(Color.WHITE);
-        p.setTextSize(70);
+        canvas.drawRect(offsetX, offsetY, offsetX + totalGridWidth, offsetY + totalGridHeight,
+                paintGameOverVeil);
 
+        // Texte "GAME OVER!" (ou "BRAVO !" si le serpent remplit toute la grille)
         float textX = offsetX + totalGridWidth / 4f;
         float textY = offsetY + totalGridHeight / 2f;
-        canvas.drawText("GAME OVER!", textX, textY, p);
+        canvas.drawText(engine.hasWon() ? "BRAVO !" : "GAME OVER!", textX, textY,
+                paintGameOverText);
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // Getters et contrôle
+    //----------------------------------------------------------------------------------------------
+
+    /** Retourne le score actuel. */
+    public int getScore() {
+        synchronized (engine) {
+            return engine.getScore();
+        }
+    }
+
+    /** Vrai si la partie est terminée. */
+    public boolean isGameOver() {
+        synchronized (engine) {
+            return engine.isGameOver();
+        }
     }
 
     /**
-     * Dessine la pomme à sa position (appleRow, appleCol).
+     * Moteur du jeu affiché par cette vue. Il est modifié par le thread de jeu :
+     * tout accès doit se faire dans un bloc synchronized (engine).
      */
-    private void drawApple(Canvas canvas) {
-        float left = offsetX + appleCol * cellSize;
-        float top  = offsetY + appleRow * cellSize;
+    public SnakeEngine getEngine() {
+        return engine;
+    }
 
-        // Redimensionner le bitmap pour qu'il tienne pile dans la case
-        Bitmap scaledApple = Bitmap.createScaledBitmap(
-                appleBitmap,
-                (int) cellSize,
-                (int) cellSize,
-                true
-        );
-        canvas.drawBitmap(scaledApple, left, top, null);
+    /** Enregistre le destinataire des notifications (score, game over). */
+    public void setGameListener(GameListener listener) {
+        gameListener = listener;
     }
 
     /**
-     * Dessine la tête et le corps du serpent, avec un contour pour le corps.
+     * Recommence le jeu depuis zéro (appelé par MainActivity quand on veut restart).
      */
-    private void drawSnake(Canvas canvas) {
-        for (int i = 0; i < snakeCoordinates.size(); i++) {
-            int[] segment = snakeCoordinates.get(i);
-            int r = segment[0];
-            int c = segment[1];
+    public void restartGame() {
+        synchronized (engine) {
+            resetGame();
+        }
+        wakeGameLoop();
+    }
 
-            // Calculer la position en pixels
-            float left = offsetX + c * cellSize;
-            float top  = offsetY + r * cellSize;
+    /** Réinitialise le moteur et l'état de la boucle (verrou engine déjà pris). */
+    private void resetGame() {
+        // Une partie abandonnée en cours de route est enregistrée elle aussi
+        finishRecording();
+        if (!engine.isGameOver()) {
+            recordScore();
+        }
+        currentSeed = deterministic ? fixedSeed : System.nanoTime();
+        engine.reset(currentSeed);
+        playedNanos = 0;
+        beginRecording();
+        spectate(true);
+        int head = engine.getHeadCell();
+        camera.centerOn(head / engine.getColumnCount(), head % engine.getColumnCount());
+        turnQueue.clear();
+        if (autopilotEnabled) {
+            // Tableaux du pilote alloués seulement s'il sert
+            autopilot.onNewGame(engine);
+        }
+        started = false;
+        publishedScore = 0;
+        gameOverPublished = false;
+        dirtyCells.markAll();
+        renderRequested = true;
+    }
 
-            if (i == 0) {
-                // Tête
-                Bitmap headToDraw = headRight; // Par défaut
-                switch (currentDirection) {
-                    case UP:    headToDraw = headLeft;   break;
-                    case DOWN:  headToDraw = headRight;  break;
-                    case LEFT:  headToDraw = headUp;     break;
-                    case RIGHT: headToDraw = headDown;   break;
-                }
-                Bitmap scaledHead = Bitmap.createScaledBitmap(
-                        headToDraw,
-                        (int) cellSize,
-                        (int) cellSize,
-                        true
-                );
-                canvas.drawBitmap(scaledHead, left, top, null);
-            } else {
-                // Corps : remplissage + bordure
-                canvas.drawRect(left, top, left + cellSize, top + cellSize, paintBodyFill);
-                canvas.drawRect(left, top, left + cellSize, top + cellSize, paintBodyStroke);
+    /** Met le jeu en pause ou le reprend. */
+    public void setPaused(boolean paused) {
+        this.paused = paused;
+        GameLoopThread loop = gameLoop;
+        if (loop != null) {
+            loop.setPaused(paused);
+        }
+    }
+
+    /** Vrai si le jeu est en pause (setPaused, ou partie reprise en pause). */
+    public boolean isPaused() {
+        return paused;
+    }
+
+    /** Change la vitesse du jeu : durée d'un pas, en millisecondes. */
+    public void setTickPeriodMillis(long tickPeriodMs) {
+        if (tickPeriodMs <= 0) {
+            throw new IllegalArgumentException("tickPeriodMs doit être > 0 : " + tickPeriodMs);
+        }
+        tickPeriodNanos = TimeUnit.MILLISECONDS.toNanos(tickPeriodMs);
+        GameLoopThread loop = gameLoop;
+        if (loop != null) {
+            loop.setTickPeriodNanos(tickPeriodNanos);
+        }
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // Pilote automatique
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Active / désactive le pilote automatique (AutopilotPolicy) : il joue à partir du pas
+     * suivant, y compris au début d'une partie, et le joueur reprend la main en le coupant.
+     */
+    public void setAutopilotEnabled(boolean enabled) {
+        synchronized (engine) {
+            if (enabled && !autopilotEnabled) {
+                autopilot.onNewGame(engine);
             }
+            autopilotEnabled = enabled;
+        }
+        wakeGameLoop();
+    }
+
+    public boolean isAutopilotEnabled() {
+        synchronized (engine) {
+            return autopilotEnabled;
         }
     }
 
     //----------------------------------------------------------------------------------------------
-    // Gestion de la pomme
+    // Sauvegarde de la partie (rotation, mort du processus)
     //----------------------------------------------------------------------------------------------
 
+    /** Magie ("SNKS") et version de l'instantané de partie. */
+    private static final int SNAPSHOT_MAGIC = 0x534E4B53;
+    private static final int SNAPSHOT_VERSION = 1;
+
+    /**
+     * En-tête de l'instantané : magie, version, drapeaux, graine, temps de jeu (puis l'état
+     * du moteur).
+     */
+    private static final int SNAPSHOT_HEADER_BYTES = 4 + 4 + 1 + 8 + 8;
+
     /**
-     * Sélectionne une nouvelle position libre pour la pomme.
-     * Elle ne doit pas se trouver sur le serpent.
+     * Instantané binaire de la partie en cours : état complet du moteur (corps en entiers,
+     * pomme, score, direction, générateur aléatoire), pause et pilote automatique.
+     * Écrit en O(longueur) dans un tampon réutilisé : le résultat (position 0, limite = taille)
+     * n'est valable que jusqu'au prochain appel. Thread UI.
      */
-    private void spawnApple() {
-        List<int[]> freeCells = new ArrayList<>();
+    public ByteBuffer saveGameState() {
+        synchronized (engine) {
+            int size = SNAPSHOT_HEADER_BYTES + engine.stateSize();
+            if (snapshotBuffer == null || snapshotBuffer.capacity() < size) {
+                // Marge pour que le serpent puisse encore grandir sans réallocation
+                snapshotBuffer = ByteBuffer.allocate(size + size / 2);
+            }
+            snapshotBuffer.clear();
+            snapshotBuffer.putInt(SNAPSHOT_MAGIC);
+            snapshotBuffer.putInt(SNAPSHOT_VERSION);
+            snapshotBuffer.put((byte) ((paused ? 1 : 0) | (started ? 2 : 0)
+                    | (autopilotEnabled ? 4 : 0)));
+            snapshotBuffer.putLong(currentSeed);
+            snapshotBuffer.putLong(playedNanos);
+            engine.writeState(snapshotBuffer);
+            snapshotBuffer.flip();
+            return snapshotBuffer;
+        }
+    }
 
-        // Parcourir toutes les cases de la grille
-        for (int r = 0; r < rowCount; r++) {
-            for (int c = 0; c < columnCount; c++) {
-                // Vérifier si la case est occupée par le serpent
-                boolean isOccupied = false;
-                for (int[] seg : snakeCoordinates) {
-                    if (seg[0] == r && seg[1] == c) {
-                        isOccupied = true;
-                        break;
-                    }
+    /**
+     * Reprend une partie sauvée par saveGameState (même taille de grille), pause et pilote
+     * automatique compris, en O(longueur). La partie reprise n'est pas enregistrée : son
+     * journal ne partirait pas de la graine.
+     *
+     * @return false si l'instantané est illisible ou d'une autre grille : une nouvelle partie
+     *         commence
+     */
+    public boolean restoreGameState(ByteBuffer in) {
+        boolean restored;
+        boolean restoredPaused = false;
+        synchronized (engine) {
+            // La partie remplacée est enregistrée comme une partie abandonnée
+            finishRecording();
+            if (!engine.isGameOver()) {
+                recordScore();
+            }
+            started = false;
+            try {
+                int version = in.getInt() == SNAPSHOT_MAGIC ? in.getInt() : -1;
+                if (version != SNAPSHOT_VERSION) {
+                    throw new IllegalArgumentException("Instantané inconnu");
                 }
-                if (!isOccupied) {
-                    freeCells.add(new int[]{r, c});
+                int flags = in.get();
+                long seed = in.getLong();
+                long played = in.getLong();
+                engine.readState(in);
+                spectate(true);
+                currentSeed = seed;
+                playedNanos = played;
+                started = (flags & 2) != 0;
+                autopilotEnabled = (flags & 4) != 0;
+                if (autopilotEnabled) {
+                    autopilot.onNewGame(engine);
                 }
+                restoredPaused = (flags & 1) != 0;
+                restored = true;
+            } catch (IllegalArgumentException | BufferUnderflowException e) {
+                resetGame();
+                restored = false;
             }
+            int head = engine.getHeadCell();
+            camera.centerOn(head / engine.getColumnCount(), head % engine.getColumnCount());
+            turnQueue.clear();
+            publishedScore = engine.getScore();
+            gameOverPublished = engine.isGameOver();
+            dirtyCells.markAll();
+            renderRequested = true;
         }
-
-        // Choisir au hasard dans la liste des cases libres
-        if (!freeCells.isEmpty()) {
-            int index = random.nextInt(freeCells.size());
-            appleRow = freeCells.get(index)[0];
-            appleCol = freeCells.get(index)[1];
-        } else {
-            // Le serpent occupe toute la grille => plus de place
-            // (On pourrait déclarer un endGame, etc.)
+        if (restored) {
+            setPaused(restoredPaused);
         }
+        wakeGameLoop();
+        return restored;
     }
 
     //----------------------------------------------------------------------------------------------
-    // Getters et contrôle
+    // Mode déterministe et enregistrement
     //----------------------------------------------------------------------------------------------
 
-    /** Retourne le score actuel. */
-    public int getScore() {
-        return score;
+    /**
+     * Mode déterministe : toutes les parties suivantes commencent avec cette graine (la
+     * partie en cours est relancée). Avec les mêmes commandes, elles se déroulent à l'identique.
+     */
+    public void setFixedSeed(long seed) {
+        synchronized (engine) {
+            deterministic = true;
+            fixedSeed = seed;
+            resetGame();
+        }
+        wakeGameLoop();
     }
 
-    /** Vrai si la partie est terminée. */
-    public boolean isGameOver() {
-        return isGameOver;
+    /** Quitte le mode déterministe : chaque nouvelle partie tire une nouvelle graine. */
+    public void clearFixedSeed() {
+        synchronized (engine) {
+            deterministic = false;
+        }
+    }
+
+    /** Graine de la partie en cours. */
+    public long getCurrentSeed() {
+        synchronized (engine) {
+            return currentSeed;
+        }
     }
 
     /**
-     * Recommence le jeu depuis zéro (appelé par MainActivity quand on veut restart).
+     * Journal binaire (InputLogReader, Replayer) de la dernière partie terminée ou abandonnée,
+     * ou null si aucune.
      */
-    public void restartGame() {
-        resetPositions();
-        invalidate();
+    public byte[] getLastRecording() {
+        synchronized (engine) {
+            return lastRecording;
+        }
+    }
+
+    /** Début de l'enregistrement de la partie qui commence (verrou engine déjà pris). */
+    private void beginRecording() {
+        recordingBytes.reset();
+        try {
+            recorder.begin(engine.getRowCount(), engine.getColumnCount(), currentSeed);
+        } catch (IOException e) {
+            // Impossible : le journal est écrit en mémoire
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** Enregistre un pas joué (verrou engine déjà pris). */
+    private void record(int direction) {
+        if (!recorder.isRecording()) {
+            // Partie restaurée (restoreGameState) : pas de journal depuis la graine
+            return;
+        }
+        try {
+            recorder.record(direction);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Diffuse la partie aux spectateurs : image clé de l'état courant, puis un écart par pas
+     * (un octet en général). Le flux est écrit sur le thread du jeu : il doit être rapide
+     * (fichier, tampon mémoire vidé par un autre thread). null arrête la diffusion ; fermer
+     * l'ancien flux reste à la charge de l'appelant.
+     */
+    public void setSpectatorStream(StateStreamWriter stream) throws IOException {
+        synchronized (engine) {
+            if (stream != null) {
+                stream.begin(engine);
+            }
+            spectatorStream = stream;
+        }
+    }
+
+    /**
+     * Écrit le pas joué, ou une image clé après un changement de partie (verrou engine déjà
+     * pris). Un spectateur en erreur est abandonné : il ne doit pas arrêter la partie.
+     */
+    private void spectate(boolean keyframe) {
+        if (spectatorStream == null) {
+            return;
+        }
+        try {
+            if (keyframe) {
+                spectatorStream.keyframe(engine);
+            } else {
+                spectatorStream.tick(engine);
+            }
+        } catch (IOException e) {
+            spectatorStream = null;
+        }
+    }
+
+    /**
+     * Tableau des scores où ajouter chaque partie terminée ou abandonnée (null : aucun).
+     * Peut être donné à tout moment, par exemple une fois ouvert sur un autre thread.
+     */
+    public void setScoreStore(ScoreStore store) {
+        scoreStore = store;
+    }
+
+    /**
+     * Ajoute la partie qui se termine au tableau des scores, si elle a commencé (verrou engine
+     * déjà pris). Aucun accès disque : si les écritures sont en retard, la partie est perdue.
+     */
+    private void recordScore() {
+        ScoreStore store = scoreStore;
+        if (store == null || !started) {
+            return;
+        }
+        store.record(engine.getScore(), engine.getLength(),
+                TimeUnit.NANOSECONDS.toMillis(playedNanos), currentSeed,
+                System.currentTimeMillis());
+    }
+
+    /**
+     * Termine l'enregistrement de la partie en cours, s'il y en a un (verrou engine déjà pris).
+     * Comme pour recordScore, une partie qui n'a pas commencé ne remplace pas le journal de
+     * la précédente.
+     */
+    private void finishRecording() {
+        if (!recorder.isRecording()) {
+            return;
+        }
+        try {
+            recorder.finish(engine);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (started) {
+            lastRecording = recordingBytes.toByteArray();
+        }
     }
 
     //----------------------------------------------------------------------------------------------
-    // Mouvement du serpent (appelé depuis MainActivity, par ex. via l'accéléromètre)
+    // Mesures (debug)
     //----------------------------------------------------------------------------------------------
 
     /**
-     * Déplace le serpent selon deltaRow/deltaCol, en tenant compte de la direction :
-     * - Ignore le demi-tour si le serpent a plus d'un segment.
-     * - Met à jour la position de la tête et décale le corps.
-     * - Vérifie les collisions (corps, pomme).
-     *
-     * @param deltaRow -1 (haut), +1 (bas), 0 (pas de mouvement vertical)
-     * @param deltaCol -1 (gauche), +1 (droite), 0 (pas de mouvement horizontal)
-     * @param newDirection L'une des constantes UP, DOWN, LEFT, RIGHT
-     */
-    public void moveSnake(int deltaRow, int deltaCol, int newDirection) {
-        // Si le jeu est déjà terminé, on ne fait rien
-        if (isGameOver) return;
-
-        // Vérifier si on veut faire un demi-tour et si le serpent a plus d'un segment
-        if (snakeCoordinates.size() > 1) {
-            if ((currentDirection == UP && newDirection == DOWN) ||
-                    (currentDirection == DOWN && newDirection == UP) ||
-                    (currentDirection == LEFT && newDirection == RIGHT) ||
-                    (currentDirection == RIGHT && newDirection == LEFT)) {
-                // On ignore la nouvelle direction => serpent continue tout droit
-                return;
-            }
+     * Affiche ou masque le HUD de debug (latences, durées par phase, frames hors budget).
+     * Les mesures de rendu sont actives tant que le HUD est affiché.
+     */
+    public void setDebugHudEnabled(boolean enabled) {
+        synchronized (engine) {
+            debugHud.setEnabled(enabled);
+            setFrameMetricsEnabledLocked(enabled);
+            renderRequested = true;
         }
+        wakeGameLoop();
+    }
+
+    public boolean isDebugHudEnabled() {
+        synchronized (engine) {
+            return debugHud.isEnabled();
+        }
+    }
 
-        // Met à jour la direction
-        currentDirection = newDirection;
+    /**
+     * Active ou désactive les mesures de rendu par phase (sans HUD). Désactivées, elles ne
+     * lisent même pas l'horloge.
+     */
+    public void setFrameMetricsEnabled(boolean enabled) {
+        synchronized (engine) {
+            setFrameMetricsEnabledLocked(enabled);
+        }
+    }
 
-        // Récupérer la position de la tête
-        int[] head = snakeCoordinates.get(0);
-        int headRow = head[0];
-        int headCol = head[1];
+    @SuppressWarnings("deprecation")
+    private void setFrameMetricsEnabledLocked(boolean enabled) {
+        if (enabled == frameMetrics.isEnabled()) {
+            return;
+        }
+        // Le comptage des allocations par thread n'existe que pendant la mesure
+        if (enabled) {
+            Debug.startAllocCounting();
+        } else {
+            Debug.stopAllocCounting();
+        }
+        frameMetrics.setEnabled(enabled);
+    }
 
-        // Calculer la nouvelle position de la tête
-        headRow += deltaRow;
-        headCol += deltaCol;
+    /** Crée un instantané des mesures de rendu, à remplir par snapshotFrameMetrics(). */
+    public FrameMetrics.Snapshot newFrameMetricsSnapshot() {
+        return frameMetrics.newSnapshot();
+    }
 
-        // Limiter à la grille
-        if (headRow < 0) headRow = 0;
-        if (headRow >= rowCount) headRow = rowCount - 1;
-        if (headCol < 0) headCol = 0;
-        if (headCol >= columnCount) headCol = columnCount - 1;
+    /** Copie les mesures de rendu courantes dans out. */
+    public void snapshotFrameMetrics(FrameMetrics.Snapshot out) {
+        synchronized (engine) {
+            frameMetrics.snapshot(out);
+        }
+    }
 
-        // Décaler le corps : chaque segment prend la position du précédent
-        for (int i = snakeCoordinates.size() - 1; i > 0; i--) {
-            snakeCoordinates.set(i, snakeCoordinates.get(i - 1));
+    /** Efface les mesures (latences et rendu). */
+    public void resetMetrics() {
+        synchronized (engine) {
+            latency.reset();
+            frameMetrics.reset();
         }
-        // Placer la nouvelle tête en index 0
-        snakeCoordinates.set(0, new int[]{headRow, headCol});
+    }
 
-        // Vérifier la collision avec le corps (à partir de l'index 1)
-        for (int i = 1; i < snakeCoordinates.size(); i++) {
-            int[] seg = snakeCoordinates.get(i);
-            if (seg[0] == headRow && seg[1] == headCol) {
-                // Collision => Game Over
-                isGameOver = true;
-                invalidate();
-                return;
+    /** Écrit un résumé des mesures : latences des commandes, puis rendu par phase. */
+    public void dumpMetrics(StringBuilder out) {
+        synchronized (engine) {
+            latency.dump(out);
+            frameMetrics.dump(out);
+            if (firstFrameNanos != 0) {
+                out.append("\nPremière frame : ")
+                        .append((firstFrameNanos - createdNanos) / 1_000_000)
+                        .append(" ms après la création de la vue");
+            }
+            if (sprites != null) {
+                out.append("\nSprites : ").append(sprites.getSize()).append(" px, ")
+                        .append(sprites.getByteCount() / 1024).append(" Ko, décodés en ")
+                        .append(spriteRepository.getLastDecodeMillis()).append(" ms");
             }
+            out.append('\n');
         }
+    }
 
-        // Vérifier si on mange la pomme
-        if (headRow == appleRow && headCol == appleCol) {
-            // On agrandit le serpent (un segment supplémentaire)
-            growSnake();
-            // On replace la pomme
-            spawnApple();
-            // Incrémenter le score
-            score++;
+    /** Copie l'histogramme des latences commande -> image (en ns) dans target. */
+    public void copyInputLatency(LatencyHistogram target) {
+        synchronized (engine) {
+            latency.copyInputToFrame(target);
         }
-
-        // Redessiner la vue
-        invalidate();
     }
 
+    //----------------------------------------------------------------------------------------------
+    // Direction
+    //----------------------------------------------------------------------------------------------
+
     /**
-     * Ajoute un segment à la fin du serpent (copie la position du dernier).
+     * File où les sources de commandes (InputSource) ajoutent les virages demandés
+     * (UP, DOWN, LEFT, RIGHT), appliqués un par pas de jeu. Utilisable depuis n'importe
+     * quel thread.
      */
-    private void growSnake() {
-        int[] lastSegment = snakeCoordinates.get(snakeCoordinates.size() - 1);
-        snakeCoordinates.add(new int[]{lastSegment[0], lastSegment[1]});
+    public TurnQueue getTurnQueue() {
+        return turnQueue;
     }
 }
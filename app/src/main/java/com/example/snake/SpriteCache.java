@@ -0,0 +1,61 @@
+package com.example.snake;
+
+import android.graphics.Bitmap;
+
+import com.example.snake.engine.SnakeEngine;
+
+/**
+ * Sprites (pomme + 4 têtes) déjà à la taille d'une cellule :
+ *  - Produits une fois par taille par SpriteRepository, puis partagés par toutes les vues
+ *    de cette taille (et par les vues recréées après une rotation).
+ *  - Immuables : ils ne sont jamais recyclés explicitement, une vue peut encore les dessiner
+ *    quand le dépôt les oublie.
+ *  - Le dessin des frames n'alloue donc aucun bitmap.
+ */
+final class SpriteCache {
+
+    private final int size;
+    private final Bitmap apple;
+    private final Bitmap headUp, headDown, headLeft, headRight;
+
+    SpriteCache(int size, Bitmap apple, Bitmap headUp, Bitmap headDown, Bitmap headLeft,
+                Bitmap headRight) {
+        this.size = size;
+        this.apple = apple;
+        this.headUp = headUp;
+        this.headDown = headDown;
+        this.headLeft = headLeft;
+        this.headRight = headRight;
+    }
+
+    /** Côté (en pixels) des sprites. */
+    int getSize() {
+        return size;
+    }
+
+    /** Pomme à la taille d'une cellule. */
+    Bitmap apple() {
+        return apple;
+    }
+
+    /**
+     * Tête correspondant à la direction du serpent.
+     * Les images sont tournées par rapport aux directions de l'accéléromètre.
+     */
+    Bitmap head(int direction) {
+        switch (direction) {
+            case SnakeEngine.UP:    return headLeft;
+            case SnakeEngine.DOWN:  return headRight;
+            case SnakeEngine.LEFT:  return headUp;
+            case SnakeEngine.RIGHT: return headDown;
+            default:                return headRight;
+        }
+    }
+
+    /** Octets de pixels occupés par les 5 bitmaps. */
+    long getByteCount() {
+        return (long) apple.getAllocationByteCount() + headUp.getAllocationByteCount()
+                + headDown.getAllocationByteCount() + headLeft.getAllocationByteCount()
+                + headRight.getAllocationByteCount();
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.snake;
+
+import android.content.Context;
+import android.content.res.Resources;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Process;
+import android.os.SystemClock;
+
+/**
+ * Dépôt des sprites, unique dans le processus :
+ *  - Les PNG sont décodés sur un HandlerThread dédié, jamais sur le thread UI : la vue
+ *    affiche sa première frame sans attendre, les sprites apparaissent dès qu'ils sont prêts.
+ *  - Décodage à la taille d'une cellule : inScaled désactivé (sinon les images de drawable/
+ *    sont agrandies à la densité de l'écran, jusqu'à 3x par côté), puis inSampleSize réduit
+ *    l'image d'une puissance de 2 pendant le décodage, sans passer sous la taille visée ;
+ *    seul le dernier redimensionnement est fait sur un petit bitmap. Aucune image pleine
+ *    résolution n'est gardée.
+ *  - Les sprites d'une taille (SpriteCache) sont partagés par toutes les vues et survivent
+ *    à la recréation de l'Activity ; les MAX_CACHED_SIZES dernières tailles sont gardées
+ *    (portrait et paysage).
+ *  - Format ARGB_8888 : les sprites ont de la transparence (RGB_565 la perdrait) et sont
+ *    dessinés dans un Canvas logiciel (les bitmaps HARDWARE y sont interdits).
+ */
+final class SpriteRepository {
+
+    /** Reçoit les sprites décodés, sur le thread de décodage. */
+    interface Callback {
+        void onSpritesReady(SpriteCache sprites);
+    }
+
+    /** Tailles de sprites gardées en mémoire. */
+    private static final int MAX_CACHED_SIZES = 2;
+
+    private static SpriteRepository instance;
+
+    private final Resources resources;
+    private final Handler handler;
+
+    /** Dernières tailles décodées, la plus récente en 0 (protégé par this). */
+    private final SpriteCache[] cached = new SpriteCache[MAX_CACHED_SIZES];
+
+    /** Durée du dernier décodage (debug, protégée par this). */
+    private long lastDecodeNanos;
+
+    /** Le dépôt du processus (créé au premier appel, avec les ressources de l'application). */
+    static synchronized SpriteRepository get(Context context) {
+        if (instance == null) {
+            instance = new SpriteRepository(context.getApplicationContext().getResources());
+        }
+        return instance;
+    }
+
+    private SpriteRepository(Resources resources) {
+        this.resources = resources;
+        HandlerThread thread = new HandlerThread("SnakeSprites",
+                Process.THREAD_PRIORITY_BACKGROUND);
+        thread.start();
+        handler = new Handler(thread.getLooper());
+    }
+
+    /** Sprites déjà prêts pour ce côté (pixels), ou null. N'importe quel thread. */
+    synchronized SpriteCache peek(int size) {
+        for (int i = 0; i < MAX_CACHED_SIZES; i++) {
+            SpriteCache sprites = cached[i];
+            if (sprites != null && sprites.getSize() == size) {
+                return sprites;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Prépare les sprites de ce côté (pixels) en arrière-plan puis appelle callback sur le
+     * thread de décodage. Les demandes sont traitées dans l'ordre : une taille demandée par
+     * plusieurs vues n'est décodée qu'une fois.
+     */
+    void load(int size, Callback callback) {
+        if (size <= 0) {
+            return;
+        }
+        handler.post(() -> {
+            SpriteCache sprites = peek(size);
+            if (sprites == null) {
+                sprites = decode(size);
+            }
+            callback.onSpritesReady(sprites);
+        });
+    }
+
+    /** Durée du dernier décodage, en ms (debug). */
+    synchronized long getLastDecodeMillis() {
+        return lastDecodeNanos / 1_000_000;
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // Décodage (thread de décodage)
+    //----------------------------------------------------------------------------------------------
+
+    private SpriteCache decode(int size) {
+        long start = SystemClock.elapsedRealtimeNanos();
+        SpriteCache sprites = new SpriteCache(size,
+                decode(R.drawable.apple, size),
+                decode(R.drawable.snake_head_up, size),
+                decode(R.drawable.snake_head_down, size),
+                decode(R.drawable.snake_head_left, size),
+                decode(R.drawable.snake_head_right, size));
+        synchronized (this) {
+            System.arraycopy(cached, 0, cached, 1, MAX_CACHED_SIZES - 1);
+            cached[0] = sprites;
+            lastDecodeNanos = SystemClock.elapsedRealtimeNanos() - start;
+        }
+        return sprites;
+    }
+
+    /** Décode une image en size x size pixels. */
+    private Bitmap decode(int id, int size) {
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inScaled = false;
+        options.inJustDecodeBounds = true;
+        BitmapFactory.decodeResource(resources, id, options);
+
+        // Plus grande réduction qui garde les deux côtés >= size
+        int sample = 1;
+        while (options.outWidth / (sample * 2) >= size
+                && options.outHeight / (sample * 2) >= size) {
+            sample *= 2;
+        }
+        options.inJustDecodeBounds = false;
+        options.inSampleSize = sample;
+        options.inPreferredConfig = Bitmap.Config.ARGB_8888;
+        Bitmap decoded = BitmapFactory.decodeResource(resources, id, options);
+        if (decoded.getWidth() == size && decoded.getHeight() == size) {
+            return decoded;
+        }
+        Bitmap scaled = Bitmap.createScaledBitmap(decoded, size, size, true);
+        if (scaled != decoded) {
+            decoded.recycle();
+        }
+        return scaled;
+    }
+}
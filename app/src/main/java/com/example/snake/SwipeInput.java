@@ -0,0 +1,93 @@
+package com.example.snake;
+
+import android.annotation.SuppressLint;
+import android.os.SystemClock;
+import android.view.MotionEvent;
+import android.view.View;
+
+import com.example.snake.engine.SnakeEngine;
+import com.example.snake.input.InputSource;
+import com.example.snake.input.TurnQueue;
+
+/**
+ * Pilotage du serpent par glissement du doigt sur la vue du jeu :
+ *  - Chaque déplacement du doigt plus long que minDistancePx donne un virage, selon l'axe
+ *    dominant ; le point de départ est alors recentré, ce qui permet d'enchaîner plusieurs
+ *    virages dans un même geste.
+ *  - Les virages sont ajoutés à la TurnQueue (thread UI).
+ */
+class SwipeInput implements InputSource, View.OnTouchListener {
+
+    private final View view;
+    private final float minDistancePx;
+
+    /** File alimentée (null quand la source est arrêtée). */
+    private TurnQueue turns;
+
+    /** Point de départ du glissement en cours. */
+    private float startX;
+    private float startY;
+
+    SwipeInput(View view, float minDistancePx) {
+        this.view = view;
+        this.minDistancePx = minDistancePx;
+    }
+
+    @Override
+    public void start(TurnQueue turns) {
+        this.turns = turns;
+        view.setOnTouchListener(this);
+    }
+
+    @Override
+    public void stop() {
+        view.setOnTouchListener(null);
+        turns = null;
+    }
+
+    @SuppressLint("ClickableViewAccessibility")
+    @Override
+    public boolean onTouch(View v, MotionEvent event) {
+        switch (event.getActionMasked()) {
+            case MotionEvent.ACTION_DOWN:
+                startX = event.getX();
+                startY = event.getY();
+                return true;
+            case MotionEvent.ACTION_MOVE:
+                float dx = event.getX() - startX;
+                float dy = event.getY() - startY;
+                if (Math.max(Math.abs(dx), Math.abs(dy)) >= minDistancePx) {
+                    if (turns != null) {
+                        turns.offer(fromScreenDelta(dx, dy), toElapsedNanos(event.getEventTime()));
+                    }
+                    startX = event.getX();
+                    startY = event.getY();
+                }
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Convertit l'instant d'un événement d'entrée (base uptimeMillis) en base
+     * elapsedRealtimeNanos, celle des horodatages des capteurs.
+     */
+    static long toElapsedNanos(long eventUptimeMillis) {
+        long ageMillis = SystemClock.uptimeMillis() - eventUptimeMillis;
+        return SystemClock.elapsedRealtimeNanos() - ageMillis * 1_000_000L;
+    }
+
+    /**
+     * Direction du moteur correspondant à un déplacement à l'écran (axe dominant).
+     * Les directions du moteur sont nommées d'après l'accéléromètre : UP/DOWN déplacent le
+     * serpent sur les colonnes (gauche/droite à l'écran), LEFT/RIGHT sur les lignes
+     * (haut/bas à l'écran).
+     */
+    static int fromScreenDelta(float dx, float dy) {
+        if (Math.abs(dx) >= Math.abs(dy)) {
+            return dx < 0 ? SnakeEngine.UP : SnakeEngine.DOWN;
+        }
+        return dy < 0 ? SnakeEngine.LEFT : SnakeEngine.RIGHT;
+    }
+}
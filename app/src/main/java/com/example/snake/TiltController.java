@@ -0,0 +1,109 @@
+package com.example.snake;
+
+import android.hardware.Sensor;
+import android.hardware.SensorEvent;
+import android.hardware.SensorEventListener;
+import android.hardware.SensorManager;
+import android.os.Handler;
+import android.os.HandlerThread;
+
+import com.example.snake.input.InputSource;
+import com.example.snake.input.TiltFilter;
+import com.example.snake.input.TurnQueue;
+
+/**
+ * Pilotage du serpent par l'accéléromètre, entièrement hors du thread UI :
+ *  - Les événements du capteur sont livrés sur un HandlerThread dédié.
+ *  - Ils y sont filtrés (passe-bas + hystérésis, voir TiltFilter).
+ *  - Seuls les changements de direction sont proposés à la file de virages (TurnQueue) :
+ *    une inclinaison maintenue ne donne qu'un virage, et n'écrase pas ceux du glissement ou
+ *    du clavier. Après un retour à plat, pencher à nouveau redonne un virage.
+ */
+class TiltController implements InputSource, SensorEventListener {
+
+    /** Coefficient du passe-bas (plus petit => plus lisse, mais plus lent). */
+    static final float DEFAULT_SMOOTHING = 0.35f;
+    /** Inclinaison minimale pour tourner (m/s², même seuil que l'ancien code). */
+    static final float DEFAULT_THRESHOLD = 1f;
+    /** Marge nécessaire pour changer de direction (m/s²). */
+    static final float DEFAULT_HYSTERESIS = 0.75f;
+
+    private final SensorManager sensorManager;
+    private final Sensor accelerometer;
+
+    /** Filtre, utilisé uniquement sur le thread des capteurs. */
+    private final TiltFilter filter;
+
+    /** Thread de réception des événements (null quand le contrôleur est arrêté). */
+    private HandlerThread sensorThread;
+
+    /** File alimentée par les événements (null quand le contrôleur est arrêté). */
+    private volatile TurnQueue turns;
+
+    TiltController(SensorManager sensorManager) {
+        this(sensorManager,
+                new TiltFilter(DEFAULT_SMOOTHING, DEFAULT_THRESHOLD, DEFAULT_HYSTERESIS));
+    }
+
+    TiltController(SensorManager sensorManager, TiltFilter filter) {
+        this.sensorManager = sensorManager;
+        this.accelerometer = sensorManager.getDefaultSensor(Sensor.TYPE_ACCELEROMETER);
+        this.filter = filter;
+    }
+
+    /**
+     * Démarre l'écoute de l'accéléromètre sur un thread dédié (sans effet si déjà démarré
+     * ou si l'appareil n'a pas d'accéléromètre).
+     */
+    @Override
+    public void start(TurnQueue turns) {
+        if (accelerometer == null || sensorThread != null) {
+            return;
+        }
+        this.turns = turns;
+        sensorThread = new HandlerThread("SnakeSensors");
+        sensorThread.start();
+        Handler handler = new Handler(sensorThread.getLooper());
+        // Le filtre est réinitialisé sur le thread qui l'utilise
+        handler.post(filter::reset);
+        sensorManager.registerListener(this, accelerometer, SensorManager.SENSOR_DELAY_GAME,
+                handler);
+    }
+
+    /** Arrête l'écoute et le thread dédié. */
+    @Override
+    public void stop() {
+        if (sensorThread == null) {
+            return;
+        }
+        sensorManager.unregisterListener(this);
+        turns = null;
+        sensorThread.quitSafely();
+        sensorThread = null;
+    }
+
+    /**
+     * Callback du capteur, appelé sur le thread dédié.
+     */
+    @Override
+    public void onSensorChanged(SensorEvent event) {
+        if (event.sensor.getType() != Sensor.TYPE_ACCELEROMETER) {
+            return;
+        }
+        float x = event.values[0]; // Inclinaison horizontale
+        float y = event.values[1]; // Inclinaison verticale
+
+        // NO_DIRECTION si la direction retenue n'a pas changé
+        int direction = filter.update(x, y);
+        TurnQueue queue = turns;
+        if (direction != TurnQueue.NO_DIRECTION && queue != null) {
+            // Horodatage du capteur, pour mesurer la latence jusqu'à l'écran
+            queue.offer(direction, event.timestamp);
+        }
+    }
+
+    @Override
+    public void onAccuracyChanged(Sensor sensor, int accuracy) {
+        // Rien de spécial
+    }
+}
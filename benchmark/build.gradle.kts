@@ -0,0 +1,30 @@
+// Module "benchmark" : benchmarks JMH du moteur (JVM classique, sans Android).
+// Lancer : ./gradlew :benchmark:jmh
+// Filtrer : ./gradlew :benchmark:jmh -Pjmh.includes=TickBenchmark
+// Résultats (débit + taux d'allocation du profileur gc) : benchmark/build/results/jmh/
+plugins {
+    java
+    alias(libs.plugins.jmh)
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_11
+    targetCompatibility = JavaVersion.VERSION_11
+}
+
+dependencies {
+    jmh(project(":core"))
+}
+
+jmh {
+    jmhVersion.set(libs.versions.jmh)
+    providers.gradleProperty("jmh.includes").orNull?.let { includes.add(it) }
+    // -prof gc : octets alloués par opération (gc.alloc.rate.norm)
+    profilers.add("gc")
+    resultFormat.set("JSON")
+    // Grilles 4096x4096 et serpents de plusieurs millions de segments
+    jvmArgs.addAll("-Xms2g", "-Xmx2g")
+    fork.set(1)
+    warmupIterations.set(3)
+    iterations.set(5)
+}
@@ -0,0 +1,54 @@
+package com.example.snake.benchmark;
+
+import com.example.snake.engine.FreeCellSet;
+import com.example.snake.engine.SnakeRandom;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Placement d'une pomme, comme SnakeEngine.spawnApple() : tirage uniforme parmi les cases
+ * libres, retrait de la case tirée, puis remise (la queue libère une case au pas suivant).
+ * Le serpent occupe les `length` premières cases du circuit du plateau.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class AppleSpawnBenchmark {
+
+    @Param({"11", "64", "512", "4096"})
+    public int size;
+
+    @Param({"1", "100", "10000", "1000000", "8000000"})
+    public int length;
+
+    private FreeCellSet freeCells;
+    private SnakeRandom random;
+
+    @Setup
+    public void setUp() {
+        Board board = new Board(size, size);
+        freeCells = new FreeCellSet(size * size);
+        int occupied = Math.min(length, board.maxSnakeLength());
+        for (int i = 0; i < occupied; i++) {
+            freeCells.remove(board.cycle.cellAt(i));
+        }
+        random = new SnakeRandom(42L);
+    }
+
+    @Benchmark
+    public int spawnApple() {
+        int apple = freeCells.get(random.nextInt(freeCells.size()));
+        freeCells.remove(apple);
+        freeCells.add(apple);
+        return apple;
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.snake.benchmark;
+
+import com.example.snake.arena.Arena;
+import com.example.snake.arena.ArenaGreedyPolicy;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Débit de l'arène en déplacements de serpents par seconde (compteur « moves »), selon le
+ * nombre de threads : une opération = un pas de toute l'arène. Sur une machine à N cœurs, le
+ * débit doit croître presque linéairement jusqu'à threads = N (seule la phase de fin de pas,
+ * un parcours d'octets par serpent, reste séquentielle).
+ *
+ * Exemple : -p threads=1,2,4,8 -p snakes=10000
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ArenaBenchmark {
+
+    @Param({"1", "2", "4", "8"})
+    public int threads;
+
+    @Param({"1000", "10000"})
+    public int snakes;
+
+    @Param({"1024"})
+    public int size;
+
+    private Arena arena;
+
+    /** Déplacements effectués pendant l'itération, rapportés par seconde. */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Moves {
+        public long moves;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            moves = 0;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        arena = new Arena(size, size, snakes, snakes, 42L, new ArenaGreedyPolicy(), threads);
+        // Laisse les serpents grandir avant de mesurer
+        for (int i = 0; i < 200; i++) {
+            arena.tick();
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        arena.close();
+    }
+
+    @Benchmark
+    public long tick(Moves counter) {
+        long before = arena.getMoveCount();
+        arena.tick();
+        counter.moves += arena.getMoveCount() - before;
+        return arena.getTickCount();
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.snake.benchmark;
+
+import com.example.snake.engine.SnakeEngine;
+import com.example.snake.sim.AutopilotPolicy;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coût d'une décision du pilote automatique (AutopilotPolicy) en cours de partie : une
+ * opération = un choix de direction plus le pas de jeu. Les recherches A* sont amorties sur
+ * le chemin en cache ; avec -prof gc, aucune allocation ne doit apparaître.
+ * Grilles jusqu'à 1024 x 1024 (le pilote garde cinq tableaux d'entiers par case).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class AutopilotBenchmark {
+
+    @Param({"10", "11", "64", "512", "1024"})
+    public int size;
+
+    private SnakeEngine engine;
+    private final AutopilotPolicy policy = new AutopilotPolicy();
+
+    @Setup
+    public void setUp() {
+        engine = new SnakeEngine(size, size, 42L);
+        policy.onNewGame(engine);
+    }
+
+    @Benchmark
+    public int decideAndTick() {
+        if (engine.isGameOver()) {
+            engine.reset();
+            policy.onNewGame(engine);
+        }
+        engine.tick(policy.chooseDirection(engine));
+        return engine.getScore();
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.snake.benchmark;
+
+import com.example.snake.engine.SnakeEngine;
+import com.example.snake.sim.HamiltonianCycle;
+
+/**
+ * Plateau de benchmark : le circuit fermé de la grille (HamiltonianCycle, celui du pilote
+ * automatique) et la direction à prendre depuis chacune de ses cases pour le suivre.
+ * Un serpent posé sur le circuit peut le parcourir indéfiniment sans se mordre : on mesure
+ * ainsi des pas de jeu en régime établi, quelle que soit sa longueur.
+ *
+ * Le circuit couvre toute la grille si une dimension est paire, sinon toutes les cases sauf
+ * le coin bas-gauche (une grille impaire x impaire n'a pas de cycle hamiltonien).
+ */
+final class Board {
+
+    final int rowCount;
+    final int columnCount;
+
+    /** Circuit de la grille, partagé avec le pilote automatique. */
+    final HamiltonianCycle cycle;
+
+    /** Direction vers la case suivante du circuit, indexée par case (hors circuit : 0). */
+    final byte[] nextDirection;
+
+    Board(int rowCount, int columnCount) {
+        this.rowCount = rowCount;
+        this.columnCount = columnCount;
+        cycle = HamiltonianCycle.forGrid(rowCount, columnCount);
+
+        nextDirection = new byte[rowCount * columnCount];
+        int length = cycle.length();
+        for (int i = 0; i < length; i++) {
+            int from = cycle.cellAt(i);
+            int to = cycle.cellAt(i + 1 == length ? 0 : i + 1);
+            nextDirection[from] = (byte) directionBetween(from, to);
+        }
+    }
+
+    /** Longueur maximale d'un serpent posé par load() (la moitié du circuit). */
+    int maxSnakeLength() {
+        return Math.max(1, cycle.length() / 2);
+    }
+
+    /**
+     * Pose sur le circuit un serpent de min(length, maxSnakeLength()) segments, tourné vers
+     * la suite du circuit.
+     *
+     * @return la longueur effectivement posée
+     */
+    int load(SnakeEngine engine, int length) {
+        int effective = Math.min(length, maxSnakeLength());
+        int[] cells = new int[effective];
+        for (int i = 0; i < effective; i++) {
+            // Tête = cellAt(effective - 1), queue = cellAt(0)
+            cells[i] = cycle.cellAt(effective - 1 - i);
+        }
+        engine.loadSnake(cells, effective, nextDirection[cells[0]]);
+        return effective;
+    }
+
+    /** Direction pour suivre le circuit depuis la tête du serpent. */
+    int directionFrom(int cell) {
+        return nextDirection[cell];
+    }
+
+    private int directionBetween(int from, int to) {
+        int dRow = to / columnCount - from / columnCount;
+        int dCol = to % columnCount - from % columnCount;
+        for (int direction = SnakeEngine.UP; direction <= SnakeEngine.RIGHT; direction++) {
+            if (SnakeEngine.deltaRow(direction) == dRow && SnakeEngine.deltaCol(direction) == dCol) {
+                return direction;
+            }
+        }
+        throw new IllegalStateException("Cases non voisines : " + from + " -> " + to);
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.snake.benchmark;
+
+import com.example.snake.engine.SnakeEngine;
+import com.example.snake.engine.SnakeRandom;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Test de collision avec le corps (SnakeEngine.isOccupied), tel que le fait move() avant
+ * chaque déplacement : une case sur deux sondées appartient au serpent.
+ * Doit rester en O(1) quelle que soit la longueur du serpent.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class CollisionBenchmark {
+
+    /** Nombre de cases sondées (puissance de deux). */
+    private static final int PROBE_COUNT = 4096;
+
+    @Param({"11", "64", "512", "4096"})
+    public int size;
+
+    @Param({"1", "100", "10000", "1000000", "8000000"})
+    public int length;
+
+    private SnakeEngine engine;
+    private final int[] probes = new int[PROBE_COUNT];
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Board board = new Board(size, size);
+        engine = new SnakeEngine(size, size, 42L);
+        int loaded = board.load(engine, length);
+
+        // Moitié segments du serpent, moitié cases quelconques de la grille
+        SnakeRandom random = new SnakeRandom(7L);
+        for (int i = 0; i < PROBE_COUNT; i++) {
+            probes[i] = i % 2 == 0
+                    ? engine.getSegmentCell(random.nextInt(loaded))
+                    : random.nextInt(size * size);
+        }
+    }
+
+    @Benchmark
+    public boolean selfCollision() {
+        int cell = probes[next];
+        next = (next + 1) & (PROBE_COUNT - 1);
+        return engine.isOccupied(cell);
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.snake.benchmark;
+
+import com.example.snake.engine.SnakeEngine;
+import com.example.snake.sim.GreedyPolicy;
+import com.example.snake.sim.Policy;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parties complètes jouées par la stratégie gloutonne (GreedyPolicy), enchaînées sans
+ * fin : une opération = un pas de jeu, décision de la stratégie comprise. Couvre toutes les règles (demi-tours, bords, collisions, croissance,
+ * placement des pommes, fin de partie et reset).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class FullGameBenchmark {
+
+    @Param({"11", "64", "512", "4096"})
+    public int size;
+
+    private SnakeEngine engine;
+    private final Policy policy = new GreedyPolicy();
+
+    @Setup
+    public void setUp() {
+        engine = new SnakeEngine(size, size, 42L);
+    }
+
+    @Benchmark
+    public int play() {
+        if (engine.isGameOver()) {
+            engine.reset();
+        }
+        engine.tick(policy.chooseDirection(engine));
+        return engine.getScore();
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.snake.benchmark;
+
+import com.example.snake.engine.SnakeBody;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Croissance du corps : un serpent neuf (capacité initiale du moteur) grandit jusqu'à
+ * `length` segments. Mesure le coût amorti de SnakeBody.pushHead, doublements du tampon
+ * compris ; le profileur gc montre les octets alloués par ces doublements.
+ * Durée par serpent complet : diviser par length pour le coût d'un segment.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class GrowthBenchmark {
+
+    /** Capacité initiale utilisée par SnakeEngine. */
+    private static final int INITIAL_CAPACITY = 64;
+
+    @Param({"1", "100", "10000", "1000000", "8000000"})
+    public int length;
+
+    @Benchmark
+    public SnakeBody grow() {
+        SnakeBody body = new SnakeBody(INITIAL_CAPACITY);
+        for (int cell = 0; cell < length; cell++) {
+            body.pushHead(cell);
+        }
+        return body;
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.snake.benchmark;
+
+import com.example.snake.engine.SnakeEngine;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sauvegarde / restauration de l'état complet du moteur (writeState / readState) dans un
+ * seul tampon, comme lors d'une rotation de l'écran, pour un serpent de `length` segments
+ * sur une grille 512 x 512.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SnapshotBenchmark {
+
+    private static final int SIZE = 512;
+
+    @Param({"1", "1000", "100000"})
+    public int length;
+
+    private SnakeEngine source;
+    private SnakeEngine target;
+    private ByteBuffer buffer;
+
+    @Setup
+    public void setUp() {
+        Board board = new Board(SIZE, SIZE);
+        source = new SnakeEngine(SIZE, SIZE, 42L);
+        board.load(source, length);
+        target = new SnakeEngine(SIZE, SIZE, 7L);
+        buffer = ByteBuffer.allocate(source.stateSize());
+    }
+
+    @Benchmark
+    public ByteBuffer save() {
+        buffer.clear();
+        source.writeState(buffer);
+        return buffer;
+    }
+
+    @Benchmark
+    public SnakeEngine restore() {
+        buffer.clear();
+        source.writeState(buffer);
+        buffer.flip();
+        target.readState(buffer);
+        return target;
+    }
+}
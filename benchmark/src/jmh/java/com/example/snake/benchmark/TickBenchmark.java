@@ -0,0 +1,60 @@
+package com.example.snake.benchmark;
+
+import com.example.snake.engine.SnakeEngine;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pas de jeu (SnakeEngine.tick) en régime établi : le serpent suit le circuit du plateau,
+ * mange les pommes qui s'y trouvent (croissance + placement d'une nouvelle pomme) et ne se
+ * mord jamais. Le coût d'un pas ne doit dépendre ni de la taille de la grille ni de la
+ * longueur du serpent.
+ *
+ * Les longueurs sont plafonnées à la moitié du circuit (par ex. 60 sur 11x11).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class TickBenchmark {
+
+    @Param({"11", "64", "512", "4096"})
+    public int size;
+
+    @Param({"1", "100", "10000", "1000000", "8000000"})
+    public int length;
+
+    private Board board;
+    private SnakeEngine engine;
+
+    @Setup(Level.Trial)
+    public void createBoard() {
+        board = new Board(size, size);
+        engine = new SnakeEngine(size, size, 42L);
+    }
+
+    @Setup(Level.Iteration)
+    public void loadSnake() {
+        // Même point de départ à chaque itération (le serpent grandit en mangeant)
+        board.load(engine, length);
+    }
+
+    @Benchmark
+    public int tick() {
+        engine.tick(board.directionFrom(engine.getHeadCell()));
+        if (engine.isGameOver()) {
+            // Grille remplie (partie gagnée) : rare, seulement sur les petites grilles
+            board.load(engine, length);
+        }
+        return engine.getHeadCell();
+    }
+}
@@ -0,0 +1,45 @@
+// Module "core" : moteur du jeu en Java pur (aucune dépendance Android),
+// exécutable et testable sur une JVM classique.
+plugins {
+    `java-library`
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_11
+    targetCompatibility = JavaVersion.VERSION_11
+}
+
+dependencies {
+    testImplementation(libs.junit)
+}
+
+// Simulation sans affichage sur tous les cœurs :
+// ./gradlew :core:simulate -Pargs="11 11 1000000 42"  (lignes colonnes parties [graine [stratégie]])
+// ./gradlew :core:simulate -Pargs="10 10 10000 42 autopilot"  (pilote automatique)
+tasks.register<JavaExec>("simulate") {
+    group = "application"
+    description = "Joue des parties en parallèle (stratégie gloutonne ou pilote automatique)."
+    classpath = sourceSets["main"].runtimeClasspath
+    mainClass.set("com.example.snake.sim.SimulationRunner")
+    args = (project.findProperty("args") as String? ?: "11 11 100000").split(" ")
+}
+
+// Serveur de parties en réseau et générateur de charge :
+// ./gradlew :core:tickServer -Pargs="7777 50 2"  (port [ms par pas [joueurs [lignes colonnes]]])
+// ./gradlew :core:loadTest -Pargs="127.0.0.1:7777 2000 30"  (hôte:port clients secondes)
+// ./gradlew :core:loadTest -Pargs="loopback 2000 30 50 2"  (serveur dans le même processus)
+tasks.register<JavaExec>("tickServer") {
+    group = "application"
+    description = "Lance le serveur de parties multijoueur (NIO, un seul thread)."
+    classpath = sourceSets["main"].runtimeClasspath
+    mainClass.set("com.example.snake.net.TickServer")
+    args = (project.findProperty("args") as String? ?: "7777").split(" ")
+}
+
+tasks.register<JavaExec>("loadTest") {
+    group = "application"
+    description = "Ouvre des milliers de connexions vers le serveur et mesure la gigue des pas."
+    classpath = sourceSets["main"].runtimeClasspath
+    mainClass.set("com.example.snake.net.LoadGenerator")
+    args = (project.findProperty("args") as String? ?: "loopback 1000 10").split(" ")
+}
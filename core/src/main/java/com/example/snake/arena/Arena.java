@@ -0,0 +1,518 @@
+package com.example.snake.arena;
+
+import com.example.snake.engine.SnakeBody;
+import com.example.snake.engine.SnakeEngine;
+import com.example.snake.engine.SnakeRandom;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Arène : des centaines ou des milliers de serpents et de nombreuses pommes sur une grande
+ * grille partagée.
+ *  - Grille de propriété (un entier par case : libre, pomme ou numéro du serpent) : une
+ *    collision tête-corps se lit en O(1), sans parcourir les autres serpents.
+ *  - Grille de réservation (AtomicIntegerArray) : chaque tête réserve sa case d'arrivée par
+ *    compareAndSet ; une deuxième tête sur la même case la marque en conflit, en O(1).
+ *  - Un pas = trois phases parallèles sur des tranches de serpents (pool fork/join), séparées
+ *    par la fin de la phase précédente, puis une courte phase séquentielle :
+ *      1. décision : chaque serpent choisit sa direction et réserve sa case d'arrivée ;
+ *      2. arbitrage : chaque serpent lit la grille figée au début du pas et les réservations ;
+ *      3. application : déplacement, croissance ou retrait des morts (chaque case n'est écrite
+ *         que par un seul serpent) ;
+ *      4. séquentielle, par numéro croissant : scores, nouvelles pommes, réapparitions.
+ *    Le résultat ne dépend donc ni du nombre de threads ni de l'ordre d'exécution.
+ *
+ * Règles propres à l'arène (différentes du moteur solo) :
+ *  - Le bord est mortel.
+ *  - Deux têtes visant la même case : les deux serpents meurent.
+ *  - Une tête sur un corps meurt, queue comprise : seule sa propre queue libère sa case
+ *    pendant le pas (on ne sait pas encore quels autres serpents bougeront).
+ *  - Un serpent mort disparaît et réapparaît à la fin du pas sur une case libre tirée au
+ *    hasard, avec un seul segment. Son score est cumulé sur toutes ses vies.
+ */
+public final class Arena implements AutoCloseable {
+
+    /** Valeur de getSnakeAt() pour une case sans serpent. */
+    public static final int NO_SNAKE = -1;
+
+    /** Contenu de la grille de propriété ; le serpent s est noté s + 1. */
+    private static final int EMPTY = 0;
+    private static final int APPLE = -1;
+
+    /** Réservation d'une case visée par plusieurs têtes (0 : aucune, s + 1 : serpent s). */
+    private static final int CONFLICT = -1;
+
+    /** Issue du pas pour chaque serpent. */
+    private static final byte IDLE = 0;
+    private static final byte MOVE = 1;
+    private static final byte GROW = 2;
+    private static final byte DIE = 3;
+
+    /** Phases parallèles. */
+    private static final int DECIDE = 0;
+    private static final int RESOLVE = 1;
+    private static final int APPLY = 2;
+
+    /** Nombre de tranches visé par thread et taille minimale d'une tranche. */
+    private static final int TASKS_PER_THREAD = 4;
+    private static final int MIN_GRAIN = 256;
+
+    /** Tirages avant de renoncer à placer une pomme ou un serpent (réessayé au pas suivant). */
+    private static final int SPAWN_ATTEMPTS = 64;
+
+    private static final int INITIAL_BODY_CAPACITY = 16;
+
+    //----------------------------------------------------------------------------------------------
+    // Configuration
+    //----------------------------------------------------------------------------------------------
+
+    private final int rowCount;
+    private final int columnCount;
+    private final int snakeCount;
+    /** Nombre de pommes maintenu sur la grille. */
+    private final int appleTarget;
+    private final ArenaPolicy policy;
+    /** Tirages de la phase séquentielle (pommes, réapparitions). */
+    private final SnakeRandom random;
+    private final ForkJoinPool pool;
+    /** Nombre de serpents par tranche. */
+    private final int grain;
+
+    //----------------------------------------------------------------------------------------------
+    // Grilles partagées
+    //----------------------------------------------------------------------------------------------
+
+    /** Propriétaire de chaque case : EMPTY, APPLE ou numéro du serpent + 1. */
+    private final int[] owner;
+    /** Réservations du pas en cours (remises à zéro pendant l'application). */
+    private final AtomicIntegerArray claims;
+
+    //----------------------------------------------------------------------------------------------
+    // Serpents (tableaux indexés par numéro de serpent)
+    //----------------------------------------------------------------------------------------------
+
+    private final SnakeBody[] bodies;
+    private final int[] direction;
+    /** Case d'arrivée du pas en cours (-1 : hors de la grille). */
+    private final int[] target;
+    private final byte[] fate;
+    private final int[] score;
+    private final boolean[] alive;
+
+    //----------------------------------------------------------------------------------------------
+    // Compteurs
+    //----------------------------------------------------------------------------------------------
+
+    private int appleCount;
+    private int aliveCount;
+    private long tickCount;
+    private long moveCount;
+    private long deathCount;
+    private long applesEaten;
+
+    /**
+     * @param rowCount    nombre de lignes de la grille
+     * @param columnCount nombre de colonnes de la grille
+     * @param snakeCount  nombre de serpents
+     * @param appleCount  nombre de pommes maintenu sur la grille
+     * @param seed        graine de l'arène (placements et graines des serpents)
+     * @param policy      stratégie commune à tous les serpents
+     * @param parallelism nombre de threads (par ex. Runtime.availableProcessors())
+     * @throws IllegalArgumentException si serpents et pommes occupent plus de la moitié des cases
+     */
+    public Arena(int rowCount, int columnCount, int snakeCount, int appleCount, long seed,
+                 ArenaPolicy policy, int parallelism) {
+        if (rowCount <= 0 || columnCount <= 0) {
+            throw new IllegalArgumentException(
+                    "Grille invalide : " + rowCount + "x" + columnCount);
+        }
+        int cells = Math.multiplyExact(rowCount, columnCount);
+        if (snakeCount < 0 || appleCount < 0 || (long) snakeCount + appleCount > cells / 2) {
+            throw new IllegalArgumentException("Trop de serpents ou de pommes : " + snakeCount
+                    + " + " + appleCount + " pour " + cells + " cases");
+        }
+        this.rowCount = rowCount;
+        this.columnCount = columnCount;
+        this.snakeCount = snakeCount;
+        this.appleTarget = appleCount;
+        this.policy = policy;
+        this.random = new SnakeRandom(seed);
+        this.pool = new ForkJoinPool(parallelism);
+        this.grain = parallelism == 1
+                ? Math.max(1, snakeCount)
+                : Math.max(MIN_GRAIN, -Math.floorDiv(-snakeCount, parallelism * TASKS_PER_THREAD));
+
+        owner = new int[cells];
+        claims = new AtomicIntegerArray(cells);
+        bodies = new SnakeBody[snakeCount];
+        direction = new int[snakeCount];
+        target = new int[snakeCount];
+        fate = new byte[snakeCount];
+        score = new int[snakeCount];
+        alive = new boolean[snakeCount];
+        for (int s = 0; s < snakeCount; s++) {
+            bodies[s] = new SnakeBody(INITIAL_BODY_CAPACITY);
+            spawn(s);
+        }
+        placeApples();
+    }
+
+    /**
+     * Avance tous les serpents d'un pas (voir les phases en tête de classe).
+     */
+    public void tick() {
+        runPhase(DECIDE);
+        runPhase(RESOLVE);
+        runPhase(APPLY);
+
+        for (int s = 0; s < snakeCount; s++) {
+            switch (fate[s]) {
+                case GROW:
+                    score[s]++;
+                    applesEaten++;
+                    appleCount--;
+                    moveCount++;
+                    break;
+                case MOVE:
+                    moveCount++;
+                    break;
+                case DIE:
+                    deathCount++;
+                    aliveCount--;
+                    break;
+                default:
+                    break;
+            }
+        }
+        placeApples();
+        for (int s = 0; s < snakeCount; s++) {
+            if (!alive[s]) {
+                spawn(s);
+            }
+        }
+        tickCount++;
+    }
+
+    public int getParallelism() {
+        return pool.getParallelism();
+    }
+
+    /** Arrête les threads du pool. */
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // Phases parallèles
+    //----------------------------------------------------------------------------------------------
+
+    private void runPhase(int phase) {
+        if (snakeCount <= grain) {
+            runRange(phase, 0, snakeCount);
+        } else {
+            pool.invoke(new Stripe(this, phase, 0, snakeCount));
+        }
+    }
+
+    private void runRange(int phase, int from, int to) {
+        switch (phase) {
+            case DECIDE:
+                for (int s = from; s < to; s++) {
+                    decide(s);
+                }
+                break;
+            case RESOLVE:
+                for (int s = from; s < to; s++) {
+                    resolve(s);
+                }
+                break;
+            default:
+                for (int s = from; s < to; s++) {
+                    apply(s);
+                }
+                break;
+        }
+    }
+
+    /** Phase 1 : direction (via la stratégie), case d'arrivée et réservation. */
+    private void decide(int s) {
+        if (!alive[s]) {
+            fate[s] = IDLE;
+            return;
+        }
+        SnakeBody body = bodies[s];
+        int newDirection = policy.chooseDirection(this, s);
+        if (body.size() == 1 || !SnakeEngine.isReversal(direction[s], newDirection)) {
+            direction[s] = newDirection;
+        }
+        int head = body.head();
+        int row = head / columnCount + SnakeEngine.deltaRow(direction[s]);
+        int col = head % columnCount + SnakeEngine.deltaCol(direction[s]);
+        if (row < 0 || row >= rowCount || col < 0 || col >= columnCount) {
+            target[s] = -1;
+            fate[s] = DIE;
+            return;
+        }
+        int cell = row * columnCount + col;
+        target[s] = cell;
+        fate[s] = MOVE;
+        if (!claims.compareAndSet(cell, 0, s + 1)) {
+            claims.set(cell, CONFLICT);
+        }
+    }
+
+    /** Phase 2 : issue du pas, d'après la grille du début du pas et les réservations. */
+    private void resolve(int s) {
+        if (fate[s] != MOVE) {
+            return;
+        }
+        int cell = target[s];
+        int cellOwner = owner[cell];
+        if (claims.get(cell) == CONFLICT) {
+            fate[s] = DIE;
+        } else if (cellOwner == APPLE) {
+            fate[s] = GROW;
+        } else if (cellOwner != EMPTY && !(cellOwner == s + 1 && cell == bodies[s].tail())) {
+            fate[s] = DIE;
+        }
+    }
+
+    /** Phase 3 : écrit le déplacement dans la grille (cases propres à ce serpent). */
+    private void apply(int s) {
+        byte outcome = fate[s];
+        if (outcome == IDLE) {
+            return;
+        }
+        int cell = target[s];
+        if (cell >= 0) {
+            claims.set(cell, 0);
+        }
+        SnakeBody body = bodies[s];
+        if (outcome == DIE) {
+            for (int i = 0; i < body.size(); i++) {
+                owner[body.get(i)] = EMPTY;
+            }
+            body.clear();
+            alive[s] = false;
+            return;
+        }
+        if (outcome == MOVE) {
+            owner[body.popTail()] = EMPTY;
+        }
+        body.pushHead(cell);
+        owner[cell] = s + 1;
+    }
+
+    /** Tranche de serpents [from, to), découpée en deux tant qu'elle dépasse grain. */
+    private static final class Stripe extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Arena arena;
+        private final int phase;
+        private final int from;
+        private final int to;
+
+        Stripe(Arena arena, int phase, int from, int to) {
+            this.arena = arena;
+            this.phase = phase;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= arena.grain) {
+                arena.runRange(phase, from, to);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new Stripe(arena, phase, from, middle),
+                    new Stripe(arena, phase, middle, to));
+        }
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // Placements (phase séquentielle)
+    //----------------------------------------------------------------------------------------------
+
+    /** Fait (ré)apparaître le serpent s sur une case libre ; réessayé au pas suivant sinon. */
+    private void spawn(int s) {
+        int cell = randomEmptyCell();
+        if (cell < 0) {
+            return;
+        }
+        bodies[s].pushHead(cell);
+        owner[cell] = s + 1;
+        direction[s] = random.nextInt(4);
+        alive[s] = true;
+        aliveCount++;
+        policy.onSpawn(this, s, random.nextLong());
+    }
+
+    /** Complète les pommes jusqu'à appleTarget. */
+    private void placeApples() {
+        while (appleCount < appleTarget) {
+            int cell = randomEmptyCell();
+            if (cell < 0) {
+                return;
+            }
+            owner[cell] = APPLE;
+            appleCount++;
+        }
+    }
+
+    /**
+     * Remplace le corps du serpent par cells (tête en premier), sans vérifier leur contiguïté.
+     * Réservé aux tests de collisions, entre deux pas (les cases déjà prises par un autre
+     * serpent placé avant lui ne sont pas libérées).
+     */
+    void place(int snake, int newDirection, int... cells) {
+        SnakeBody body = bodies[snake];
+        for (int i = 0; i < body.size(); i++) {
+            if (owner[body.get(i)] == snake + 1) {
+                owner[body.get(i)] = EMPTY;
+            }
+        }
+        body.clear();
+        for (int i = cells.length - 1; i >= 0; i--) {
+            body.pushHead(cells[i]);
+            owner[cells[i]] = snake + 1;
+        }
+        direction[snake] = newDirection;
+        if (!alive[snake]) {
+            alive[snake] = true;
+            aliveCount++;
+        }
+    }
+
+    /**
+     * Case libre tirée au hasard (-1 après SPAWN_ATTEMPTS échecs). Serpents et pommes occupant
+     * en général une petite partie de la grille, quelques tirages suffisent.
+     */
+    private int randomEmptyCell() {
+        for (int i = 0; i < SPAWN_ATTEMPTS; i++) {
+            int cell = random.nextInt(owner.length);
+            if (owner[cell] == EMPTY) {
+                return cell;
+            }
+        }
+        return -1;
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // Lecture de l'état (sûre en parallèle pendant la phase de décision)
+    //----------------------------------------------------------------------------------------------
+
+    /** Case (row, col) codée row * columnCount + col. */
+    public int cellOf(int row, int col) {
+        return row * columnCount + col;
+    }
+
+    /** Numéro du serpent qui occupe cette case, ou NO_SNAKE. */
+    public int getSnakeAt(int cell) {
+        int cellOwner = owner[cell];
+        return cellOwner > 0 ? cellOwner - 1 : NO_SNAKE;
+    }
+
+    public boolean isApple(int cell) {
+        return owner[cell] == APPLE;
+    }
+
+    /** Vrai si la case est vide ou porte une pomme. */
+    public boolean isFree(int cell) {
+        return owner[cell] <= EMPTY;
+    }
+
+    public boolean isAlive(int snake) {
+        return alive[snake];
+    }
+
+    /** Nombre de segments (0 si le serpent attend de réapparaître). */
+    public int getLength(int snake) {
+        return bodies[snake].size();
+    }
+
+    public int getHeadCell(int snake) {
+        return bodies[snake].head();
+    }
+
+    /** Case du segment i du serpent (0 => tête). */
+    public int getSegmentCell(int snake, int i) {
+        return bodies[snake].get(i);
+    }
+
+    public int getDirection(int snake) {
+        return direction[snake];
+    }
+
+    /** Pommes mangées par ce serpent, toutes vies confondues. */
+    public int getScore(int snake) {
+        return score[snake];
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    public int getColumnCount() {
+        return columnCount;
+    }
+
+    public int getSnakeCount() {
+        return snakeCount;
+    }
+
+    public int getAliveCount() {
+        return aliveCount;
+    }
+
+    public int getAppleCount() {
+        return appleCount;
+    }
+
+    public long getTickCount() {
+        return tickCount;
+    }
+
+    /** Déplacements effectués depuis la création (un par serpent vivant et par pas). */
+    public long getMoveCount() {
+        return moveCount;
+    }
+
+    public long getDeathCount() {
+        return deathCount;
+    }
+
+    public long getApplesEaten() {
+        return applesEaten;
+    }
+
+    /**
+     * Empreinte de l'état complet (serpents, pommes, générateur). Deux arènes de même graine
+     * ont la même empreinte après le même nombre de pas, quel que soit leur nombre de threads.
+     * Coût O(cases) : réservé aux tests et aux vérifications.
+     */
+    public long stateHash() {
+        long h = SnakeRandom.mix(rowCount);
+        h = SnakeRandom.mix(h ^ columnCount);
+        for (int s = 0; s < snakeCount; s++) {
+            SnakeBody body = bodies[s];
+            h = SnakeRandom.mix(h ^ body.size());
+            for (int i = 0; i < body.size(); i++) {
+                h = SnakeRandom.mix(h ^ body.get(i));
+            }
+            h = SnakeRandom.mix(h ^ direction[s]);
+            h = SnakeRandom.mix(h ^ score[s]);
+        }
+        for (int cell = 0; cell < owner.length; cell++) {
+            if (owner[cell] == APPLE) {
+                h = SnakeRandom.mix(h ^ cell);
+            }
+        }
+        h = SnakeRandom.mix(h ^ tickCount);
+        return SnakeRandom.mix(h ^ random.getState());
+    }
+}
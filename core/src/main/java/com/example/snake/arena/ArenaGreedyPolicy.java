@@ -0,0 +1,117 @@
+package com.example.snake.arena;
+
+import com.example.snake.engine.SnakeEngine;
+import com.example.snake.engine.SnakeRandom;
+
+import java.util.Arrays;
+
+/**
+ * Stratégie gloutonne pour l'arène, à vue courte :
+ *  - Pomme visible en ligne droite (au plus VISION cases, sans obstacle) : y aller, la plus
+ *    proche d'abord.
+ *  - Sinon tout droit, avec de temps en temps un virage au hasard pour explorer.
+ *  - Toujours vers une case libre quand il y en a une.
+ * Aucune recherche globale : le coût d'une décision ne dépend pas de la taille de l'arène.
+ * Chaque serpent a son propre générateur, ré-amorcé à chaque réapparition.
+ */
+public final class ArenaGreedyPolicy implements ArenaPolicy {
+
+    /** Portée de la vue en ligne droite (cases). */
+    private static final int VISION = 16;
+
+    /** Un virage spontané toutes les TURN_ODDS décisions en moyenne. */
+    private static final int TURN_ODDS = 16;
+
+    private SnakeRandom[] randoms = new SnakeRandom[0];
+
+    @Override
+    public void onSpawn(Arena arena, int snake, long seed) {
+        if (snake >= randoms.length) {
+            randoms = Arrays.copyOf(randoms, Math.max(snake + 1, arena.getSnakeCount()));
+        }
+        if (randoms[snake] == null) {
+            randoms[snake] = new SnakeRandom(seed);
+        } else {
+            randoms[snake].setSeed(seed);
+        }
+    }
+
+    @Override
+    public int chooseDirection(Arena arena, int snake) {
+        int current = arena.getDirection(snake);
+
+        int best = current;
+        int bestDistance = VISION + 1;
+        for (int direction = SnakeEngine.UP; direction <= SnakeEngine.RIGHT; direction++) {
+            if (isAllowed(arena, snake, current, direction)) {
+                int distance = appleDistance(arena, snake, direction, bestDistance);
+                if (distance < bestDistance) {
+                    best = direction;
+                    bestDistance = distance;
+                }
+            }
+        }
+        if (bestDistance <= VISION) {
+            return best;
+        }
+
+        SnakeRandom random = randoms[snake];
+        if (random.nextInt(TURN_ODDS) != 0 && isSafe(arena, snake, current, current)) {
+            return current;
+        }
+        int offset = random.nextInt(4);
+        for (int i = 0; i < 4; i++) {
+            int direction = (offset + i) & 3;
+            if (isSafe(arena, snake, current, direction)) {
+                return direction;
+            }
+        }
+        return current;
+    }
+
+    /** Vrai si le pas dans cette direction arrive sur une case libre (ou une pomme). */
+    private static boolean isSafe(Arena arena, int snake, int current, int direction) {
+        if (!isAllowed(arena, snake, current, direction)) {
+            return false;
+        }
+        int columnCount = arena.getColumnCount();
+        int head = arena.getHeadCell(snake);
+        int row = head / columnCount + SnakeEngine.deltaRow(direction);
+        int col = head % columnCount + SnakeEngine.deltaCol(direction);
+        return row >= 0 && row < arena.getRowCount() && col >= 0 && col < columnCount
+                && arena.isFree(arena.cellOf(row, col));
+    }
+
+    /** Un demi-tour n'est possible qu'avec un seul segment. */
+    private static boolean isAllowed(Arena arena, int snake, int current, int direction) {
+        return arena.getLength(snake) == 1 || !SnakeEngine.isReversal(current, direction);
+    }
+
+    /**
+     * Distance de la première pomme dans cette direction, en s'arrêtant au premier obstacle
+     * ou à limit cases ; limit si aucune.
+     */
+    private static int appleDistance(Arena arena, int snake, int direction, int limit) {
+        int columnCount = arena.getColumnCount();
+        int head = arena.getHeadCell(snake);
+        int row = head / columnCount;
+        int col = head % columnCount;
+        int dRow = SnakeEngine.deltaRow(direction);
+        int dCol = SnakeEngine.deltaCol(direction);
+        for (int distance = 1; distance < limit; distance++) {
+            row += dRow;
+            col += dCol;
+            if (row < 0 || row >= arena.getRowCount() || col < 0 || col >= columnCount) {
+                return limit;
+            }
+            int cell = arena.cellOf(row, col);
+            if (arena.isApple(cell)) {
+                return distance;
+            }
+            if (!arena.isFree(cell)) {
+                return limit;
+            }
+        }
+        return limit;
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.snake.arena;
+
+/**
+ * Stratégie des serpents d'une arène. Une seule instance sert tous les serpents :
+ *  - chooseDirection est appelée en parallèle pour des serpents différents, pendant que
+ *    l'arène est en lecture seule. Elle ne doit lire que l'arène et l'état propre au serpent
+ *    demandé (indexé par son numéro), et ne rien allouer.
+ *  - onSpawn est toujours appelée depuis un seul thread, entre deux phases parallèles.
+ */
+public interface ArenaPolicy {
+
+    /**
+     * Le serpent vient d'(ré)apparaître : longueur 1, direction aléatoire.
+     *
+     * @param seed graine tirée par l'arène pour ce serpent (déterministe)
+     */
+    default void onSpawn(Arena arena, int snake, long seed) {
+    }
+
+    /**
+     * @return l'une des constantes SnakeEngine.UP, DOWN, LEFT, RIGHT (un demi-tour est ignoré
+     *         quand le serpent a plus d'un segment, comme dans le moteur)
+     */
+    int chooseDirection(Arena arena, int snake);
+}
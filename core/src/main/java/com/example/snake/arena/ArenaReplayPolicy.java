@@ -0,0 +1,36 @@
+package com.example.snake.arena;
+
+import com.example.snake.replay.InputLogReader;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Joueurs rejoués : le serpent i suit pas à pas les commandes du journal i (format InputLog),
+ * d'une vie à l'autre. Le plateau n'étant pas celui de l'enregistrement, le serpent reproduit
+ * les gestes du joueur, pas sa partie. Journal terminé, ou serpent sans journal : tout droit.
+ *
+ * Chaque journal n'est lu que par le thread qui décide pour son serpent : aucune
+ * synchronisation n'est nécessaire.
+ */
+public final class ArenaReplayPolicy implements ArenaPolicy {
+
+    private final InputLogReader[] logs;
+
+    public ArenaReplayPolicy(InputLogReader... logs) {
+        this.logs = logs.clone();
+    }
+
+    @Override
+    public int chooseDirection(Arena arena, int snake) {
+        if (snake >= logs.length) {
+            return arena.getDirection(snake);
+        }
+        try {
+            int direction = logs[snake].nextDirection();
+            return direction == InputLogReader.END ? arena.getDirection(snake) : direction;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
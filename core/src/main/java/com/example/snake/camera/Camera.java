@@ -0,0 +1,118 @@
+package com.example.snake.camera;
+
+/**
+ * Fenêtre visible (viewport) sur une grille plus grande que l'écran :
+ *  - Nombre de lignes / colonnes visibles, plafonné à la taille de la grille.
+ *  - Première ligne / colonne visible, qui suit la tête du serpent : la caméra ne bouge que
+ *    quand la tête sort d'une zone centrale (marge en cases), pour ne pas faire défiler
+ *    l'écran à chaque pas.
+ *  - Jamais au-delà des bords de la grille.
+ * Le rendu ne parcourt que les cases visibles : son coût dépend de la taille de l'écran,
+ * pas de celle de la grille ni de la longueur du serpent.
+ */
+public final class Camera {
+
+    private final int boardRows;
+    private final int boardColumns;
+
+    private int visibleRows;
+    private int visibleColumns;
+
+    /** Première case visible (coin haut-gauche). */
+    private int firstRow;
+    private int firstColumn;
+
+    /**
+     * @param boardRows    nombre de lignes de la grille (> 0)
+     * @param boardColumns nombre de colonnes de la grille (> 0)
+     */
+    public Camera(int boardRows, int boardColumns) {
+        if (boardRows <= 0 || boardColumns <= 0) {
+            throw new IllegalArgumentException(
+                    "Grille invalide : " + boardRows + "x" + boardColumns);
+        }
+        this.boardRows = boardRows;
+        this.boardColumns = boardColumns;
+        this.visibleRows = boardRows;
+        this.visibleColumns = boardColumns;
+    }
+
+    /**
+     * Nombre de cases visibles sur une dimension de l'écran, pour des cases d'au moins
+     * minCellPixels : au moins 1, au plus boardCount (la grille tient alors entière).
+     */
+    public static int visibleCount(int pixels, float minCellPixels, int boardCount) {
+        int fitting = minCellPixels > 0f ? (int) (pixels / minCellPixels) : boardCount;
+        return Math.max(1, Math.min(boardCount, fitting));
+    }
+
+    /** Change la taille de la fenêtre (plafonnée à la grille) en gardant son centre. */
+    public void setVisibleSize(int rows, int columns) {
+        int centerRow = firstRow + visibleRows / 2;
+        int centerColumn = firstColumn + visibleColumns / 2;
+        visibleRows = Math.max(1, Math.min(rows, boardRows));
+        visibleColumns = Math.max(1, Math.min(columns, boardColumns));
+        centerOn(centerRow, centerColumn);
+    }
+
+    /** Centre la fenêtre sur la case (row, col), dans la limite des bords. */
+    public void centerOn(int row, int col) {
+        firstRow = clamp(row - visibleRows / 2, boardRows - visibleRows);
+        firstColumn = clamp(col - visibleColumns / 2, boardColumns - visibleColumns);
+    }
+
+    /**
+     * Déplace la fenêtre juste assez pour garder (row, col) hors des marges (un quart de la
+     * fenêtre de chaque côté).
+     *
+     * @return vrai si la fenêtre a bougé (tout l'écran est alors à redessiner)
+     */
+    public boolean follow(int row, int col) {
+        int newFirstRow = followAxis(row, firstRow, visibleRows, boardRows);
+        int newFirstColumn = followAxis(col, firstColumn, visibleColumns, boardColumns);
+        boolean moved = newFirstRow != firstRow || newFirstColumn != firstColumn;
+        firstRow = newFirstRow;
+        firstColumn = newFirstColumn;
+        return moved;
+    }
+
+    private static int followAxis(int position, int first, int visible, int board) {
+        int margin = visible / 4;
+        if (position < first + margin) {
+            first = position - margin;
+        } else if (position > first + visible - 1 - margin) {
+            first = position - (visible - 1 - margin);
+        }
+        return clamp(first, board - visible);
+    }
+
+    private static int clamp(int first, int maxFirst) {
+        return Math.max(0, Math.min(first, maxFirst));
+    }
+
+    /** Vrai si la case (row, col) est dans la fenêtre. */
+    public boolean contains(int row, int col) {
+        return row >= firstRow && row < firstRow + visibleRows
+                && col >= firstColumn && col < firstColumn + visibleColumns;
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // Getters
+    //----------------------------------------------------------------------------------------------
+
+    public int getFirstRow() {
+        return firstRow;
+    }
+
+    public int getFirstColumn() {
+        return firstColumn;
+    }
+
+    public int getVisibleRows() {
+        return visibleRows;
+    }
+
+    public int getVisibleColumns() {
+        return visibleColumns;
+    }
+}
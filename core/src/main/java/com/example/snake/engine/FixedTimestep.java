@@ -0,0 +1,80 @@
+package com.example.snake.engine;
+
+/**
+ * Ordonnanceur à pas fixe (accumulateur) pour la boucle de jeu :
+ *  - Le jeu avance toujours par pas de durée identique, quelle que soit la fréquence d'appel.
+ *  - Le temps écoulé s'accumule ; advance() retourne le nombre de pas à rattraper.
+ *  - Le rattrapage est plafonné (maxStepsPerUpdate) pour éviter l'emballement après
+ *    une longue interruption : l'excédent est abandonné.
+ * Les temps sont en nanosecondes (System.nanoTime() ou équivalent).
+ */
+public final class FixedTimestep {
+
+    /** Durée d'un pas (ns). */
+    private long stepNanos;
+    /** Nombre maximal de pas rattrapés par appel à advance(). */
+    private final int maxStepsPerUpdate;
+
+    /** Temps accumulé non encore consommé (ns). */
+    private long accumulator;
+    /** Instant du dernier appel (ns). */
+    private long lastTime;
+
+    /**
+     * @param stepNanos         durée d'un pas (> 0)
+     * @param maxStepsPerUpdate rattrapage maximal par appel (> 0)
+     */
+    public FixedTimestep(long stepNanos, int maxStepsPerUpdate) {
+        if (maxStepsPerUpdate <= 0) {
+            throw new IllegalArgumentException("maxStepsPerUpdate doit être > 0");
+        }
+        this.maxStepsPerUpdate = maxStepsPerUpdate;
+        setStepNanos(stepNanos);
+    }
+
+    /** Change la durée d'un pas (prise en compte dès le prochain advance). */
+    public void setStepNanos(long stepNanos) {
+        if (stepNanos <= 0) {
+            throw new IllegalArgumentException("stepNanos doit être > 0 : " + stepNanos);
+        }
+        this.stepNanos = stepNanos;
+    }
+
+    public long getStepNanos() {
+        return stepNanos;
+    }
+
+    /**
+     * Repart de zéro à l'instant now (démarrage, fin de pause) : le temps passé avant
+     * n'est pas rattrapé.
+     */
+    public void reset(long now) {
+        lastTime = now;
+        accumulator = 0;
+    }
+
+    /**
+     * Ajoute le temps écoulé depuis le dernier appel et retourne le nombre de pas à jouer.
+     */
+    public int advance(long now) {
+        long elapsed = now - lastTime;
+        lastTime = now;
+        if (elapsed > 0) {
+            accumulator += elapsed;
+        }
+
+        long due = accumulator / stepNanos;
+        int steps = (int) Math.min(due, maxStepsPerUpdate);
+        accumulator -= steps * stepNanos;
+        if (due > maxStepsPerUpdate) {
+            // Trop de retard : on abandonne l'excédent, on garde seulement la fraction de pas
+            accumulator %= stepNanos;
+        }
+        return steps;
+    }
+
+    /** Temps restant (ns) avant que le prochain pas soit dû. */
+    public long nanosUntilNextStep() {
+        return stepNanos - accumulator;
+    }
+}
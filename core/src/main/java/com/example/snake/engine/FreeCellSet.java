@@ -0,0 +1,78 @@
+package com.example.snake.engine;
+
+/**
+ * Ensemble indexé des cases libres (tableau dense + index de position) :
+ *  - Ajout, retrait (échange avec le dernier élément) et test d'appartenance en O(1).
+ *  - Tirage uniforme d'une case libre en O(1), sans allocation.
+ * Tenu à jour par le moteur à chaque déplacement du serpent.
+ */
+public final class FreeCellSet {
+
+    /** Cases libres, rangées dans dense[0 .. size-1]. */
+    private final int[] dense;
+    /** Position de chaque case dans dense (valide seulement si la case est libre). */
+    private final int[] position;
+    /** Nombre de cases libres. */
+    private int size;
+
+    /**
+     * @param cellCount nombre de cases de la grille
+     */
+    public FreeCellSet(int cellCount) {
+        dense = new int[cellCount];
+        position = new int[cellCount];
+        fill();
+    }
+
+    /** Remet toutes les cases de la grille dans l'ensemble. */
+    public void fill() {
+        for (int cell = 0; cell < dense.length; cell++) {
+            dense[cell] = cell;
+            position[cell] = cell;
+        }
+        size = dense.length;
+    }
+
+    /** Vrai si la case est libre. */
+    public boolean contains(int cell) {
+        int p = position[cell];
+        return p < size && dense[p] == cell;
+    }
+
+    /** Ajoute une case libérée (sans effet si elle est déjà libre). */
+    public void add(int cell) {
+        if (contains(cell)) {
+            return;
+        }
+        dense[size] = cell;
+        position[cell] = size;
+        size++;
+    }
+
+    /** Retire une case devenue occupée (sans effet si elle ne l'était pas). */
+    public void remove(int cell) {
+        if (!contains(cell)) {
+            return;
+        }
+        // On bouche le trou avec la dernière case libre
+        int p = position[cell];
+        int last = dense[--size];
+        dense[p] = last;
+        position[last] = p;
+    }
+
+    /** Case libre de rang index (0 <= index < size()). */
+    public int get(int index) {
+        return dense[index];
+    }
+
+    /** Nombre de cases libres. */
+    public int size() {
+        return size;
+    }
+
+    /** Vrai si plus aucune case n'est libre. */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+}
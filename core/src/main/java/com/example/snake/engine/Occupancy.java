@@ -0,0 +1,41 @@
+package com.example.snake.engine;
+
+import java.util.Arrays;
+
+/**
+ * Grille d'occupation sous forme de bitset (un bit par case, 64 cases par long) :
+ *  - Test, marquage et libération d'une case en O(1), quelle que soit la longueur du serpent.
+ *  - Mise à jour par le moteur à chaque tête ajoutée et chaque queue retirée.
+ */
+public final class Occupancy {
+
+    /** Bits d'occupation : bit (cell & 63) du mot (cell >>> 6). */
+    private final long[] words;
+
+    /**
+     * @param cellCount nombre de cases de la grille
+     */
+    public Occupancy(int cellCount) {
+        words = new long[(cellCount + 63) >>> 6];
+    }
+
+    /** Vrai si la case est occupée. */
+    public boolean get(int cell) {
+        return (words[cell >>> 6] & (1L << cell)) != 0;
+    }
+
+    /** Marque la case comme occupée. */
+    public void set(int cell) {
+        words[cell >>> 6] |= 1L << cell;
+    }
+
+    /** Libère la case. */
+    public void clear(int cell) {
+        words[cell >>> 6] &= ~(1L << cell);
+    }
+
+    /** Libère toutes les cases. */
+    public void clearAll() {
+        Arrays.fill(words, 0L);
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.snake.engine;
+
+import java.nio.IntBuffer;
+
+/**
+ * Corps du serpent stocké dans un tampon circulaire d'entiers :
+ *  - Chaque segment est une case codée row * columnCount + col.
+ *  - Ajouter une tête et retirer la queue se font en O(1), sans allocation.
+ *  - Le tableau ne double de taille que lorsque le serpent dépasse la capacité courante.
+ *
+ * L'index 0 désigne la tête, l'index size() - 1 la queue.
+ */
+public final class SnakeBody {
+
+    /** Cases du serpent (capacité = puissance de deux). */
+    private int[] cells;
+    /** Masque de l'index circulaire (capacité - 1). */
+    private int mask;
+    /** Emplacement de la tête dans le tableau. */
+    private int headSlot;
+    /** Nombre de segments. */
+    private int size;
+
+    /**
+     * @param initialCapacity capacité initiale (arrondie à la puissance de deux supérieure)
+     */
+    public SnakeBody(int initialCapacity) {
+        int capacity = Integer.highestOneBit(Math.max(1, initialCapacity - 1)) << 1;
+        cells = new int[capacity];
+        mask = capacity - 1;
+    }
+
+    /** Vide le corps (la capacité est conservée). */
+    public void clear() {
+        headSlot = 0;
+        size = 0;
+    }
+
+    /** Ajoute une nouvelle tête. */
+    public void pushHead(int cell) {
+        if (size == cells.length) {
+            grow();
+        }
+        headSlot = (headSlot - 1) & mask;
+        cells[headSlot] = cell;
+        size++;
+    }
+
+    /** Retire la queue et retourne sa case. */
+    public int popTail() {
+        if (size == 0) {
+            throw new IllegalStateException("Corps vide");
+        }
+        size--;
+        return cells[(headSlot + size) & mask];
+    }
+
+    /** Case du segment i (0 => tête). */
+    public int get(int i) {
+        return cells[(headSlot + i) & mask];
+    }
+
+    /** Case de la tête. */
+    public int head() {
+        return cells[headSlot];
+    }
+
+    /** Case de la queue. */
+    public int tail() {
+        return cells[(headSlot + size - 1) & mask];
+    }
+
+    /** Nombre de segments. */
+    public int size() {
+        return size;
+    }
+
+    /** Écrit les cases, tête en premier, dans out (au plus deux copies en bloc). */
+    public void writeTo(IntBuffer out) {
+        int first = Math.min(size, cells.length - headSlot);
+        out.put(cells, headSlot, first);
+        out.put(cells, 0, size - first);
+    }
+
+    /**
+     * Remplace le contenu par length cases lues dans in, tête en premier (une copie en bloc ;
+     * le tableau n'est réalloué que s'il est trop petit).
+     */
+    public void readFrom(IntBuffer in, int length) {
+        if (length > cells.length) {
+            int capacity = Integer.highestOneBit(Math.max(1, length - 1)) << 1;
+            cells = new int[capacity];
+            mask = capacity - 1;
+        }
+        in.get(cells, 0, length);
+        headSlot = 0;
+        size = length;
+    }
+
+    /**
+     * Double la capacité en remettant les segments dans l'ordre (tête à l'index 0).
+     */
+    private void grow() {
+        int[] larger = new int[cells.length << 1];
+        for (int i = 0; i < size; i++) {
+            larger[i] = get(i);
+        }
+        cells = larger;
+        mask = larger.length - 1;
+        headSlot = 0;
+    }
+}
@@ -0,0 +1,529 @@
+package com.example.snake.engine;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * Moteur du jeu Snake, indépendant d'Android (aucun import android.*) :
+ *  - Grille de taille configurable (lignes x colonnes).
+ *  - État du jeu : serpent, pomme, score, direction, game over.
+ *  - Règles : demi-tour, déplacement, collisions, croissance, placement de la pomme.
+ *  - Avance d'un pas à chaque appel de tick(direction).
+ *
+ * Les cases sont codées en un seul entier : row * columnCount + col.
+ *
+ * Le générateur aléatoire est initialisé par une graine : deux moteurs créés avec la même
+ * graine et recevant la même suite de directions jouent exactement la même partie.
+ */
+public final class SnakeEngine {
+
+    //----------------------------------------------------------------------------------------------
+    // Directions
+    //----------------------------------------------------------------------------------------------
+
+    public static final int UP = 0;
+    public static final int DOWN = 1;
+    public static final int LEFT = 2;
+    public static final int RIGHT = 3;
+
+    /**
+     * Déplacement (ligne, colonne) associé à chaque direction, indexé par UP/DOWN/LEFT/RIGHT.
+     * Reprend la correspondance historique de l'accéléromètre : UP/DOWN agissent sur la
+     * colonne, LEFT/RIGHT sur la ligne.
+     */
+    private static final int[] DELTA_ROW = {0, 0, -1, 1};
+    private static final int[] DELTA_COL = {-1, 1, 0, 0};
+
+    /** Valeur de getAppleCell() quand la grille est pleine (plus de pomme). */
+    public static final int NO_APPLE = -1;
+
+    //----------------------------------------------------------------------------------------------
+    // Configuration
+    //----------------------------------------------------------------------------------------------
+
+    /** Nombre de lignes dans la grille. */
+    private final int rowCount;
+    /** Nombre de colonnes dans la grille. */
+    private final int columnCount;
+
+    /** Générateur aléatoire (pour placer la pomme). */
+    private final SnakeRandom random;
+
+    //----------------------------------------------------------------------------------------------
+    // État du jeu : serpent, pomme, score, etc.
+    //----------------------------------------------------------------------------------------------
+
+    /** Capacité initiale du corps (il double ensuite à la demande). */
+    private static final int INITIAL_BODY_CAPACITY = 64;
+
+    /** Cases du serpent (tampon circulaire). index=0 => tête. */
+    private final SnakeBody body;
+
+    /** Cases occupées par le serpent (bitset, tenu à jour à chaque pas). */
+    private final Occupancy occupancy;
+
+    /** Cases libres (pour tirer la position de la pomme en O(1)). */
+    private final FreeCellSet freeCells;
+
+    /** Case de la pomme. */
+    private int appleCell;
+
+    /** Score du joueur. */
+    private int score;
+
+    /** Indique si la partie est terminée. */
+    private boolean isGameOver;
+
+    /** Indique que le serpent a rempli toute la grille (partie gagnée). */
+    private boolean hasWon;
+
+    /** Direction actuelle du serpent (UP, DOWN, LEFT, RIGHT). */
+    private int currentDirection = RIGHT;
+
+    /** Case libérée par la queue lors du dernier déplacement (-1 si aucune). */
+    private int lastVacatedCell = -1;
+
+    /** Nombre de parties remplacées (reset, loadSnake, readState) depuis la construction. */
+    private int generation;
+
+    //----------------------------------------------------------------------------------------------
+    // Constructeur et réinitialisation
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * @param rowCount    nombre de lignes (> 0)
+     * @param columnCount nombre de colonnes (> 0)
+     * @param seed        graine du générateur aléatoire
+     */
+    public SnakeEngine(int rowCount, int columnCount, long seed) {
+        if (rowCount <= 0 || columnCount <= 0) {
+            throw new IllegalArgumentException(
+                    "Grille invalide : " + rowCount + "x" + columnCount);
+        }
+        this.rowCount = rowCount;
+        this.columnCount = columnCount;
+        this.random = new SnakeRandom(seed);
+        this.body = new SnakeBody(Math.min(rowCount * columnCount, INITIAL_BODY_CAPACITY));
+        this.occupancy = new Occupancy(rowCount * columnCount);
+        this.freeCells = new FreeCellSet(rowCount * columnCount);
+        reset();
+    }
+
+    /**
+     * Réinitialise le serpent (tête au centre), le score, et place la pomme.
+     * Le générateur aléatoire poursuit sa suite (pas de re-seed).
+     */
+    public void reset() {
+        generation++;
+        body.clear();
+        occupancy.clearAll();
+        freeCells.fill();
+        isGameOver = false;
+        hasWon = false;
+        lastVacatedCell = -1;
+        score = 0;
+
+        // Position de départ : milieu de la grille
+        pushHead(cellOf(rowCount / 2, columnCount / 2));
+        currentDirection = RIGHT; // Direction initiale
+
+        // Place la pomme
+        spawnApple();
+    }
+
+    /**
+     * Réinitialise la partie avec une nouvelle graine.
+     */
+    public void reset(long seed) {
+        random.setSeed(seed);
+        reset();
+    }
+
+    /**
+     * Remplace la partie en cours par un serpent donné (tests, benchmarks) : le score vaut
+     * longueur - 1 et la pomme est tirée parmi les cases libres.
+     *
+     * @param cells     cases du serpent, tête en premier (dans la grille, distinctes et
+     *                  voisines deux à deux)
+     * @param length    nombre de segments à prendre dans cells (>= 1)
+     * @param direction direction actuelle du serpent (UP, DOWN, LEFT, RIGHT)
+     */
+    public void loadSnake(int[] cells, int length, int direction) {
+        if (length < 1 || length > cells.length || length > rowCount * columnCount) {
+            throw new IllegalArgumentException("Longueur invalide : " + length);
+        }
+        if (direction < UP || direction > RIGHT) {
+            throw new IllegalArgumentException("Direction invalide : " + direction);
+        }
+
+        generation++;
+        body.clear();
+        occupancy.clearAll();
+        freeCells.fill();
+        isGameOver = false;
+        hasWon = false;
+        lastVacatedCell = -1;
+        score = length - 1;
+        currentDirection = direction;
+
+        // Queue d'abord : chaque pushHead ajoute le segment suivant vers la tête
+        for (int i = length - 1; i >= 0; i--) {
+            int cell = cells[i];
+            if (cell < 0 || cell >= rowCount * columnCount || occupancy.get(cell)
+                    || (i < length - 1 && !areNeighbours(cell, cells[i + 1]))) {
+                reset();
+                throw new IllegalArgumentException("Segment " + i + " invalide : " + cell);
+            }
+            pushHead(cell);
+        }
+
+        spawnApple();
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // Sauvegarde et restauration de l'état
+    //----------------------------------------------------------------------------------------------
+
+    /** Taille de l'en-tête de writeState (sans les cases du corps). */
+    private static final int STATE_HEADER_BYTES = 4 + 4 + 8 + 4 + 1 + 1 + 4 + 4;
+
+    /** Nombre d'octets écrits par writeState pour l'état actuel. */
+    public int stateSize() {
+        return STATE_HEADER_BYTES + 4 * body.size();
+    }
+
+    /**
+     * Écrit tout l'état du jeu dans out (stateSize() octets) : grille, état du générateur,
+     * score, direction, fin de partie, pomme puis les cases du corps en entiers, tête en
+     * premier. Coût O(longueur), copies en bloc, aucune allocation hors vue du tampon.
+     */
+    public void writeState(ByteBuffer out) {
+        out.putInt(rowCount);
+        out.putInt(columnCount);
+        out.putLong(random.getState());
+        out.putInt(score);
+        out.put((byte) currentDirection);
+        out.put((byte) ((isGameOver ? 1 : 0) | (hasWon ? 2 : 0)));
+        out.putInt(appleCell);
+        out.putInt(body.size());
+        int start = out.position();
+        body.writeTo(out.asIntBuffer());
+        out.position(start + 4 * body.size());
+    }
+
+    /**
+     * Remplace la partie en cours par un état écrit par writeState : la partie se poursuit
+     * exactement comme l'originale (même empreinte stateHash). Coût O(longueur) pour le corps,
+     * plus la remise à zéro des cases de la grille.
+     *
+     * @throws IllegalArgumentException état tronqué, incohérent ou d'une autre taille de
+     *                                  grille (la partie est alors réinitialisée)
+     */
+    public void readState(ByteBuffer in) {
+        try {
+            int rows = in.getInt();
+            int columns = in.getInt();
+            if (rows != rowCount || columns != columnCount) {
+                throw new IllegalArgumentException(
+                        "Grille " + rows + "x" + columns + " au lieu de "
+                                + rowCount + "x" + columnCount);
+            }
+            long randomState = in.getLong();
+            int savedScore = in.getInt();
+            int direction = in.get();
+            int flags = in.get();
+            int apple = in.getInt();
+            int length = in.getInt();
+            if (savedScore < 0 || direction < UP || direction > RIGHT
+                    || length < 1 || length > rowCount * columnCount
+                    || in.remaining() < 4 * length) {
+                throw new IllegalArgumentException("État invalide");
+            }
+
+            int start = in.position();
+            body.readFrom(in.asIntBuffer(), length);
+            in.position(start + 4 * length);
+            occupancy.clearAll();
+            freeCells.fill();
+            for (int i = 0; i < length; i++) {
+                int cell = body.get(i);
+                if (cell < 0 || cell >= rowCount * columnCount || occupancy.get(cell)
+                        || (i > 0 && !areNeighbours(cell, body.get(i - 1)))) {
+                    throw new IllegalArgumentException("Segment " + i + " invalide : " + cell);
+                }
+                occupancy.set(cell);
+                freeCells.remove(cell);
+            }
+            boolean won = (flags & 2) != 0;
+            if (won ? apple != NO_APPLE || !freeCells.isEmpty()
+                    : apple < 0 || apple >= rowCount * columnCount || occupancy.get(apple)) {
+                throw new IllegalArgumentException("Pomme invalide : " + apple);
+            }
+
+            random.setSeed(randomState);
+            score = savedScore;
+            currentDirection = direction;
+            isGameOver = (flags & 1) != 0;
+            hasWon = won;
+            appleCell = apple;
+            lastVacatedCell = -1;
+            generation++;
+        } catch (BufferUnderflowException e) {
+            reset();
+            throw new IllegalArgumentException("État tronqué", e);
+        } catch (IllegalArgumentException e) {
+            reset();
+            throw e;
+        }
+    }
+
+    /** Vrai si les deux cases sont voisines (un pas horizontal ou vertical). */
+    private boolean areNeighbours(int a, int b) {
+        return Math.abs(a / columnCount - b / columnCount)
+                + Math.abs(a % columnCount - b % columnCount) == 1;
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // Mouvement du serpent
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Avance d'un pas dans la direction demandée.
+     *
+     * @param direction L'une des constantes UP, DOWN, LEFT, RIGHT
+     */
+    public void tick(int direction) {
+        move(DELTA_ROW[direction], DELTA_COL[direction], direction);
+    }
+
+    /**
+     * Déplace le serpent selon deltaRow/deltaCol, en tenant compte de la direction :
+     * - Ignore le demi-tour si le serpent a plus d'un segment.
+     * - Pousse la nouvelle tête et retire la queue (gardée si le serpent mange la pomme).
+     * - Vérifie les collisions (corps, pomme).
+     * Aucune allocation : le corps est un tampon circulaire.
+     *
+     * @param deltaRow -1, +1 ou 0 (pas de mouvement sur les lignes)
+     * @param deltaCol -1, +1 ou 0 (pas de mouvement sur les colonnes)
+     * @param newDirection L'une des constantes UP, DOWN, LEFT, RIGHT
+     */
+    public void move(int deltaRow, int deltaCol, int newDirection) {
+        lastVacatedCell = -1;
+
+        // Si le jeu est déjà terminé, on ne fait rien
+        if (isGameOver) return;
+
+        // Vérifier si on veut faire un demi-tour et si le serpent a plus d'un segment
+        if (body.size() > 1 && isReversal(currentDirection, newDirection)) {
+            // On ignore la nouvelle direction => serpent continue tout droit
+            return;
+        }
+
+        // Met à jour la direction
+        currentDirection = newDirection;
+
+        // Calculer la nouvelle position de la tête
+        int head = body.head();
+        int headRow = head / columnCount + deltaRow;
+        int headCol = head % columnCount + deltaCol;
+
+        // Limiter à la grille
+        if (headRow < 0) headRow = 0;
+        if (headRow >= rowCount) headRow = rowCount - 1;
+        if (headCol < 0) headCol = 0;
+        if (headCol >= columnCount) headCol = columnCount - 1;
+
+        int newHead = cellOf(headRow, headCol);
+        boolean eatsApple = newHead == appleCell;
+
+        // Vérifier la collision avec le corps (O(1) via le bitset) : la case de la queue
+        // est libérée pendant ce pas, sauf si le serpent grandit
+        if (occupancy.get(newHead) && (eatsApple || newHead != body.tail())) {
+            // Collision => Game Over
+            isGameOver = true;
+            return;
+        }
+
+        // La queue libère sa case (gardée si le serpent grandit), puis nouvelle tête
+        if (!eatsApple) {
+            int tail = body.popTail();
+            occupancy.clear(tail);
+            freeCells.add(tail);
+            lastVacatedCell = tail;
+        }
+        pushHead(newHead);
+
+        // Vérifier si on mange la pomme
+        if (eatsApple) {
+            // On replace la pomme
+            spawnApple();
+            // Incrémenter le score
+            score++;
+        }
+    }
+
+    /** Ajoute une tête au corps et marque sa case comme occupée. */
+    private void pushHead(int cell) {
+        body.pushHead(cell);
+        occupancy.set(cell);
+        freeCells.remove(cell);
+    }
+
+    /** Vrai si newDirection est l'opposé exact de direction. */
+    public static boolean isReversal(int direction, int newDirection) {
+        return (direction == UP && newDirection == DOWN)
+                || (direction == DOWN && newDirection == UP)
+                || (direction == LEFT && newDirection == RIGHT)
+                || (direction == RIGHT && newDirection == LEFT);
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // Gestion de la pomme
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Sélectionne une nouvelle position libre pour la pomme, en O(1) dans l'ensemble des cases
+     * libres. Si le serpent occupe toute la grille, il n'y a plus de pomme : la partie est
+     * gagnée (et donc terminée).
+     */
+    private void spawnApple() {
+        if (freeCells.isEmpty()) {
+            // Le serpent occupe toute la grille => plus de place
+            appleCell = NO_APPLE;
+            hasWon = true;
+            isGameOver = true;
+            return;
+        }
+
+        // Choisir au hasard parmi les cases libres
+        appleCell = freeCells.get(random.nextInt(freeCells.size()));
+    }
+
+    /** Vrai si la case est occupée par le serpent (O(1)). */
+    public boolean isOccupied(int cell) {
+        return occupancy.get(cell);
+    }
+
+    /** Code une case (row, col) en un seul entier. */
+    public int cellOf(int row, int col) {
+        return row * columnCount + col;
+    }
+
+    /**
+     * Empreinte 64 bits de tout l'état du jeu : grille, corps (dans l'ordre), pomme, score,
+     * direction, fin de partie et état du générateur aléatoire. Deux parties ont la même
+     * empreinte si et seulement si (aux collisions près) elles se poursuivront à l'identique.
+     * Coût O(longueur du serpent).
+     */
+    public long stateHash() {
+        long h = SnakeRandom.mix(rowCount);
+        h = SnakeRandom.mix(h ^ columnCount);
+        int length = body.size();
+        h = SnakeRandom.mix(h ^ length);
+        for (int i = 0; i < length; i++) {
+            h = SnakeRandom.mix(h ^ body.get(i));
+        }
+        h = SnakeRandom.mix(h ^ appleCell);
+        h = SnakeRandom.mix(h ^ score);
+        h = SnakeRandom.mix(h ^ currentDirection);
+        h = SnakeRandom.mix(h ^ ((isGameOver ? 1 : 0) | (hasWon ? 2 : 0)));
+        return SnakeRandom.mix(h ^ random.getState());
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // Getters
+    //----------------------------------------------------------------------------------------------
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    public int getColumnCount() {
+        return columnCount;
+    }
+
+    /** Nombre de segments du serpent (tête comprise). */
+    public int getLength() {
+        return body.size();
+    }
+
+    /** Case codée de la tête. */
+    public int getHeadCell() {
+        return body.head();
+    }
+
+    /**
+     * Case libérée par la queue lors du dernier appel à move/tick, ou -1 si le serpent
+     * n'a pas bougé, a grandi, ou si la partie vient de se terminer.
+     * Sert aux rendus incrémentaux (seules quelques cases changent à chaque pas).
+     */
+    public int getLastVacatedCell() {
+        return lastVacatedCell;
+    }
+
+    /**
+     * Change à chaque fois que la partie est remplacée (reset, loadSnake, readState), jamais
+     * pendant tick. Permet à un observateur de distinguer une nouvelle partie d'un pas.
+     */
+    public int getGeneration() {
+        return generation;
+    }
+
+    /** Case codée du segment i (0 => tête). */
+    public int getSegmentCell(int i) {
+        return body.get(i);
+    }
+
+    /** Ligne du segment i (0 => tête). */
+    public int getSegmentRow(int i) {
+        return body.get(i) / columnCount;
+    }
+
+    /** Colonne du segment i (0 => tête). */
+    public int getSegmentCol(int i) {
+        return body.get(i) % columnCount;
+    }
+
+    /** Case codée de la pomme (NO_APPLE si la grille est pleine). */
+    public int getAppleCell() {
+        return appleCell;
+    }
+
+    public int getAppleRow() {
+        return appleCell / columnCount;
+    }
+
+    public int getAppleCol() {
+        return appleCell % columnCount;
+    }
+
+    /** Retourne le score actuel. */
+    public int getScore() {
+        return score;
+    }
+
+    /** Vrai si la partie est terminée. */
+    public boolean isGameOver() {
+        return isGameOver;
+    }
+
+    /** Vrai si la partie s'est terminée parce que le serpent remplit toute la grille. */
+    public boolean hasWon() {
+        return hasWon;
+    }
+
+    /** Direction actuelle du serpent (UP, DOWN, LEFT, RIGHT). */
+    public int getDirection() {
+        return currentDirection;
+    }
+
+    /** Déplacement en lignes associé à une direction. */
+    public static int deltaRow(int direction) {
+        return DELTA_ROW[direction];
+    }
+
+    /** Déplacement en colonnes associé à une direction. */
+    public static int deltaCol(int direction) {
+        return DELTA_COL[direction];
+    }
+}
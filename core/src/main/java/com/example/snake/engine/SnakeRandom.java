@@ -0,0 +1,71 @@
+package com.example.snake.engine;
+
+/**
+ * Générateur pseudo-aléatoire minimal (SplitMix64) utilisé par le moteur :
+ *  - Entièrement déterminé par sa graine (mêmes tirages sur toutes les plateformes).
+ *  - Aucune allocation par tirage.
+ */
+public final class SnakeRandom {
+
+    /** Incrément de la suite de Weyl (nombre d'or * 2^64). */
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    /** État interne (64 bits). */
+    private long state;
+
+    public SnakeRandom(long seed) {
+        setSeed(seed);
+    }
+
+    /** Réinitialise le générateur avec une nouvelle graine. */
+    public void setSeed(long seed) {
+        state = seed;
+    }
+
+    /**
+     * État interne courant : setSeed(getState()) reprend la suite exactement à ce point.
+     */
+    public long getState() {
+        return state;
+    }
+
+    /** Retourne 64 bits pseudo-aléatoires. */
+    public long nextLong() {
+        return mix(state += GOLDEN_GAMMA);
+    }
+
+    /**
+     * Mélange 64 bits de SplitMix64 : des entrées voisines (0, 1, 2...) donnent des sorties
+     * sans corrélation apparente. Sert aussi à dériver des graines indépendantes.
+     */
+    public static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Retourne un entier uniforme dans [0, bound).
+     * Même principe que java.util.Random#nextInt(int) : rejet des tirages biaisés.
+     */
+    public int nextInt(int bound) {
+        if (bound <= 0) {
+            throw new IllegalArgumentException("bound doit être > 0 : " + bound);
+        }
+        int r = next31();
+        int m = bound - 1;
+        if ((bound & m) == 0) {
+            // Puissance de deux : on garde les bits de poids fort
+            return (int) ((bound * (long) r) >> 31);
+        }
+        for (int u = r; u - (r = u % bound) + m < 0; u = next31()) {
+            // Tirage rejeté (zone biaisée), on recommence
+        }
+        return r;
+    }
+
+    /** 31 bits positifs pris dans les bits de poids fort. */
+    private int next31() {
+        return (int) (nextLong() >>> 33);
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.snake.input;
+
+/**
+ * Source de commandes du joueur (accéléromètre, glissement sur l'écran, D-pad / clavier...).
+ * Une source démarrée transforme ses événements en virages ajoutés dans la TurnQueue.
+ */
+public interface InputSource {
+
+    /** Commence à alimenter la file de virages. */
+    void start(TurnQueue turns);
+
+    /** Arrête la source (plus aucun virage ne doit être ajouté ensuite). */
+    void stop();
+}
@@ -0,0 +1,121 @@
+package com.example.snake.input;
+
+import com.example.snake.engine.SnakeEngine;
+
+/**
+ * Transforme les valeurs brutes de l'accéléromètre (x, y) en direction, en filtrant le bruit :
+ *  - Filtre passe-bas (lissage exponentiel) pour absorber les tremblements.
+ *  - Seuil d'activation : en dessous, on considère le téléphone à plat (pas de commande).
+ *  - Hystérésis : pour quitter la direction courante, la nouvelle inclinaison doit dépasser
+ *    le seuil ET dominer l'axe courant d'une marge, ce qui évite les virages parasites.
+ *  - Commande sur front : update() ne donne une direction que quand la direction retenue
+ *    change. Une inclinaison maintenue ne repropose donc rien, et ne vient pas écraser les
+ *    virages donnés entre-temps par les autres sources (glissement, clavier).
+ * Correspondance (identique à l'ancien MainActivity) : y < 0 => UP, y > 0 => DOWN,
+ * x < 0 => LEFT, x > 0 => RIGHT, l'axe dominant l'emporte.
+ */
+public final class TiltFilter {
+
+    /** Coefficient du filtre passe-bas, dans ]0, 1] (1 => pas de lissage). */
+    private final float smoothing;
+    /** Inclinaison minimale (m/s²) pour donner une direction. */
+    private final float threshold;
+    /** Marge (m/s²) nécessaire pour changer de direction. */
+    private final float hysteresis;
+
+    /** Valeurs filtrées. */
+    private float filteredX;
+    private float filteredY;
+    private boolean primed;
+
+    /** Direction retenue (NO_DIRECTION quand le téléphone est à plat). */
+    private int direction = TurnQueue.NO_DIRECTION;
+
+    /**
+     * @param smoothing  coefficient du passe-bas dans ]0, 1]
+     * @param threshold  seuil d'activation (>= 0)
+     * @param hysteresis marge de changement de direction (>= 0)
+     */
+    public TiltFilter(float smoothing, float threshold, float hysteresis) {
+        if (!(smoothing > 0f && smoothing <= 1f) || threshold < 0f || hysteresis < 0f) {
+            throw new IllegalArgumentException("Paramètres de filtre invalides");
+        }
+        this.smoothing = smoothing;
+        this.threshold = threshold;
+        this.hysteresis = hysteresis;
+    }
+
+    /** Oublie l'historique (par ex. après une pause). */
+    public void reset() {
+        primed = false;
+        direction = TurnQueue.NO_DIRECTION;
+    }
+
+    /**
+     * Ajoute un échantillon.
+     *
+     * @return la nouvelle direction si la direction retenue vient de changer (commande à
+     *         proposer à la file), sinon NO_DIRECTION
+     */
+    public int update(float x, float y) {
+        if (primed) {
+            filteredX += smoothing * (x - filteredX);
+            filteredY += smoothing * (y - filteredY);
+        } else {
+            filteredX = x;
+            filteredY = y;
+            primed = true;
+        }
+
+        int candidate = classify(filteredX, filteredY);
+        if (candidate == TurnQueue.NO_DIRECTION) {
+            // Téléphone à plat : plus de direction, pencher à nouveau redonne une commande
+            direction = TurnQueue.NO_DIRECTION;
+            return TurnQueue.NO_DIRECTION;
+        }
+        if (candidate == direction) {
+            return TurnQueue.NO_DIRECTION;
+        }
+        if (direction == TurnQueue.NO_DIRECTION) {
+            direction = candidate;
+            return direction;
+        }
+
+        // Changement de direction : il faut dépasser le seuil et l'axe courant d'une marge
+        float candidateTilt = tilt(candidate);
+        if (candidateTilt >= threshold + hysteresis
+                && candidateTilt >= tilt(direction) + hysteresis) {
+            direction = candidate;
+            return direction;
+        }
+        return TurnQueue.NO_DIRECTION;
+    }
+
+    /** Direction retenue actuellement (NO_DIRECTION si le téléphone est à plat). */
+    public int direction() {
+        return direction;
+    }
+
+    /** Direction correspondant à l'axe dominant, si l'inclinaison dépasse le seuil. */
+    private int classify(float x, float y) {
+        if (Math.abs(y) > Math.abs(x)) {
+            if (y < -threshold) return SnakeEngine.UP;
+            if (y > threshold) return SnakeEngine.DOWN;
+        } else {
+            if (x < -threshold) return SnakeEngine.LEFT;
+            if (x > threshold) return SnakeEngine.RIGHT;
+        }
+        return TurnQueue.NO_DIRECTION;
+    }
+
+    /** Inclinaison filtrée dans le sens d'une direction (positive si on penche vers elle). */
+    private float tilt(int dir) {
+        switch (dir) {
+            case SnakeEngine.UP:    return -filteredY;
+            case SnakeEngine.DOWN:  return filteredY;
+            case SnakeEngine.LEFT:  return -filteredX;
+            case SnakeEngine.RIGHT: return filteredX;
+            default:                return 0f;
+        }
+    }
+}
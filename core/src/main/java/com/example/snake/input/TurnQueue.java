@@ -0,0 +1,125 @@
+package com.example.snake.input;
+
+import com.example.snake.engine.SnakeEngine;
+
+/**
+ * File bornée des virages demandés, consommée à raison d'un virage par pas de jeu :
+ *  - Plusieurs sources peuvent y écrire (capteurs, écran tactile, clavier) : les accès sont
+ *    synchronisés, ce qui est négligeable à quelques commandes par seconde.
+ *  - Un virage identique au dernier virage en attente, ou son demi-tour, est refusé dès
+ *    l'ajout : un enchaînement rapide "haut puis droite" est ainsi conservé en entier.
+ *  - Au moment de la consommation, les virages devenus invalides par rapport à la direction
+ *    réelle du serpent (même direction, demi-tour interdit) sont sautés.
+ *  - Chaque virage peut porter l'horodatage de l'événement qui l'a produit (en ns), pour
+ *    mesurer la latence jusqu'à l'écran ; il est relu après poll() via lastPolledTimestamp().
+ * Tableaux circulaires préalloués : aucune allocation.
+ */
+public final class TurnQueue {
+
+    /** Valeur retournée quand aucun virage n'est en attente. */
+    public static final int NO_DIRECTION = -1;
+
+    /** Capacité par défaut : assez pour deux virages rapides et une correction. */
+    public static final int DEFAULT_CAPACITY = 3;
+
+    /** Horodatage inconnu. */
+    public static final long NO_TIMESTAMP = 0L;
+
+    private final int[] turns;
+    /** Horodatage de chaque virage (même index que turns). */
+    private final long[] timestamps;
+    /** Horodatage du dernier virage retourné par poll(). */
+    private long polledTimestamp = NO_TIMESTAMP;
+    /** Index du prochain virage à consommer. */
+    private int head;
+    /** Nombre de virages en attente. */
+    private int count;
+
+    public TurnQueue() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public TurnQueue(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity doit être > 0 : " + capacity);
+        }
+        turns = new int[capacity];
+        timestamps = new long[capacity];
+    }
+
+    /**
+     * Ajoute un virage (UP, DOWN, LEFT, RIGHT) sans horodatage.
+     *
+     * @return false si le virage est refusé (voir offer(int, long))
+     */
+    public boolean offer(int direction) {
+        return offer(direction, NO_TIMESTAMP);
+    }
+
+    /**
+     * Ajoute un virage (UP, DOWN, LEFT, RIGHT).
+     *
+     * @param timestampNanos instant de l'événement d'origine (base SystemClock
+     *                       elapsedRealtimeNanos côté Android), ou NO_TIMESTAMP
+     * @return false si le virage est refusé (file pleine, doublon ou demi-tour du dernier
+     *         virage en attente)
+     */
+    public synchronized boolean offer(int direction, long timestampNanos) {
+        if (count > 0) {
+            int last = turns[(head + count - 1) % turns.length];
+            if (direction == last || SnakeEngine.isReversal(last, direction)) {
+                return false;
+            }
+        }
+        if (count == turns.length) {
+            return false;
+        }
+        int slot = (head + count) % turns.length;
+        turns[slot] = direction;
+        timestamps[slot] = timestampNanos;
+        count++;
+        return true;
+    }
+
+    /**
+     * Retire le prochain virage applicable.
+     *
+     * @param currentDirection direction actuelle du serpent
+     * @param canReverse       vrai si le demi-tour est permis (serpent d'un seul segment)
+     * @return la direction à appliquer, ou NO_DIRECTION si aucun virage n'est en attente
+     */
+    public synchronized int poll(int currentDirection, boolean canReverse) {
+        while (count > 0) {
+            int direction = turns[head];
+            polledTimestamp = timestamps[head];
+            head = (head + 1) % turns.length;
+            count--;
+            boolean reversal = SnakeEngine.isReversal(currentDirection, direction);
+            if (direction != currentDirection && (canReverse || !reversal)) {
+                return direction;
+            }
+            // Virage devenu sans effet ou interdit : on passe au suivant
+        }
+        polledTimestamp = NO_TIMESTAMP;
+        return NO_DIRECTION;
+    }
+
+    /**
+     * Horodatage du virage retourné par le dernier poll() (NO_TIMESTAMP si aucun virage ou
+     * s'il n'était pas horodaté). À lire depuis le thread consommateur.
+     */
+    public synchronized long lastPolledTimestamp() {
+        return polledTimestamp;
+    }
+
+    /** Vide la file (par ex. au restart). */
+    public synchronized void clear() {
+        head = 0;
+        count = 0;
+    }
+
+    /** Nombre de virages en attente. */
+    public synchronized int size() {
+        return count;
+    }
+}
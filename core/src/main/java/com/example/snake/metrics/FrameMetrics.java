@@ -0,0 +1,295 @@
+package com.example.snake.metrics;
+
+/**
+ * Mesures de rendu image par image, découpées en phases :
+ *  - Durée de chaque phase (ns), cumulée et maximale.
+ *  - Durée totale des frames dans un LatencyHistogram (p50/p95/p99).
+ *  - Frames hors budget : leur rendu a dépassé la durée d'un rafraîchissement de l'écran,
+ *    elles ont donc manqué leur vsync. Les phases d'attente (setWaitPhase, par exemple
+ *    l'attente d'un tampon de la Surface) n'en font pas partie : une frame qui ne dépasse
+ *    qu'à cause d'elles est comptée à part (frames retenues), ce n'est pas un rendu lent.
+ *  - Allocations par frame, si le runtime sait les compter (voir AllocationCounter).
+ *
+ * Utilisation, depuis le thread de rendu : beginFrame(), puis endPhase(phase) à la fin de
+ * chaque phase, puis endFrame(). Désactivées, ces méthodes reviennent immédiatement, sans
+ * lire l'horloge. Aucune allocation pendant la mesure.
+ * Pas de synchronisation interne : un seul thread écrit, les lectures depuis un autre thread
+ * passent par snapshot() sous un verrou commun.
+ */
+public final class FrameMetrics {
+
+    /**
+     * Compteur d'allocations du thread courant (cumulé depuis une origine quelconque).
+     */
+    public interface AllocationCounter {
+        long count();
+    }
+
+    /** Budget par défaut d'une frame : un rafraîchissement à 60 Hz. */
+    public static final long DEFAULT_FRAME_BUDGET_NANOS = 1_000_000_000L / 60;
+
+    private final String[] phaseNames;
+    /** Phases d'attente, exclues du rendu pour le budget (voir setWaitPhase). */
+    private final boolean[] waitPhases;
+    private final AllocationCounter allocationCounter;
+    private long frameBudgetNanos;
+    private boolean enabled;
+
+    // Frame en cours
+    private boolean inFrame;
+    private long frameStart;
+    private long lastMark;
+    private long frameWaitNanos;
+    private long allocationsAtStart;
+
+    // Cumuls
+    private final long[] phaseTotalNanos;
+    private final long[] phaseMaxNanos;
+    private final LatencyHistogram frameNanos = new LatencyHistogram();
+    private long droppedFrames;
+    private long waitedFrames;
+    private long totalAllocations;
+    private long maxAllocationsPerFrame;
+
+    /**
+     * @param phaseNames        nom de chaque phase (l'index sert d'identifiant de phase)
+     * @param frameBudgetNanos  durée d'un rafraîchissement de l'écran (> 0)
+     * @param allocationCounter compteur d'allocations, ou null si le runtime n'en fournit pas
+     */
+    public FrameMetrics(String[] phaseNames, long frameBudgetNanos,
+                        AllocationCounter allocationCounter) {
+        if (phaseNames.length == 0) {
+            throw new IllegalArgumentException("Aucune phase");
+        }
+        this.phaseNames = phaseNames.clone();
+        this.waitPhases = new boolean[phaseNames.length];
+        this.allocationCounter = allocationCounter;
+        this.phaseTotalNanos = new long[phaseNames.length];
+        this.phaseMaxNanos = new long[phaseNames.length];
+        setFrameBudgetNanos(frameBudgetNanos);
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // Configuration
+    //----------------------------------------------------------------------------------------------
+
+    /** Active ou désactive la mesure (une frame en cours est abandonnée). */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+        inFrame = false;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** Durée d'un rafraîchissement de l'écran, au-delà de laquelle une frame est hors budget. */
+    public void setFrameBudgetNanos(long frameBudgetNanos) {
+        if (frameBudgetNanos <= 0) {
+            throw new IllegalArgumentException("Budget invalide : " + frameBudgetNanos);
+        }
+        this.frameBudgetNanos = frameBudgetNanos;
+    }
+
+    public long getFrameBudgetNanos() {
+        return frameBudgetNanos;
+    }
+
+    /**
+     * Fait de la phase une phase d'attente (tampon de la Surface, vsync) : sa durée reste
+     * mesurée, mais n'est pas comptée dans le rendu comparé au budget.
+     */
+    public void setWaitPhase(int phase) {
+        waitPhases[phase] = true;
+    }
+
+    public int getPhaseCount() {
+        return phaseNames.length;
+    }
+
+    public String getPhaseName(int phase) {
+        return phaseNames[phase];
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // Mesure
+    //----------------------------------------------------------------------------------------------
+
+    public void beginFrame() {
+        if (enabled) {
+            beginFrame(System.nanoTime());
+        }
+    }
+
+    public void endPhase(int phase) {
+        if (enabled && inFrame) {
+            endPhase(phase, System.nanoTime());
+        }
+    }
+
+    public void endFrame() {
+        if (enabled && inFrame) {
+            endFrame(System.nanoTime());
+        }
+    }
+
+    /** Début d'une frame à l'instant now (ns). */
+    public void beginFrame(long now) {
+        if (!enabled) {
+            return;
+        }
+        inFrame = true;
+        frameStart = now;
+        lastMark = now;
+        frameWaitNanos = 0;
+        if (allocationCounter != null) {
+            allocationsAtStart = allocationCounter.count();
+        }
+    }
+
+    /** Fin de la phase donnée : le temps écoulé depuis la marque précédente lui est attribué. */
+    public void endPhase(int phase, long now) {
+        if (!enabled || !inFrame) {
+            return;
+        }
+        long elapsed = now - lastMark;
+        lastMark = now;
+        phaseTotalNanos[phase] += elapsed;
+        if (elapsed > phaseMaxNanos[phase]) {
+            phaseMaxNanos[phase] = elapsed;
+        }
+        if (waitPhases[phase]) {
+            frameWaitNanos += elapsed;
+        }
+    }
+
+    /** Fin de la frame. */
+    public void endFrame(long now) {
+        if (!enabled || !inFrame) {
+            return;
+        }
+        inFrame = false;
+        long duration = now - frameStart;
+        frameNanos.record(duration);
+        if (duration - frameWaitNanos > frameBudgetNanos) {
+            droppedFrames++;
+        } else if (duration > frameBudgetNanos) {
+            // Rendu dans le budget, frame retenue par l'attente
+            waitedFrames++;
+        }
+        if (allocationCounter != null) {
+            long allocations = allocationCounter.count() - allocationsAtStart;
+            totalAllocations += allocations;
+            if (allocations > maxAllocationsPerFrame) {
+                maxAllocationsPerFrame = allocations;
+            }
+        }
+    }
+
+    /** Efface les cumuls. */
+    public void reset() {
+        inFrame = false;
+        for (int i = 0; i < phaseNames.length; i++) {
+            phaseTotalNanos[i] = 0;
+            phaseMaxNanos[i] = 0;
+        }
+        frameNanos.reset();
+        droppedFrames = 0;
+        waitedFrames = 0;
+        totalAllocations = 0;
+        maxAllocationsPerFrame = 0;
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // Lecture
+    //----------------------------------------------------------------------------------------------
+
+    /** Crée un instantané vide, dimensionné pour ces mesures (à réutiliser). */
+    public Snapshot newSnapshot() {
+        return new Snapshot(phaseNames.length);
+    }
+
+    /** Copie l'état courant dans out (sans allocation). */
+    public void snapshot(Snapshot out) {
+        if (out.phaseTotalNanos.length != phaseNames.length) {
+            throw new IllegalArgumentException("Instantané de " + out.phaseTotalNanos.length
+                    + " phases, attendu " + phaseNames.length);
+        }
+        out.frameCount = frameNanos.getCount();
+        out.droppedFrames = droppedFrames;
+        out.waitedFrames = waitedFrames;
+        out.frameBudgetNanos = frameBudgetNanos;
+        out.p50FrameNanos = frameNanos.valueAtPercentile(50);
+        out.p95FrameNanos = frameNanos.valueAtPercentile(95);
+        out.p99FrameNanos = frameNanos.valueAtPercentile(99);
+        out.maxFrameNanos = frameNanos.getMax();
+        System.arraycopy(phaseTotalNanos, 0, out.phaseTotalNanos, 0, phaseNames.length);
+        System.arraycopy(phaseMaxNanos, 0, out.phaseMaxNanos, 0, phaseNames.length);
+        out.allocationsAvailable = allocationCounter != null;
+        out.totalAllocations = totalAllocations;
+        out.maxAllocationsPerFrame = maxAllocationsPerFrame;
+    }
+
+    /**
+     * Écrit un résumé lisible : percentiles des frames, frames hors budget et retenues par
+     * l'attente, puis durée moyenne de chaque phase (ms) et allocations par frame.
+     */
+    public void dump(StringBuilder out) {
+        out.append("frames ");
+        frameNanos.dump(out);
+        out.append(" hors budget=").append(droppedFrames)
+                .append(" attente=").append(waitedFrames);
+        long frames = frameNanos.getCount();
+        for (int i = 0; i < phaseNames.length; i++) {
+            out.append(i == 0 ? "\nphases " : " ").append(phaseNames[i]).append('=');
+            appendMicros(out, frames == 0 ? 0 : phaseTotalNanos[i] / frames);
+        }
+        if (allocationCounter != null) {
+            out.append("\nallocations/frame moy=")
+                    .append(frames == 0 ? 0 : totalAllocations / frames)
+                    .append(" max=").append(maxAllocationsPerFrame);
+        }
+    }
+
+    /** Ajoute une durée en µs (sans passer par String.format). */
+    private static void appendMicros(StringBuilder out, long nanos) {
+        out.append((nanos + 500) / 1_000).append("us");
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // Instantané
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Copie figée des mesures, lisible sans verrou par les tests et benchmarks.
+     * Les durées sont en nanosecondes, indexées par phase pour les tableaux.
+     */
+    public static final class Snapshot {
+        public long frameCount;
+        /** Frames dont le rendu (hors phases d'attente) a dépassé le budget. */
+        public long droppedFrames;
+        /** Frames dans le budget pour le rendu, mais au-delà à cause des phases d'attente. */
+        public long waitedFrames;
+        public long frameBudgetNanos;
+        public long p50FrameNanos;
+        public long p95FrameNanos;
+        public long p99FrameNanos;
+        public long maxFrameNanos;
+        public final long[] phaseTotalNanos;
+        public final long[] phaseMaxNanos;
+        /** Faux si le runtime ne compte pas les allocations (les deux champs suivants valent 0). */
+        public boolean allocationsAvailable;
+        public long totalAllocations;
+        public long maxAllocationsPerFrame;
+
+        Snapshot(int phaseCount) {
+            phaseTotalNanos = new long[phaseCount];
+            phaseMaxNanos = new long[phaseCount];
+        }
+
+        /** Durée moyenne de la phase par frame (ns), 0 si aucune frame. */
+        public long meanPhaseNanos(int phase) {
+            return frameCount == 0 ? 0 : phaseTotalNanos[phase] / frameCount;
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.snake.metrics;
+
+import java.util.Arrays;
+
+/**
+ * Histogramme de latences à précision relative constante (principe HdrHistogram) :
+ *  - Valeurs entières positives (nanosecondes en pratique), de 0 à Long.MAX_VALUE.
+ *  - Les 128 premières valeurs sont exactes ; au-delà, chaque puissance de deux est découpée
+ *    en 64 sous-intervalles, soit une erreur relative inférieure à 1,6 %.
+ *  - record() ne fait qu'incrémenter un compteur dans un tableau préalloué : aucune allocation,
+ *    la mesure ne perturbe donc pas ce qu'elle mesure.
+ * Pas de synchronisation interne : un seul thread écrit, les lectures depuis un autre thread
+ * passent par copyInto() sous un verrou commun.
+ */
+public final class LatencyHistogram {
+
+    /** Nombre de sous-intervalles par puissance de deux. */
+    private static final int SUB_BUCKETS = 64;
+    /** log2(SUB_BUCKETS). */
+    private static final int SUB_BITS = 6;
+    /** Nombre total de cases (valeurs exactes + 57 puissances de deux x 64). */
+    private static final int BUCKET_COUNT = SUB_BUCKETS * 58;
+
+    private final long[] counts = new long[BUCKET_COUNT];
+    private long totalCount;
+    private long sum;
+    private long min = Long.MAX_VALUE;
+    private long max;
+
+    /** Enregistre une valeur (les valeurs négatives comptent pour 0). */
+    public void record(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+        counts[indexOf(value)]++;
+        totalCount++;
+        sum += value;
+        if (value < min) min = value;
+        if (value > max) max = value;
+    }
+
+    /** Vide l'histogramme. */
+    public void reset() {
+        Arrays.fill(counts, 0L);
+        totalCount = 0;
+        sum = 0;
+        min = Long.MAX_VALUE;
+        max = 0;
+    }
+
+    /** Copie tout le contenu dans target (sans allocation). */
+    public void copyInto(LatencyHistogram target) {
+        System.arraycopy(counts, 0, target.counts, 0, BUCKET_COUNT);
+        target.totalCount = totalCount;
+        target.sum = sum;
+        target.min = min;
+        target.max = max;
+    }
+
+    /** Ajoute le contenu de other à cet histogramme. */
+    public void add(LatencyHistogram other) {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] += other.counts[i];
+        }
+        totalCount += other.totalCount;
+        sum += other.sum;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    public long getCount() {
+        return totalCount;
+    }
+
+    /** Plus petite valeur enregistrée (0 si vide). */
+    public long getMin() {
+        return totalCount == 0 ? 0 : min;
+    }
+
+    public long getMax() {
+        return max;
+    }
+
+    public double getMean() {
+        return totalCount == 0 ? 0 : (double) sum / totalCount;
+    }
+
+    /**
+     * Valeur sous laquelle se trouvent percentile % des mesures (borne haute de la case,
+     * plafonnée au maximum observé), ou 0 si l'histogramme est vide.
+     *
+     * @param percentile entre 0 et 100
+     */
+    public long valueAtPercentile(double percentile) {
+        if (totalCount == 0) {
+            return 0;
+        }
+        double clamped = Math.min(100.0, Math.max(0.0, percentile));
+        long rank = Math.max(1, (long) Math.ceil(clamped / 100.0 * totalCount));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(highestValueAt(i), max);
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Écrit un résumé lisible (nombre, min, moyenne, p50/p95/p99, max) en millisecondes,
+     * en supposant des valeurs en nanosecondes.
+     */
+    public void dump(StringBuilder out) {
+        out.append("n=").append(totalCount);
+        appendMillis(out, " min=", getMin());
+        appendMillis(out, " moy=", (long) getMean());
+        appendMillis(out, " p50=", valueAtPercentile(50));
+        appendMillis(out, " p95=", valueAtPercentile(95));
+        appendMillis(out, " p99=", valueAtPercentile(99));
+        appendMillis(out, " max=", max);
+    }
+
+    /** Ajoute label + valeur en ms avec deux décimales (sans passer par String.format). */
+    private static void appendMillis(StringBuilder out, String label, long nanos) {
+        long hundredths = (nanos + 5_000) / 10_000;
+        out.append(label).append(hundredths / 100).append('.');
+        long fraction = hundredths % 100;
+        if (fraction < 10) {
+            out.append('0');
+        }
+        out.append(fraction).append("ms");
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // Indexation log-linéaire
+    //----------------------------------------------------------------------------------------------
+
+    static int indexOf(long value) {
+        if (value < 2 * SUB_BUCKETS) {
+            return (int) value;
+        }
+        // shift tel que value >>> shift soit dans [64, 127]
+        int shift = (63 - Long.numberOfLeadingZeros(value)) - SUB_BITS;
+        return SUB_BUCKETS * (shift + 1) + (int) (value >>> shift) - SUB_BUCKETS;
+    }
+
+    static long highestValueAt(int index) {
+        if (index < 2 * SUB_BUCKETS) {
+            return index;
+        }
+        int shift = index / SUB_BUCKETS - 1;
+        long sub = index % SUB_BUCKETS + SUB_BUCKETS;
+        long next = (sub + 1) << shift;
+        // Dernière case : évite le dépassement de capacité
+        return next <= 0 ? Long.MAX_VALUE : next - 1;
+    }
+}
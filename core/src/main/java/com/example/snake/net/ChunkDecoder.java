@@ -0,0 +1,66 @@
+package com.example.snake.net;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Découpe les octets reçus du serveur en blocs (voir NetProtocol), quel que soit leur
+ * découpage en paquets TCP. Un bloc incomplet est gardé dans un tampon préalloué jusqu'à
+ * l'arrivée de la suite : aucune allocation.
+ */
+public final class ChunkDecoder {
+
+    /** Reçoit chaque bloc complet. */
+    public interface Listener {
+        /**
+         * @param payload données du bloc, entre position et limite ; valables seulement
+         *                pendant l'appel
+         */
+        void onChunk(int slot, ByteBuffer payload) throws IOException;
+    }
+
+    private final ByteBuffer pending;
+
+    /** Accepte tous les blocs du protocole (jusqu'à NetProtocol.MAX_CHUNK octets). */
+    public ChunkDecoder() {
+        this(NetProtocol.MAX_CHUNK);
+    }
+
+    /**
+     * @param maxChunk taille maximale des données d'un bloc : un bloc plus grand est une erreur
+     *                 (de quoi tenir des milliers de décodeurs en mémoire pour les petites grilles)
+     */
+    public ChunkDecoder(int maxChunk) {
+        pending = ByteBuffer.allocate(NetProtocol.CHUNK_HEADER
+                + Math.min(maxChunk, NetProtocol.MAX_CHUNK));
+    }
+
+    /** Consomme tous les octets restants de in et signale les blocs complets. */
+    public void feed(ByteBuffer in, Listener listener) throws IOException {
+        while (in.hasRemaining()) {
+            int count = Math.min(in.remaining(), pending.remaining());
+            int limit = in.limit();
+            in.limit(in.position() + count);
+            pending.put(in);
+            in.limit(limit);
+
+            pending.flip();
+            while (pending.remaining() >= NetProtocol.CHUNK_HEADER) {
+                int start = pending.position();
+                int length = (pending.get(start + 1) & 0xFF) << 8 | (pending.get(start + 2) & 0xFF);
+                if (pending.remaining() < NetProtocol.CHUNK_HEADER + length) {
+                    if (NetProtocol.CHUNK_HEADER + length > pending.capacity()) {
+                        throw new IOException("Bloc trop grand : " + length + " octets");
+                    }
+                    break;
+                }
+                int end = start + NetProtocol.CHUNK_HEADER + length;
+                int available = pending.limit();
+                pending.position(start + NetProtocol.CHUNK_HEADER).limit(end);
+                listener.onChunk(pending.get(start) & 0xFF, pending);
+                pending.limit(available).position(end);
+            }
+            pending.compact();
+        }
+    }
+}
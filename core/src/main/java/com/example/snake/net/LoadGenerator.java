@@ -0,0 +1,252 @@
+package com.example.snake.net;
+
+import com.example.snake.engine.SnakeRandom;
+import com.example.snake.metrics.LatencyHistogram;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Générateur de charge pour TickServer : ouvre des milliers de connexions depuis un seul
+ * thread (Selector NIO), envoie à chaque client un virage aléatoire à intervalle régulier
+ * et découpe ce qu'il reçoit en blocs (ChunkDecoder), en comptant octets et blocs.
+ * L'intervalle entre deux réceptions consécutives d'un même client est mesuré : le serveur
+ * envoie tout un pas d'un coup, la queue de cette distribution montre donc la gigue des pas
+ * vue par les clients.
+ *
+ * Exemple (serveur et clients dans le même processus, sur la boucle locale) :
+ * ./gradlew :core:loadTest -Pargs="loopback 2000 30"
+ */
+public final class LoadGenerator {
+
+    /** Résultats d'une séance. */
+    public static final class Result {
+        public int connected;
+        public int welcomed;
+        public int disconnected;
+        public long turnsSent;
+        public long chunksReceived;
+        public long bytesReceived;
+        /** Intervalle entre deux réceptions d'un même client (ns). */
+        public final LatencyHistogram tickIntervals = new LatencyHistogram();
+
+        /** Résumé lisible. */
+        public void dump(StringBuilder out) {
+            out.append(connected).append(" connexions, ").append(welcomed).append(" accueillies, ")
+                    .append(disconnected).append(" coupées\n  ")
+                    .append(turnsSent).append(" virages envoyés, ")
+                    .append(chunksReceived).append(" blocs reçus, ")
+                    .append(bytesReceived).append(" octets reçus\n  intervalle : ");
+            tickIntervals.dump(out);
+        }
+    }
+
+    /** Grille du mode loopback (et par défaut du serveur). */
+    private static final int GRID_SIZE = 32;
+
+    private final ByteBuffer readBuffer = ByteBuffer.allocateDirect(64 * 1024);
+    private final ByteBuffer turnBuffer = ByteBuffer.allocate(1);
+    private final Consumer<SelectionKey> keyHandler = this::handle;
+    private final Result result = new Result();
+    private final SnakeRandom random;
+    private final long turnIntervalNanos;
+    private final int maxChunk;
+
+    private LoadGenerator(long seed, long turnIntervalNanos, int maxChunk) {
+        this.random = new SnakeRandom(seed);
+        this.turnIntervalNanos = turnIntervalNanos;
+        this.maxChunk = maxChunk;
+    }
+
+    /**
+     * Ouvre clients connexions vers server et les fait jouer pendant durationNanos.
+     *
+     * @param maxChunk          TickServer.maxChunkSize(lignes, colonnes) de la grille du serveur
+     * @param turnIntervalNanos intervalle moyen entre deux virages d'un client
+     */
+    public static Result run(InetSocketAddress server, int clients, int maxChunk,
+                             long durationNanos, long turnIntervalNanos, long seed)
+            throws IOException {
+        return new LoadGenerator(seed, turnIntervalNanos, maxChunk)
+                .play(server, clients, durationNanos);
+    }
+
+    private Result play(InetSocketAddress server, int clients, long durationNanos)
+            throws IOException {
+        Client[] all = new Client[clients];
+        try (Selector selector = Selector.open()) {
+            long start = System.nanoTime();
+            for (int i = 0; i < clients; i++) {
+                SocketChannel channel = SocketChannel.open();
+                channel.configureBlocking(false);
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                Client client = new Client(channel, start + random.nextInt(
+                        (int) Math.max(1, Math.min(Integer.MAX_VALUE, turnIntervalNanos))));
+                all[i] = client;
+                channel.connect(server);
+                client.key = channel.register(selector, SelectionKey.OP_CONNECT, client);
+                // Laisse le serveur accepter au fur et à mesure (file d'attente bornée)
+                selector.selectNow(keyHandler);
+            }
+
+            long end = start + durationNanos;
+            long now;
+            while ((now = System.nanoTime()) - end < 0) {
+                selector.select(keyHandler, 1);
+                now = System.nanoTime();
+                for (Client client : all) {
+                    if (client.open && client.key.isValid()
+                            && (client.key.interestOps() & SelectionKey.OP_READ) != 0
+                            && now - client.nextTurn >= 0) {
+                        sendTurn(client);
+                        client.nextTurn = now + turnIntervalNanos / 2
+                                + random.nextInt((int) Math.max(1, Math.min(Integer.MAX_VALUE,
+                                turnIntervalNanos)));
+                    }
+                }
+            }
+        } finally {
+            for (Client client : all) {
+                if (client != null) {
+                    client.channel.close();
+                }
+            }
+        }
+        return result;
+    }
+
+    private void handle(SelectionKey key) {
+        Client client = (Client) key.attachment();
+        try {
+            if (key.isConnectable()) {
+                if (client.channel.finishConnect()) {
+                    key.interestOps(SelectionKey.OP_READ);
+                    result.connected++;
+                }
+                return;
+            }
+            if (key.isReadable()) {
+                readBuffer.clear();
+                int read = client.channel.read(readBuffer);
+                if (read < 0) {
+                    close(client);
+                    return;
+                }
+                result.bytesReceived += read;
+                long now = System.nanoTime();
+                if (client.lastArrival != 0) {
+                    result.tickIntervals.record(now - client.lastArrival);
+                }
+                client.lastArrival = now;
+                readBuffer.flip();
+                client.decoder.feed(readBuffer, client);
+            }
+        } catch (IOException e) {
+            close(client);
+        }
+    }
+
+    private void sendTurn(Client client) {
+        turnBuffer.clear();
+        turnBuffer.put((byte) random.nextInt(4)).flip();
+        try {
+            if (client.channel.write(turnBuffer) == 1) {
+                result.turnsSent++;
+            }
+        } catch (IOException e) {
+            close(client);
+        }
+    }
+
+    private void close(Client client) {
+        if (!client.open) {
+            return;
+        }
+        client.open = false;
+        result.disconnected++;
+        client.key.cancel();
+        try {
+            client.channel.close();
+        } catch (IOException e) {
+            // Déjà fermée
+        }
+    }
+
+    /** Connexion simulée. */
+    private final class Client implements ChunkDecoder.Listener {
+        final SocketChannel channel;
+        final ChunkDecoder decoder = new ChunkDecoder(maxChunk);
+        SelectionKey key;
+        boolean open = true;
+        long nextTurn;
+        boolean welcomed;
+        long lastArrival;
+
+        Client(SocketChannel channel, long nextTurn) {
+            this.channel = channel;
+            this.nextTurn = nextTurn;
+        }
+
+        @Override
+        public void onChunk(int chunkSlot, ByteBuffer payload) {
+            result.chunksReceived++;
+            if (chunkSlot == NetProtocol.WELCOME && !welcomed) {
+                welcomed = true;
+                result.welcomed++;
+            }
+        }
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // Ligne de commande
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Usage : LoadGenerator (hôte:port | loopback) clients secondes [ms par pas [joueurs]]
+     * En mode loopback, un TickServer est démarré dans le même processus et ses mesures de
+     * latence des pas sont affichées à la fin. Grille de GRID_SIZE x GRID_SIZE, comme le
+     * serveur lancé sans lignes ni colonnes.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 3) {
+            System.err.println("Usage : LoadGenerator (hôte:port | loopback) clients secondes"
+                    + " [ms par pas [joueurs]]");
+            System.exit(2);
+        }
+        int clients = Integer.parseInt(args[1]);
+        long duration = TimeUnit.SECONDS.toNanos(Long.parseLong(args[2]));
+        long tickMillis = args.length > 3 ? Long.parseLong(args[3]) : 50;
+        int players = args.length > 4 ? Integer.parseInt(args[4]) : 2;
+        long turnInterval = TimeUnit.MILLISECONDS.toNanos(4 * tickMillis);
+        int maxChunk = TickServer.maxChunkSize(GRID_SIZE, GRID_SIZE);
+
+        StringBuilder out = new StringBuilder();
+        if (args[0].equals("loopback")) {
+            long tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMillis);
+            try (TickServer server = new TickServer(new InetSocketAddress("127.0.0.1", 0),
+                    GRID_SIZE, GRID_SIZE, players, tickNanos, 1L)) {
+                server.start();
+                Result result = run(server.getAddress(), clients, maxChunk, duration,
+                        turnInterval, 1L);
+                result.dump(out);
+                LatencyHistogram durations = new LatencyHistogram();
+                LatencyHistogram lateness = new LatencyHistogram();
+                server.copyMetrics(durations, lateness);
+                out.append('\n').append(TickServer.report(server, durations, lateness));
+            }
+        } else {
+            int colon = args[0].lastIndexOf(':');
+            InetSocketAddress address = new InetSocketAddress(args[0].substring(0, colon),
+                    Integer.parseInt(args[0].substring(colon + 1)));
+            run(address, clients, maxChunk, duration, turnInterval, 1L).dump(out);
+        }
+        System.out.println(out);
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.snake.net;
+
+/**
+ * Protocole réseau du serveur de parties (TCP) :
+ *
+ * <pre>
+ * client -&gt; serveur : un octet par virage demandé, UP (0), DOWN (1), LEFT (2) ou RIGHT (3) ;
+ *                     tout autre octet ferme la connexion
+ * serveur -&gt; client : suite de blocs : emplacement (1 octet), longueur (2 octets,
+ *                     big-endian), données
+ *   emplacement WELCOME : données = [emplacement du joueur, nombre de joueurs du match]
+ *   emplacement 0..n-1  : morceau du flux d'état (format StateStream) de ce joueur
+ * </pre>
+ *
+ * Mis bout à bout, les morceaux d'un emplacement forment un flux StateStream complet (en-tête,
+ * images clés, un écart par pas) : un client suit ainsi toutes les parties de son match avec
+ * StateStreamReader, quelques octets par joueur et par pas.
+ */
+public final class NetProtocol {
+
+    /** Emplacement du message d'accueil. */
+    public static final int WELCOME = 0xFF;
+
+    /** Taille de l'en-tête d'un bloc (emplacement + longueur). */
+    public static final int CHUNK_HEADER = 3;
+
+    /** Taille maximale des données d'un bloc. */
+    public static final int MAX_CHUNK = 0xFFFF;
+
+    /** Nombre maximal de joueurs par match (emplacements 0 à 254). */
+    public static final int MAX_PLAYERS = 255;
+
+    private NetProtocol() {
+    }
+}
@@ -0,0 +1,570 @@
+package com.example.snake.net;
+
+import com.example.snake.engine.SnakeEngine;
+import com.example.snake.engine.SnakeRandom;
+import com.example.snake.input.TurnQueue;
+import com.example.snake.metrics.LatencyHistogram;
+import com.example.snake.replay.StateStreamWriter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Serveur de parties faisant autorité : les clients n'envoient que leurs virages, le serveur
+ * fait avancer les parties et diffuse leur état (protocole NetProtocol).
+ *  - Un seul thread et un Selector NIO non bloquant pour toutes les connexions.
+ *  - Les connexions sont regroupées par matchs de playersPerMatch joueurs, qui jouent chacun
+ *    leur partie avec la même graine (mêmes pommes) et voient les parties des autres.
+ *  - À chaque pas : un virage au plus par joueur, retiré de sa TurnQueue avec les règles de
+ *    SnakeView (doublons et demi-tours écartés, demi-tour permis à un seul segment), puis
+ *    engine.tick(), puis diffusion de l'écart (StateStream) à tout le match.
+ *  - Quand toutes les parties d'un match sont finies, il recommence avec une nouvelle graine.
+ *  - Un client trop lent (tampon d'envoi plein) est déconnecté plutôt que de retarder le pas.
+ * La durée de chaque pas et son retard sur l'horaire sont mesurés (LatencyHistogram).
+ *
+ * Exemple : ./gradlew :core:tickServer -Pargs="7777 50 2"
+ */
+public final class TickServer implements AutoCloseable {
+
+    /** Tampon d'envoi minimal par connexion : des secondes de jeu. */
+    private static final int MIN_OUTBOUND_BUFFER_SIZE = 16 * 1024;
+
+    private static final int READ_BUFFER_SIZE = 4096;
+
+    private final int rowCount;
+    private final int columnCount;
+    private final int playersPerMatch;
+    private final long tickNanos;
+    private final long baseSeed;
+    /** Plus gros bloc possible : en-tête de flux et image clé d'un serpent remplissant la grille. */
+    private final int maxChunk;
+    /** Tampon d'envoi par connexion : au moins deux images clés de chaque joueur du match. */
+    private final int outboundSize;
+
+    private final ServerSocketChannel serverChannel;
+    private final Selector selector;
+    private final Thread thread;
+    private volatile boolean running = true;
+
+    //----------------------------------------------------------------------------------------------
+    // État du thread serveur
+    //----------------------------------------------------------------------------------------------
+
+    private final Consumer<SelectionKey> keyHandler = this::handle;
+    private final ByteBuffer readBuffer = ByteBuffer.allocateDirect(READ_BUFFER_SIZE);
+    private final List<Match> matches = new ArrayList<>();
+    /** Match en attente de joueurs (null si aucun). */
+    private Match filling;
+    private long matchCount;
+
+    //----------------------------------------------------------------------------------------------
+    // Mesures (lues depuis d'autres threads)
+    //----------------------------------------------------------------------------------------------
+
+    private final Object metricsLock = new Object();
+    private final LatencyHistogram tickDurations = new LatencyHistogram();
+    private final LatencyHistogram tickLateness = new LatencyHistogram();
+    private volatile int sessionCount;
+    private volatile long tickCount;
+
+    /**
+     * @param address         adresse d'écoute (port 0 : port libre choisi par le système)
+     * @param rowCount        lignes de la grille de chaque partie
+     * @param columnCount     colonnes de la grille de chaque partie
+     * @param playersPerMatch joueurs par match (1 : parties solo)
+     * @param tickNanos       durée d'un pas
+     * @param seed            graine de la série (match i : SnakeRandom.mix(seed + i))
+     */
+    public TickServer(InetSocketAddress address, int rowCount, int columnCount,
+                      int playersPerMatch, long tickNanos, long seed) throws IOException {
+        if (rowCount <= 0 || columnCount <= 0
+                || maxChunkSize(rowCount, columnCount) > NetProtocol.MAX_CHUNK) {
+            throw new IllegalArgumentException(
+                    "Grille invalide : " + rowCount + "x" + columnCount);
+        }
+        if (playersPerMatch < 1 || playersPerMatch > NetProtocol.MAX_PLAYERS || tickNanos <= 0) {
+            throw new IllegalArgumentException(
+                    "Paramètres invalides : " + playersPerMatch + " joueurs, pas de " + tickNanos);
+        }
+        this.rowCount = rowCount;
+        this.columnCount = columnCount;
+        this.playersPerMatch = playersPerMatch;
+        this.tickNanos = tickNanos;
+        this.baseSeed = seed;
+        this.maxChunk = maxChunkSize(rowCount, columnCount);
+        this.outboundSize = Math.max(MIN_OUTBOUND_BUFFER_SIZE,
+                2 * playersPerMatch * (NetProtocol.CHUNK_HEADER + maxChunk));
+
+        selector = Selector.open();
+        serverChannel = ServerSocketChannel.open();
+        try {
+            serverChannel.bind(address, 1024);
+            serverChannel.configureBlocking(false);
+            serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        } catch (IOException e) {
+            serverChannel.close();
+            selector.close();
+            throw e;
+        }
+        thread = new Thread(this::loop, "snake-tick-server");
+    }
+
+    /**
+     * Taille maximale d'un bloc de flux d'état pour cette grille (2 bits par case, plus
+     * en-tête et champs de l'image clé), à passer à ChunkDecoder côté client.
+     */
+    public static int maxChunkSize(int rowCount, int columnCount) {
+        return (int) Math.min(Integer.MAX_VALUE, (long) rowCount * columnCount / 4 + 64);
+    }
+
+    /** Démarre le thread du serveur. */
+    public void start() {
+        thread.start();
+    }
+
+    /** Adresse d'écoute effective (port réel si le port demandé était 0). */
+    public InetSocketAddress getAddress() throws IOException {
+        return (InetSocketAddress) serverChannel.getLocalAddress();
+    }
+
+    /** Connexions ouvertes. */
+    public int getSessionCount() {
+        return sessionCount;
+    }
+
+    /** Pas joués depuis le démarrage. */
+    public long getTickCount() {
+        return tickCount;
+    }
+
+    /**
+     * Copie les mesures : durée de chaque pas (lecture des virages, avancée des parties,
+     * diffusion) et retard de son début sur l'horaire prévu, en nanosecondes.
+     */
+    public void copyMetrics(LatencyHistogram durations, LatencyHistogram lateness) {
+        synchronized (metricsLock) {
+            tickDurations.copyInto(durations);
+            tickLateness.copyInto(lateness);
+        }
+    }
+
+    /** Arrête le serveur et ferme toutes les connexions. */
+    @Override
+    public void close() throws IOException {
+        running = false;
+        selector.wakeup();
+        if (thread.isAlive()) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        } else {
+            closeAll();
+        }
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // Boucle
+    //----------------------------------------------------------------------------------------------
+
+    private void loop() {
+        long nextTick = System.nanoTime() + tickNanos;
+        try {
+            while (running) {
+                long wait = nextTick - System.nanoTime();
+                if (wait > 0) {
+                    // select(0) attendrait indéfiniment
+                    selector.select(keyHandler, Math.max(1, TimeUnit.NANOSECONDS.toMillis(wait)));
+                } else {
+                    selector.selectNow(keyHandler);
+                }
+                long now = System.nanoTime();
+                if (now - nextTick >= 0) {
+                    tick(now - nextTick);
+                    nextTick += tickNanos;
+                    if (now - nextTick > tickNanos) {
+                        // Trop en retard : on ne rattrape pas les pas manqués en rafale
+                        nextTick = now + tickNanos;
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            closeAll();
+        }
+    }
+
+    private void handle(SelectionKey key) {
+        if (!key.isValid()) {
+            return;
+        }
+        if (key.isAcceptable()) {
+            accept();
+            return;
+        }
+        Session session = (Session) key.attachment();
+        if (key.isReadable()) {
+            read(session);
+        }
+        if (key.isValid() && key.isWritable()) {
+            flush(session);
+        }
+    }
+
+    private void accept() {
+        try {
+            SocketChannel channel = serverChannel.accept();
+            if (channel == null) {
+                return;
+            }
+            channel.configureBlocking(false);
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            Session session = new Session(channel);
+            session.key = channel.register(selector, SelectionKey.OP_READ, session);
+            sessionCount++;
+            join(session);
+        } catch (IOException e) {
+            // Connexion perdue pendant l'acceptation : rien à nettoyer côté match
+        }
+    }
+
+    /** Lit les virages reçus ; tout octet invalide ferme la connexion. */
+    private void read(Session session) {
+        readBuffer.clear();
+        int read;
+        try {
+            read = session.channel.read(readBuffer);
+        } catch (IOException e) {
+            read = -1;
+        }
+        if (read < 0) {
+            disconnect(session);
+            return;
+        }
+        readBuffer.flip();
+        while (readBuffer.hasRemaining()) {
+            int direction = readBuffer.get();
+            if (direction < SnakeEngine.UP || direction > SnakeEngine.RIGHT) {
+                disconnect(session);
+                return;
+            }
+            session.turns.offer(direction);
+        }
+    }
+
+    /** Un pas : tous les matchs avancent, puis les tampons d'envoi sont vidés. */
+    private void tick(long lateness) {
+        long start = System.nanoTime();
+        for (int i = matches.size() - 1; i >= 0; i--) {
+            Match match = matches.get(i);
+            if (!match.tick()) {
+                matches.set(i, matches.get(matches.size() - 1));
+                matches.remove(matches.size() - 1);
+            }
+        }
+        for (int i = 0; i < matches.size(); i++) {
+            Match match = matches.get(i);
+            for (Session session : match.sessions) {
+                if (session.connected) {
+                    flush(session);
+                }
+            }
+        }
+        long duration = System.nanoTime() - start;
+        synchronized (metricsLock) {
+            tickDurations.record(duration);
+            tickLateness.record(lateness);
+        }
+        tickCount++;
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // Matchs et connexions
+    //----------------------------------------------------------------------------------------------
+
+    private void join(Session session) throws IOException {
+        if (filling == null) {
+            filling = new Match(SnakeRandom.mix(baseSeed + matchCount++));
+        }
+        Match match = filling;
+        session.match = match;
+        session.slot = match.count;
+        match.sessions[match.count++] = session;
+        session.enqueue(NetProtocol.WELCOME, new byte[]{(byte) session.slot,
+                (byte) playersPerMatch}, 2);
+        if (match.count == playersPerMatch) {
+            filling = null;
+            match.start();
+            matches.add(match);
+        }
+        flush(session);
+    }
+
+    /** Écrit ce qui peut l'être sans bloquer ; le reste attend OP_WRITE. */
+    private void flush(Session session) {
+        ByteBuffer out = session.outbound;
+        if (out.position() == 0) {
+            return;
+        }
+        out.flip();
+        try {
+            session.channel.write(out);
+        } catch (IOException e) {
+            out.compact();
+            disconnect(session);
+            return;
+        }
+        out.compact();
+        int interest = out.position() > 0
+                ? SelectionKey.OP_READ | SelectionKey.OP_WRITE
+                : SelectionKey.OP_READ;
+        if (session.key.interestOps() != interest) {
+            session.key.interestOps(interest);
+        }
+    }
+
+    private void disconnect(Session session) {
+        if (!session.connected) {
+            return;
+        }
+        session.connected = false;
+        session.key.cancel();
+        try {
+            session.channel.close();
+        } catch (IOException e) {
+            // Déjà fermée
+        }
+        sessionCount--;
+        if (session.match == filling) {
+            // Match pas encore commencé : la place se libère
+            filling.remove(session);
+        }
+    }
+
+    private void closeAll() {
+        for (Match match : matches) {
+            for (Session session : match.sessions) {
+                disconnect(session);
+            }
+        }
+        if (filling != null) {
+            for (int i = filling.count - 1; i >= 0; i--) {
+                disconnect(filling.sessions[i]);
+            }
+        }
+        try {
+            serverChannel.close();
+            selector.close();
+        } catch (IOException e) {
+            // Rien à faire à l'arrêt
+        }
+    }
+
+    /** Connexion d'un joueur, avec sa partie et son flux d'état. */
+    private final class Session {
+        final SocketChannel channel;
+        SelectionKey key;
+        boolean connected = true;
+        Match match;
+        int slot;
+
+        final TurnQueue turns = new TurnQueue();
+        final SnakeEngine engine = new SnakeEngine(rowCount, columnCount, 0L);
+        /** Octets du flux d'état produits pendant le pas en cours. */
+        final ChunkSink sink = new ChunkSink(maxChunk);
+        final StateStreamWriter stream = new StateStreamWriter(sink, Integer.MAX_VALUE);
+        final ByteBuffer outbound = ByteBuffer.allocate(outboundSize);
+
+        Session(SocketChannel channel) {
+            this.channel = channel;
+        }
+
+        /** Ajoute un bloc au tampon d'envoi ; déconnecte le client s'il ne suit pas. */
+        void enqueue(int chunkSlot, byte[] data, int length) {
+            if (!connected) {
+                return;
+            }
+            if (outbound.remaining() < NetProtocol.CHUNK_HEADER + length) {
+                disconnect(this);
+                return;
+            }
+            outbound.put((byte) chunkSlot);
+            outbound.putShort((short) length);
+            outbound.put(data, 0, length);
+        }
+    }
+
+    /** Joueurs d'un match : même graine, chacun reçoit les parties de tous. */
+    private final class Match {
+        final Session[] sessions = new Session[playersPerMatch];
+        int count;
+        long seed;
+
+        Match(long seed) {
+            this.seed = seed;
+        }
+
+        void remove(Session session) {
+            int slot = session.slot;
+            System.arraycopy(sessions, slot + 1, sessions, slot, count - slot - 1);
+            sessions[--count] = null;
+            for (int i = slot; i < count; i++) {
+                Session moved = sessions[i];
+                moved.slot = i;
+                moved.enqueue(NetProtocol.WELCOME, new byte[]{(byte) i,
+                        (byte) playersPerMatch}, 2);
+            }
+        }
+
+        void start() throws IOException {
+            for (Session session : sessions) {
+                session.engine.reset(seed);
+                session.stream.begin(session.engine);
+            }
+            broadcast();
+        }
+
+        /**
+         * Avance chaque partie d'un pas et diffuse les écarts.
+         *
+         * @return faux si plus aucun joueur n'est connecté (match à retirer)
+         */
+        boolean tick() {
+            boolean connected = false;
+            boolean playing = false;
+            for (Session session : sessions) {
+                connected |= session.connected;
+                playing |= session.connected && !session.engine.isGameOver();
+            }
+            if (!connected) {
+                return false;
+            }
+            try {
+                if (!playing) {
+                    // Toutes les parties sont finies : revanche avec une nouvelle graine
+                    seed = SnakeRandom.mix(seed);
+                    for (Session session : sessions) {
+                        if (session.connected) {
+                            session.engine.reset(seed);
+                            session.turns.clear();
+                            session.stream.keyframe(session.engine);
+                        }
+                    }
+                } else {
+                    for (Session session : sessions) {
+                        SnakeEngine engine = session.engine;
+                        if (!session.connected || engine.isGameOver()) {
+                            continue;
+                        }
+                        int direction = session.turns.poll(engine.getDirection(),
+                                engine.getLength() == 1);
+                        if (direction == TurnQueue.NO_DIRECTION) {
+                            direction = engine.getDirection();
+                        }
+                        engine.tick(direction);
+                        session.stream.tick(engine);
+                    }
+                }
+                broadcast();
+            } catch (IOException e) {
+                // Le flux d'état est écrit en mémoire
+                throw new UncheckedIOException(e);
+            }
+            return true;
+        }
+
+        /** Envoie à chaque joueur les octets produits par toutes les parties du match. */
+        private void broadcast() throws IOException {
+            for (Session source : sessions) {
+                source.stream.flush();
+                ChunkSink sink = source.sink;
+                if (sink.length > 0) {
+                    for (Session target : sessions) {
+                        target.enqueue(source.slot, sink.bytes, sink.length);
+                    }
+                    sink.length = 0;
+                }
+            }
+        }
+    }
+
+    /** Reçoit les octets d'un StateStreamWriter jusqu'à leur diffusion (sans allocation). */
+    private static final class ChunkSink extends OutputStream {
+        final byte[] bytes;
+        int length;
+
+        ChunkSink(int capacity) {
+            bytes = new byte[capacity];
+        }
+
+        @Override
+        public void write(int b) {
+            bytes[length++] = (byte) b;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            System.arraycopy(b, off, bytes, length, len);
+            length += len;
+        }
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // Ligne de commande
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Usage : TickServer port [ms par pas [joueurs par match [lignes colonnes]]]
+     * Affiche toutes les 5 secondes les connexions et la latence des pas.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 1) {
+            System.err.println("Usage : TickServer port [ms par pas [joueurs [lignes colonnes]]]");
+            System.exit(2);
+        }
+        int port = Integer.parseInt(args[0]);
+        long tickMillis = args.length > 1 ? Long.parseLong(args[1]) : 50;
+        int players = args.length > 2 ? Integer.parseInt(args[2]) : 2;
+        int rows = args.length > 4 ? Integer.parseInt(args[3]) : 32;
+        int columns = args.length > 4 ? Integer.parseInt(args[4]) : 32;
+
+        try (TickServer server = new TickServer(new InetSocketAddress(port), rows, columns,
+                players, TimeUnit.MILLISECONDS.toNanos(tickMillis), System.nanoTime())) {
+            server.start();
+            System.out.println("Serveur à l'écoute sur " + server.getAddress());
+            LatencyHistogram durations = new LatencyHistogram();
+            LatencyHistogram lateness = new LatencyHistogram();
+            while (true) {
+                Thread.sleep(5_000);
+                server.copyMetrics(durations, lateness);
+                System.out.println(report(server, durations, lateness));
+            }
+        }
+    }
+
+    /** Résumé lisible : connexions, pas, durée et retard des pas. */
+    static String report(TickServer server, LatencyHistogram durations,
+                         LatencyHistogram lateness) {
+        StringBuilder out = new StringBuilder();
+        out.append(server.getSessionCount()).append(" connexions, ")
+                .append(server.getTickCount()).append(" pas\n  durée  : ");
+        durations.dump(out);
+        out.append("\n  retard : ");
+        lateness.dump(out);
+        return out.toString();
+    }
+}
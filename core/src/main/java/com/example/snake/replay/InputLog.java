@@ -0,0 +1,34 @@
+package com.example.snake.replay;
+
+/**
+ * Format binaire du journal des commandes d'une partie (fichiers .snk) :
+ *
+ * <pre>
+ * en-tête   : MAGIC (4 octets, big-endian), VERSION (1 octet),
+ *             lignes (varint), colonnes (varint), graine (8 octets, big-endian)
+ * corps     : suite de plages, chacune un varint (longueur &lt;&lt; 2 | direction),
+ *             longueur &gt;= 1 : n pas consécutifs dans la même direction
+ * fin       : 0 (varint), nombre de pas (varint), empreinte finale SnakeEngine.stateHash()
+ *             (8 octets, big-endian)
+ * </pre>
+ *
+ * Les varints sont des entiers non signés codés par groupes de 7 bits, poids faibles en
+ * premier (LEB128). Un serpent qui va tout droit coûte donc un ou deux octets par plage,
+ * quel que soit le nombre de pas.
+ */
+final class InputLog {
+
+    /** "SNK1" */
+    static final int MAGIC = 0x534E4B31;
+    static final int VERSION = 1;
+
+    /** Varint marquant la fin des plages (une plage vaut au moins 1 << 2). */
+    static final int END_OF_RUNS = 0;
+
+    /** Bits de la direction dans une plage. */
+    static final int DIRECTION_BITS = 2;
+    static final int DIRECTION_MASK = (1 << DIRECTION_BITS) - 1;
+
+    private InputLog() {
+    }
+}
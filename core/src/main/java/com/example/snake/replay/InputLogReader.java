@@ -0,0 +1,183 @@
+package com.example.snake.replay;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Lit un journal de commandes (format InputLog), pas par pas :
+ *  - open(path) projette le fichier en mémoire (FileChannel.map) : pas de copie, lecture
+ *    à la vitesse de la mémoire.
+ *  - stream(channel) lit un flux par blocs de 64 Ko (réseau, fichier compressé...).
+ * nextDirection() ne fait que décrémenter la plage en cours : aucune allocation par pas.
+ */
+public final class InputLogReader implements Closeable {
+
+    /** Valeur de nextDirection() après le dernier pas. */
+    public static final int END = -1;
+
+    private static final int STREAM_BUFFER_SIZE = 64 * 1024;
+
+    private final ByteBuffer buffer;
+    /** Flux à relire quand le tampon est vide (null si tout le journal est en mémoire). */
+    private final ReadableByteChannel channel;
+    private final Closeable resource;
+
+    private final int rowCount;
+    private final int columnCount;
+    private final long seed;
+
+    private int runDirection;
+    private long runRemaining;
+    private boolean ended;
+    private long recordedTicks;
+    private long recordedHash;
+
+    /** Lit un journal entièrement en mémoire (par ex. ByteBuffer.wrap(bytes)). */
+    public InputLogReader(ByteBuffer buffer) throws IOException {
+        this(buffer, null, null);
+    }
+
+    private InputLogReader(ByteBuffer buffer, ReadableByteChannel channel, Closeable resource)
+            throws IOException {
+        this.buffer = buffer;
+        this.channel = channel;
+        this.resource = resource;
+
+        if (readInt() != InputLog.MAGIC) {
+            throw new IOException("Pas un journal de partie (en-tête invalide)");
+        }
+        int version = readByte();
+        if (version != InputLog.VERSION) {
+            throw new IOException("Version de journal non gérée : " + version);
+        }
+        rowCount = (int) readVarint();
+        columnCount = (int) readVarint();
+        seed = readLong();
+    }
+
+    /** Ouvre un fichier journal en le projetant en mémoire. */
+    public static InputLogReader open(Path path) throws IOException {
+        try (FileChannel file = FileChannel.open(path, StandardOpenOption.READ)) {
+            // La projection reste valide après la fermeture du canal
+            return new InputLogReader(file.map(FileChannel.MapMode.READ_ONLY, 0, file.size()));
+        }
+    }
+
+    /** Lit un journal en flux ; le canal est fermé par close(). */
+    public static InputLogReader stream(ReadableByteChannel channel) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(STREAM_BUFFER_SIZE);
+        buffer.limit(0);
+        return new InputLogReader(buffer, channel, channel);
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // En-tête et fin
+    //----------------------------------------------------------------------------------------------
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    public int getColumnCount() {
+        return columnCount;
+    }
+
+    /** Graine passée à SnakeEngine.reset(seed) au début de la partie. */
+    public long getSeed() {
+        return seed;
+    }
+
+    /** Nombre de pas annoncé par la fin du journal (valide une fois END atteint). */
+    public long getRecordedTicks() {
+        return recordedTicks;
+    }
+
+    /** Empreinte de l'état final enregistrée (valide une fois END atteint). */
+    public long getRecordedHash() {
+        return recordedHash;
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // Pas
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Direction du pas suivant, ou END après le dernier pas.
+     */
+    public int nextDirection() throws IOException {
+        if (runRemaining == 0) {
+            if (ended) {
+                return END;
+            }
+            long run = readVarint();
+            if (run == InputLog.END_OF_RUNS) {
+                ended = true;
+                recordedTicks = readVarint();
+                recordedHash = readLong();
+                return END;
+            }
+            runDirection = (int) (run & InputLog.DIRECTION_MASK);
+            runRemaining = run >>> InputLog.DIRECTION_BITS;
+        }
+        runRemaining--;
+        return runDirection;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (resource != null) {
+            resource.close();
+        }
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // Décodage
+    //----------------------------------------------------------------------------------------------
+
+    private long readVarint() throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Varint trop long");
+    }
+
+    private int readInt() throws IOException {
+        return (readByte() << 24) | (readByte() << 16) | (readByte() << 8) | readByte();
+    }
+
+    private long readLong() throws IOException {
+        return ((long) readInt() << 32) | (readInt() & 0xFFFFFFFFL);
+    }
+
+    private int readByte() throws IOException {
+        if (!buffer.hasRemaining() && !refill()) {
+            throw new EOFException("Journal tronqué");
+        }
+        return buffer.get() & 0xFF;
+    }
+
+    /** Recharge le tampon depuis le flux ; faux s'il n'y a plus rien à lire. */
+    private boolean refill() throws IOException {
+        if (channel == null) {
+            return false;
+        }
+        buffer.clear();
+        int read;
+        do {
+            read = channel.read(buffer);
+        } while (read == 0);
+        buffer.flip();
+        return read > 0;
+    }
+}
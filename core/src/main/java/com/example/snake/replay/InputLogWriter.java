@@ -0,0 +1,140 @@
+package com.example.snake.replay;
+
+import com.example.snake.engine.SnakeEngine;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Enregistre les directions jouées à chaque pas d'une partie (format InputLog) :
+ * begin() écrit l'en-tête, record() est appelé après chaque engine.tick(direction), et
+ * finish() écrit la fin avec l'empreinte de l'état final, qui permet au rejeu de vérifier
+ * qu'il aboutit exactement au même état.
+ * Les pas consécutifs dans la même direction sont regroupés en plages ; les octets passent
+ * par un tampon interne : aucune allocation par pas.
+ */
+public final class InputLogWriter implements Closeable {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final OutputStream out;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int position;
+
+    private boolean begun;
+    private int runDirection = -1;
+    private long runLength;
+    private long tickCount;
+
+    public InputLogWriter(OutputStream out) {
+        this.out = out;
+    }
+
+    /**
+     * Début d'une partie : grille et graine passées à SnakeEngine.reset(seed).
+     */
+    public void begin(int rowCount, int columnCount, long seed) throws IOException {
+        if (begun) {
+            throw new IllegalStateException("Partie déjà commencée");
+        }
+        begun = true;
+        runDirection = -1;
+        runLength = 0;
+        tickCount = 0;
+        writeInt(InputLog.MAGIC);
+        writeByte(InputLog.VERSION);
+        writeVarint(rowCount);
+        writeVarint(columnCount);
+        writeLong(seed);
+    }
+
+    /** Un pas joué dans la direction donnée (UP, DOWN, LEFT, RIGHT). */
+    public void record(int direction) throws IOException {
+        if (direction == runDirection) {
+            runLength++;
+        } else {
+            flushRun();
+            runDirection = direction;
+            runLength = 1;
+        }
+        tickCount++;
+    }
+
+    /**
+     * Fin de la partie : écrit le nombre de pas et l'empreinte de l'état final du moteur,
+     * puis vide le tampon. Le writer peut ensuite commencer une autre partie.
+     */
+    public void finish(SnakeEngine engine) throws IOException {
+        if (!begun) {
+            throw new IllegalStateException("Aucune partie commencée");
+        }
+        flushRun();
+        writeVarint(InputLog.END_OF_RUNS);
+        writeVarint(tickCount);
+        writeLong(engine.stateHash());
+        flush();
+        begun = false;
+    }
+
+    /** Vrai entre begin() et finish(). */
+    public boolean isRecording() {
+        return begun;
+    }
+
+    /** Nombre de pas enregistrés depuis begin(). */
+    public long getTickCount() {
+        return tickCount;
+    }
+
+    public void flush() throws IOException {
+        out.write(buffer, 0, position);
+        position = 0;
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+        out.close();
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // Codage
+    //----------------------------------------------------------------------------------------------
+
+    private void flushRun() throws IOException {
+        if (runLength > 0) {
+            writeVarint((runLength << InputLog.DIRECTION_BITS) | runDirection);
+            runLength = 0;
+        }
+    }
+
+    private void writeVarint(long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        writeByte((int) value);
+    }
+
+    private void writeInt(int value) throws IOException {
+        writeByte(value >>> 24);
+        writeByte(value >>> 16);
+        writeByte(value >>> 8);
+        writeByte(value);
+    }
+
+    private void writeLong(long value) throws IOException {
+        writeInt((int) (value >>> 32));
+        writeInt((int) value);
+    }
+
+    private void writeByte(int value) throws IOException {
+        if (position == BUFFER_SIZE) {
+            out.write(buffer, 0, position);
+            position = 0;
+        }
+        buffer[position++] = (byte) value;
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.snake.replay;
+
+import com.example.snake.engine.SnakeEngine;
+
+import java.io.IOException;
+
+/**
+ * Rejoue un journal de commandes à vitesse maximale avec la logique du jeu :
+ * moteur réinitialisé avec la graine du journal, puis un engine.tick(direction) par pas.
+ * À la fin, le nombre de pas et l'empreinte de l'état final (SnakeEngine.stateHash())
+ * sont comparés à ceux enregistrés : le rejeu doit être identique au bit près.
+ */
+public final class Replayer {
+
+    /**
+     * Appelé après chaque pas rejoué, par ex. pour dessiner la partie.
+     */
+    public interface TickListener {
+        void onTick(SnakeEngine engine);
+    }
+
+    /** Résultat d'un rejeu. */
+    public static final class Result {
+        public final long ticks;
+        public final long recordedTicks;
+        public final long stateHash;
+        public final long recordedHash;
+        public final int score;
+        public final boolean gameOver;
+
+        Result(long ticks, long recordedTicks, long stateHash, long recordedHash,
+               int score, boolean gameOver) {
+            this.ticks = ticks;
+            this.recordedTicks = recordedTicks;
+            this.stateHash = stateHash;
+            this.recordedHash = recordedHash;
+            this.score = score;
+            this.gameOver = gameOver;
+        }
+
+        /** Vrai si le rejeu aboutit exactement à l'état enregistré. */
+        public boolean isIdentical() {
+            return ticks == recordedTicks && stateHash == recordedHash;
+        }
+    }
+
+    private Replayer() {
+    }
+
+    /** Rejoue le journal sans affichage. */
+    public static Result replay(InputLogReader log) throws IOException {
+        return replay(log, null, null);
+    }
+
+    /**
+     * Rejoue le journal.
+     *
+     * @param engine   moteur à réutiliser (aux dimensions du journal), ou null pour en créer un
+     * @param listener appelé après chaque pas, ou null
+     */
+    public static Result replay(InputLogReader log, SnakeEngine engine, TickListener listener)
+            throws IOException {
+        if (engine == null) {
+            engine = new SnakeEngine(log.getRowCount(), log.getColumnCount(), log.getSeed());
+        } else if (engine.getRowCount() != log.getRowCount()
+                || engine.getColumnCount() != log.getColumnCount()) {
+            throw new IllegalArgumentException("Grille " + engine.getRowCount() + "x"
+                    + engine.getColumnCount() + ", journal " + log.getRowCount() + "x"
+                    + log.getColumnCount());
+        }
+        engine.reset(log.getSeed());
+
+        long ticks = 0;
+        for (int direction = log.nextDirection(); direction != InputLogReader.END;
+             direction = log.nextDirection()) {
+            engine.tick(direction);
+            ticks++;
+            if (listener != null) {
+                listener.onTick(engine);
+            }
+        }
+        return new Result(ticks, log.getRecordedTicks(), engine.stateHash(),
+                log.getRecordedHash(), engine.getScore(), engine.isGameOver());
+    }
+}
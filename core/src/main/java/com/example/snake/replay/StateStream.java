@@ -0,0 +1,49 @@
+package com.example.snake.replay;
+
+/**
+ * Format binaire du flux d'état d'une partie (fichiers .sns), pour la suivre en direct sur un
+ * autre écran ou la revoir sans rejouer le moteur :
+ *
+ * <pre>
+ * en-tête   : MAGIC (4 octets, big-endian), VERSION (1 octet), lignes (varint), colonnes (varint)
+ * image clé : KEYFRAME (1 octet), numéro du pas (varint), score (varint),
+ *             direction | statut &lt;&lt; 2 (1 octet), pomme + 1 (varint, 0 : aucune),
+ *             longueur (varint), case de la queue (varint),
+ *             puis longueur - 1 directions de 2 bits (queue vers tête, 4 par octet,
+ *             poids faibles en premier)
+ * pas       : 1 octet 0ddddddd : direction (bits 0-1) et drapeaux MOVED, GREW, APPLE,
+ *             SCORE, STATUS, suivi selon les drapeaux de : pomme + 1 (varint),
+ *             score (varint), statut (1 octet)
+ * fin       : END (1 octet)
+ * </pre>
+ *
+ * Un pas ordinaire tient en un octet quelle que soit la longueur du serpent : la nouvelle
+ * tête se déduit de l'ancienne et de la direction, la queue n'est retirée que si GREW est
+ * absent. Les images clés, émises à intervalle régulier, permettent de rejoindre un flux en
+ * cours ou d'avancer rapidement dans un fichier. Varints : LEB128, comme InputLog.
+ */
+final class StateStream {
+
+    /** "SNS1" */
+    static final int MAGIC = 0x534E5331;
+    static final int VERSION = 1;
+
+    /** Octets de contrôle (bit 7 à 1 ; un pas a toujours le bit 7 à 0). */
+    static final int KEYFRAME = 0x80;
+    static final int END = 0x81;
+
+    /** Drapeaux d'un pas. */
+    static final int DIRECTION_MASK = 0x03;
+    static final int MOVED = 0x04;
+    static final int GREW = 0x08;
+    static final int APPLE = 0x10;
+    static final int SCORE = 0x20;
+    static final int STATUS = 0x40;
+
+    /** Bits du statut. */
+    static final int GAME_OVER = 0x01;
+    static final int WON = 0x02;
+
+    private StateStream() {
+    }
+}
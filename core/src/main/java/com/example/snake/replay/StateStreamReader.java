@@ -0,0 +1,290 @@
+package com.example.snake.replay;
+
+import com.example.snake.engine.SnakeBody;
+import com.example.snake.engine.SnakeEngine;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Lit un flux d'état (format StateStream) et tient à jour une copie de la partie : serpent,
+ * pomme, score, direction, statut. next() lit un enregistrement et l'applique ;
+ * skipToKeyframe() avance jusqu'à l'image clé suivante sans appliquer les pas intermédiaires.
+ * Un lecteur qui rejoint un flux en cours ignore les pas jusqu'à la première image clé
+ * (hasState() reste faux jusque-là).
+ * Aucune allocation par pas : le corps ne réalloue son tableau que lorsqu'il dépasse sa
+ * capacité.
+ */
+public final class StateStreamReader implements Closeable {
+
+    /** Valeurs de next() et skipToKeyframe(). */
+    public static final int TICK = 0;
+    public static final int KEYFRAME = 1;
+    public static final int END = -1;
+
+    private static final int STREAM_BUFFER_SIZE = 64 * 1024;
+    private static final int INITIAL_BODY_CAPACITY = 64;
+
+    private final ByteBuffer buffer;
+    /** Flux à relire quand le tampon est vide (null si tout le flux est en mémoire). */
+    private final ReadableByteChannel channel;
+    private final Closeable resource;
+
+    private final int rowCount;
+    private final int columnCount;
+
+    private final SnakeBody body = new SnakeBody(INITIAL_BODY_CAPACITY);
+    private boolean hasState;
+    private boolean ended;
+    private long tick;
+    private int direction;
+    private int appleCell = SnakeEngine.NO_APPLE;
+    private int score;
+    private int status;
+
+    /** Lit un flux entièrement en mémoire (par ex. ByteBuffer.wrap(bytes)). */
+    public StateStreamReader(ByteBuffer buffer) throws IOException {
+        this(buffer, null, null);
+    }
+
+    private StateStreamReader(ByteBuffer buffer, ReadableByteChannel channel, Closeable resource)
+            throws IOException {
+        this.buffer = buffer;
+        this.channel = channel;
+        this.resource = resource;
+
+        if (readInt() != StateStream.MAGIC) {
+            throw new IOException("Pas un flux d'état (en-tête invalide)");
+        }
+        int version = readByte();
+        if (version != StateStream.VERSION) {
+            throw new IOException("Version de flux non gérée : " + version);
+        }
+        rowCount = (int) readVarint();
+        columnCount = (int) readVarint();
+    }
+
+    /** Ouvre un fichier en le projetant en mémoire. */
+    public static StateStreamReader open(Path path) throws IOException {
+        try (FileChannel file = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new StateStreamReader(file.map(FileChannel.MapMode.READ_ONLY, 0, file.size()));
+        }
+    }
+
+    /** Lit un flux (réseau, tube...) ; le canal est fermé par close(). */
+    public static StateStreamReader stream(ReadableByteChannel channel) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(STREAM_BUFFER_SIZE);
+        buffer.limit(0);
+        return new StateStreamReader(buffer, channel, channel);
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // Lecture
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Lit et applique l'enregistrement suivant.
+     *
+     * @return TICK, KEYFRAME, ou END à la fin du flux
+     */
+    public int next() throws IOException {
+        return read(true);
+    }
+
+    /**
+     * Avance jusqu'à l'image clé suivante (incluse) en sautant les pas intermédiaires.
+     *
+     * @return KEYFRAME, ou END si le flux se termine avant
+     */
+    public int skipToKeyframe() throws IOException {
+        int record;
+        do {
+            record = read(false);
+        } while (record == TICK);
+        return record;
+    }
+
+    private int read(boolean apply) throws IOException {
+        if (ended) {
+            return END;
+        }
+        int tag = readByte();
+        if (tag == StateStream.END) {
+            ended = true;
+            return END;
+        }
+        if (tag == StateStream.KEYFRAME) {
+            readKeyframe();
+            return KEYFRAME;
+        }
+        if ((tag & StateStream.KEYFRAME) != 0) {
+            throw new IOException("Enregistrement inconnu : " + tag);
+        }
+
+        int newApple = (tag & StateStream.APPLE) != 0 ? (int) readVarint() - 1 : appleCell;
+        int newScore = (tag & StateStream.SCORE) != 0 ? (int) readVarint() : score;
+        int newStatus = (tag & StateStream.STATUS) != 0 ? readByte() : status;
+        tick++;
+        if (!apply || !hasState) {
+            // Pas sauté : la copie n'est plus à jour jusqu'à la prochaine image clé
+            hasState = false;
+            return TICK;
+        }
+        direction = tag & StateStream.DIRECTION_MASK;
+        if ((tag & StateStream.MOVED) != 0) {
+            int newHead = step(body.head(), direction);
+            if ((tag & StateStream.GREW) == 0) {
+                body.popTail();
+            }
+            body.pushHead(newHead);
+        }
+        appleCell = newApple;
+        score = newScore;
+        status = newStatus;
+        return TICK;
+    }
+
+    private void readKeyframe() throws IOException {
+        tick = readVarint();
+        score = (int) readVarint();
+        int flags = readByte();
+        direction = flags & StateStream.DIRECTION_MASK;
+        status = flags >>> 2;
+        appleCell = (int) readVarint() - 1;
+        long length = readVarint();
+        if (length < 1 || length > (long) rowCount * columnCount) {
+            throw new IOException("Longueur invalide : " + length);
+        }
+        body.clear();
+        int cell = (int) readVarint();
+        body.pushHead(cell);
+        for (long i = 1; i < length; i += 4) {
+            int packed = readByte();
+            for (int j = 0; j < 4 && i + j < length; j++) {
+                cell = step(cell, (packed >>> (2 * j)) & StateStream.DIRECTION_MASK);
+                body.pushHead(cell);
+            }
+        }
+        hasState = true;
+    }
+
+    /** Case voisine dans la direction donnée (le flux ne sort jamais de la grille). */
+    private int step(int cell, int stepDirection) throws IOException {
+        int row = cell / columnCount + SnakeEngine.deltaRow(stepDirection);
+        int col = cell % columnCount + SnakeEngine.deltaCol(stepDirection);
+        if (row < 0 || row >= rowCount || col < 0 || col >= columnCount) {
+            throw new IOException("Flux incohérent : sortie de la grille en " + cell);
+        }
+        return row * columnCount + col;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (resource != null) {
+            resource.close();
+        }
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // État courant
+    //----------------------------------------------------------------------------------------------
+
+    /** Vrai dès qu'une image clé a été lue et tant qu'aucun pas n'a été sauté depuis. */
+    public boolean hasState() {
+        return hasState;
+    }
+
+    /** Numéro du dernier pas lu (0 : état de départ). */
+    public long getTick() {
+        return tick;
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    public int getColumnCount() {
+        return columnCount;
+    }
+
+    public int getLength() {
+        return body.size();
+    }
+
+    public int getHeadCell() {
+        return body.head();
+    }
+
+    /** Case du segment i (0 => tête). */
+    public int getSegmentCell(int i) {
+        return body.get(i);
+    }
+
+    /** Case de la pomme, ou SnakeEngine.NO_APPLE. */
+    public int getAppleCell() {
+        return appleCell;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public int getDirection() {
+        return direction;
+    }
+
+    public boolean isGameOver() {
+        return (status & StateStream.GAME_OVER) != 0;
+    }
+
+    public boolean hasWon() {
+        return (status & StateStream.WON) != 0;
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // Décodage
+    //----------------------------------------------------------------------------------------------
+
+    private long readVarint() throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Varint trop long");
+    }
+
+    private int readInt() throws IOException {
+        return (readByte() << 24) | (readByte() << 16) | (readByte() << 8) | readByte();
+    }
+
+    private int readByte() throws IOException {
+        if (!buffer.hasRemaining() && !refill()) {
+            throw new EOFException("Flux tronqué");
+        }
+        return buffer.get() & 0xFF;
+    }
+
+    /** Recharge le tampon depuis le flux ; faux s'il n'y a plus rien à lire. */
+    private boolean refill() throws IOException {
+        if (channel == null) {
+            return false;
+        }
+        buffer.clear();
+        int read;
+        do {
+            read = channel.read(buffer);
+        } while (read == 0);
+        buffer.flip();
+        return read > 0;
+    }
+}
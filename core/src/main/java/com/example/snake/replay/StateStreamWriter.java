@@ -0,0 +1,238 @@
+package com.example.snake.replay;
+
+import com.example.snake.engine.SnakeEngine;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Écrit le flux d'état d'une partie (format StateStream) : begin() écrit l'en-tête et une
+ * première image clé, tick() est appelé après chaque engine.tick(direction) et écrit l'écart
+ * avec le pas précédent, finish() termine le flux.
+ *  - Une image clé est réémise tous les keyframeInterval pas, et chaque fois que l'écart ne
+ *    s'explique pas par un pas du moteur.
+ *  - Une nouvelle partie (reset, loadSnake, readState) est repérée par
+ *    SnakeEngine.getGeneration() et toujours envoyée en image clé, même quand elle ressemble
+ *    à un pas (serpent d'un segment qui repart à côté de l'ancienne tête).
+ * Les octets passent par un tampon interne : aucune allocation par pas.
+ */
+public final class StateStreamWriter implements Closeable {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final OutputStream out;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int position;
+
+    private final int keyframeInterval;
+
+    private boolean begun;
+    private long tickCount;
+    private long lastKeyframeTick;
+
+    /** Dernier état transmis. */
+    private int generation;
+    private int head;
+    private int length;
+    private int appleCell;
+    private int score;
+    private int status;
+
+    /**
+     * @param keyframeInterval nombre de pas entre deux images clés (> 0)
+     */
+    public StateStreamWriter(OutputStream out, int keyframeInterval) {
+        if (keyframeInterval <= 0) {
+            throw new IllegalArgumentException("Intervalle invalide : " + keyframeInterval);
+        }
+        this.out = out;
+        this.keyframeInterval = keyframeInterval;
+    }
+
+    /** Début du flux : en-tête et image clé de l'état courant du moteur. */
+    public void begin(SnakeEngine engine) throws IOException {
+        if (begun) {
+            throw new IllegalStateException("Flux déjà commencé");
+        }
+        begun = true;
+        tickCount = 0;
+        writeInt(StateStream.MAGIC);
+        writeByte(StateStream.VERSION);
+        writeVarint(engine.getRowCount());
+        writeVarint(engine.getColumnCount());
+        keyframe(engine);
+    }
+
+    /** Un pas vient d'être joué : écrit son écart (un octet le plus souvent). */
+    public void tick(SnakeEngine engine) throws IOException {
+        checkBegun();
+        tickCount++;
+        if (engine.getGeneration() != generation
+                || tickCount - lastKeyframeTick >= keyframeInterval) {
+            keyframe(engine);
+            return;
+        }
+
+        int direction = engine.getDirection();
+        int newHead = engine.getHeadCell();
+        int newLength = engine.getLength();
+        int tag = direction;
+        if (newHead != head) {
+            if (step(engine, head, direction) != newHead
+                    || (newLength != length && newLength != length + 1)) {
+                keyframe(engine);
+                return;
+            }
+            tag |= StateStream.MOVED;
+            if (newLength > length) {
+                tag |= StateStream.GREW;
+            }
+        } else if (newLength != length) {
+            keyframe(engine);
+            return;
+        }
+
+        int newApple = engine.getAppleCell();
+        int newScore = engine.getScore();
+        int newStatus = statusOf(engine);
+        if (newApple != appleCell) tag |= StateStream.APPLE;
+        if (newScore != score) tag |= StateStream.SCORE;
+        if (newStatus != status) tag |= StateStream.STATUS;
+
+        writeByte(tag);
+        if ((tag & StateStream.APPLE) != 0) writeVarint(newApple + 1L);
+        if ((tag & StateStream.SCORE) != 0) writeVarint(newScore);
+        if ((tag & StateStream.STATUS) != 0) writeByte(newStatus);
+
+        head = newHead;
+        length = newLength;
+        appleCell = newApple;
+        score = newScore;
+        status = newStatus;
+    }
+
+    /**
+     * Écrit une image clé de l'état courant : 2 bits par segment, plus une vingtaine d'octets.
+     */
+    public void keyframe(SnakeEngine engine) throws IOException {
+        checkBegun();
+        generation = engine.getGeneration();
+        head = engine.getHeadCell();
+        length = engine.getLength();
+        appleCell = engine.getAppleCell();
+        score = engine.getScore();
+        status = statusOf(engine);
+        lastKeyframeTick = tickCount;
+
+        writeByte(StateStream.KEYFRAME);
+        writeVarint(tickCount);
+        writeVarint(score);
+        writeByte(engine.getDirection() | status << 2);
+        writeVarint(appleCell + 1L);
+        writeVarint(length);
+        int previous = engine.getSegmentCell(length - 1);
+        writeVarint(previous);
+        int packed = 0;
+        int count = 0;
+        for (int i = length - 2; i >= 0; i--) {
+            int cell = engine.getSegmentCell(i);
+            packed |= directionBetween(engine.getColumnCount(), previous, cell) << (2 * count);
+            previous = cell;
+            if (++count == 4) {
+                writeByte(packed);
+                packed = 0;
+                count = 0;
+            }
+        }
+        if (count > 0) {
+            writeByte(packed);
+        }
+    }
+
+    /** Fin du flux, puis vidage du tampon. */
+    public void finish() throws IOException {
+        checkBegun();
+        writeByte(StateStream.END);
+        flush();
+        begun = false;
+    }
+
+    /** Nombre de pas écrits depuis begin(). */
+    public long getTickCount() {
+        return tickCount;
+    }
+
+    public void flush() throws IOException {
+        out.write(buffer, 0, position);
+        position = 0;
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+        out.close();
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // Codage
+    //----------------------------------------------------------------------------------------------
+
+    private void checkBegun() {
+        if (!begun) {
+            throw new IllegalStateException("Aucun flux commencé");
+        }
+    }
+
+    private static int statusOf(SnakeEngine engine) {
+        return (engine.isGameOver() ? StateStream.GAME_OVER : 0)
+                | (engine.hasWon() ? StateStream.WON : 0);
+    }
+
+    /** Case voisine de cell dans la direction donnée (-1 hors de la grille). */
+    private static int step(SnakeEngine engine, int cell, int direction) {
+        int columnCount = engine.getColumnCount();
+        int row = cell / columnCount + SnakeEngine.deltaRow(direction);
+        int col = cell % columnCount + SnakeEngine.deltaCol(direction);
+        if (row < 0 || row >= engine.getRowCount() || col < 0 || col >= columnCount) {
+            return -1;
+        }
+        return row * columnCount + col;
+    }
+
+    /** Direction qui mène de from à la case voisine to. */
+    private static int directionBetween(int columnCount, int from, int to) {
+        int dRow = to / columnCount - from / columnCount;
+        int dCol = to % columnCount - from % columnCount;
+        for (int direction = SnakeEngine.UP; direction <= SnakeEngine.RIGHT; direction++) {
+            if (SnakeEngine.deltaRow(direction) == dRow && SnakeEngine.deltaCol(direction) == dCol) {
+                return direction;
+            }
+        }
+        throw new IllegalStateException("Segments non contigus : " + from + ", " + to);
+    }
+
+    private void writeVarint(long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        writeByte((int) value);
+    }
+
+    private void writeInt(int value) throws IOException {
+        writeByte(value >>> 24);
+        writeByte(value >>> 16);
+        writeByte(value >>> 8);
+        writeByte(value);
+    }
+
+    private void writeByte(int value) throws IOException {
+        if (position == BUFFER_SIZE) {
+            out.write(buffer, 0, position);
+            position = 0;
+        }
+        buffer[position++] = (byte) value;
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.snake.scores;
+
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32;
+
+/**
+ * Format binaire du journal des scores (une ligne par partie terminée ou abandonnée) :
+ *
+ * <pre>
+ * en-tête        : MAGIC (4 octets), VERSION (4 octets)
+ * enregistrement : score (4), longueur (4), durée en ms (8), graine (8),
+ *                  date en ms depuis 1970 (8), CRC32 des 32 octets précédents (4)
+ * </pre>
+ *
+ * Tout est en big-endian. Les enregistrements ont une taille fixe : le n-ième est à
+ * HEADER_SIZE + n * RECORD_SIZE, et une écriture interrompue (coupure, mort du processus)
+ * ne laisse qu'un dernier enregistrement incomplet ou au CRC faux, écarté à l'ouverture.
+ * Un enregistrement abîmé plus haut dans le fichier ne décale pas les suivants : il est
+ * sauté seul.
+ */
+final class ScoreLog {
+
+    /** "SNL1" (distinct de StateStream, "SNS1", et d'InputLog, "SNK1") */
+    static final int MAGIC = 0x534E4C31;
+    static final int VERSION = 1;
+
+    static final int HEADER_SIZE = 8;
+
+    /** Octets couverts par le CRC, puis le CRC lui-même. */
+    static final int PAYLOAD_SIZE = 4 + 4 + 8 + 8 + 8;
+    static final int RECORD_SIZE = PAYLOAD_SIZE + 4;
+
+    private ScoreLog() {
+    }
+
+    /** Écrit un enregistrement à la position de out (tampon sur tableau), CRC compris. */
+    static void encode(ByteBuffer out, CRC32 crc, int score, int length, long durationMillis,
+                       long seed, long timestampMillis) {
+        int start = out.position();
+        out.putInt(score).putInt(length).putLong(durationMillis).putLong(seed)
+                .putLong(timestampMillis);
+        crc.reset();
+        crc.update(out.array(), out.arrayOffset() + start, PAYLOAD_SIZE);
+        out.putInt((int) crc.getValue());
+    }
+}
@@ -0,0 +1,348 @@
+package com.example.snake.scores;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.zip.CRC32;
+
+/**
+ * Scores de toutes les parties, conservés d'une partie et d'un processus à l'autre :
+ *  - Journal en ajout seul (format ScoreLog) : un enregistrement de taille fixe avec CRC
+ *    par partie, jamais réécrit.
+ *  - record() ne fait qu'encoder l'enregistrement dans un tampon en mémoire et mettre à
+ *    jour le classement : appelable depuis le thread du jeu, il ne touche pas au disque et
+ *    n'alloue rien. Si le tampon est plein (disque bloqué), la partie est abandonnée plutôt
+ *    que de faire attendre le jeu.
+ *  - Un thread d'écriture échange ce tampon contre un tampon vide et écrit d'un coup tout ce
+ *    qui s'y est accumulé, suivi d'un seul force() (écriture groupée).
+ *  - Le classement des K meilleures parties (TopScores) est reconstruit à l'ouverture en
+ *    parcourant le journal projeté en mémoire (FileChannel.map), par fenêtres : des millions
+ *    de parties se relisent en quelques dizaines de millisecondes.
+ *  - Un enregistrement au CRC faux au milieu du journal est sauté et compté
+ *    (getCorruptCount) : les parties qui le suivent sont gardées. Seule la fin du fichier
+ *    après le dernier enregistrement valide (écriture interrompue) est écartée et tronquée.
+ */
+public final class ScoreStore implements Closeable {
+
+    /** Taille du classement par défaut. */
+    public static final int DEFAULT_TOP_COUNT = 10;
+
+    /** Parties en attente d'écriture au plus (au-delà, record() les abandonne). */
+    private static final int PENDING_CAPACITY = 256;
+
+    /** Enregistrements projetés en mémoire à la fois à l'ouverture (36 Mo). */
+    private static final int SCAN_WINDOW_RECORDS = 1 << 20;
+
+    /** Enregistrements recopiés à la fois depuis la projection pour vérifier les CRC. */
+    private static final int SCAN_CHUNK_RECORDS = 1024;
+
+    private final FileChannel channel;
+    private final TopScores top;
+    private final Thread writer;
+
+    /** Verrou de tout ce qui suit (partagé avec le thread d'écriture). */
+    private final Object lock = new Object();
+    private final CRC32 crc = new CRC32();
+    /** Enregistrements acceptés par record(), pas encore pris par le thread d'écriture. */
+    private ByteBuffer pending = ByteBuffer.allocate(PENDING_CAPACITY * ScoreLog.RECORD_SIZE);
+    private ByteBuffer writing = ByteBuffer.allocate(PENDING_CAPACITY * ScoreLog.RECORD_SIZE);
+    private long recordCount;
+    private long committedCount;
+    private long droppedCount;
+    /** Enregistrements abîmés sautés à l'ouverture (fixé par le constructeur). */
+    private final long corruptCount;
+    private boolean closing;
+    private boolean writerRunning = true;
+    private IOException failure;
+
+    /** Fin du journal sur le disque (thread d'écriture seulement, après le constructeur). */
+    private long fileEnd;
+
+    /**
+     * Ouvre (ou crée) le journal des scores et reconstruit le classement de ses topCount
+     * meilleures parties. À appeler hors du thread UI : le journal est relu en entier.
+     *
+     * @throws IOException si le fichier n'est pas un journal des scores
+     */
+    public static ScoreStore open(File file, int topCount) throws IOException {
+        FileChannel channel = new RandomAccessFile(file, "rw").getChannel();
+        try {
+            return new ScoreStore(channel, topCount);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private ScoreStore(FileChannel channel, int topCount) throws IOException {
+        this.channel = channel;
+        this.top = new TopScores(topCount);
+
+        long size = channel.size();
+        if (size < ScoreLog.HEADER_SIZE) {
+            // Nouveau journal (ou en-tête jamais écrit entièrement)
+            ByteBuffer header = ByteBuffer.allocate(ScoreLog.HEADER_SIZE);
+            header.putInt(ScoreLog.MAGIC).putInt(ScoreLog.VERSION).flip();
+            channel.truncate(0);
+            writeFully(header, 0);
+            channel.force(true);
+            fileEnd = ScoreLog.HEADER_SIZE;
+            corruptCount = 0;
+        } else {
+            ByteBuffer header = ByteBuffer.allocate(ScoreLog.HEADER_SIZE);
+            while (header.hasRemaining()) {
+                if (channel.read(header, header.position()) < 0) {
+                    throw new EOFException("Journal des scores tronqué");
+                }
+            }
+            if (header.getInt(0) != ScoreLog.MAGIC) {
+                throw new IOException("Pas un journal des scores (en-tête invalide)");
+            }
+            int version = header.getInt(4);
+            if (version != ScoreLog.VERSION) {
+                throw new IOException("Version de journal des scores non gérée : " + version);
+            }
+            long kept = scan((size - ScoreLog.HEADER_SIZE) / ScoreLog.RECORD_SIZE);
+            corruptCount = kept - committedCount;
+            fileEnd = ScoreLog.HEADER_SIZE + kept * ScoreLog.RECORD_SIZE;
+            if (fileEnd < size) {
+                // Écriture interrompue : rien de valide après le dernier enregistrement lisible
+                channel.truncate(fileEnd);
+                channel.force(true);
+            }
+        }
+        recordCount = committedCount;
+
+        writer = new Thread(this::writeLoop, "scores");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // Enregistrement (n'importe quel thread, sans attente)
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Ajoute une partie au journal et au classement. Ne bloque que le temps d'encoder
+     * 36 octets : l'écriture sur le disque se fait plus tard, sur le thread d'écriture.
+     *
+     * @return faux si la partie est abandonnée (écritures en retard, erreur d'écriture ou
+     *         journal fermé)
+     */
+    public boolean record(int score, int length, long durationMillis, long seed,
+                          long timestampMillis) {
+        synchronized (lock) {
+            if (closing || failure != null || pending.remaining() < ScoreLog.RECORD_SIZE) {
+                droppedCount++;
+                return false;
+            }
+            ScoreLog.encode(pending, crc, score, length, durationMillis, seed, timestampMillis);
+            top.offer(score, length, durationMillis, seed, timestampMillis);
+            recordCount++;
+            lock.notifyAll();
+            return true;
+        }
+    }
+
+    /**
+     * Attend que toutes les parties acceptées jusqu'ici soient sur le disque. Jamais depuis le
+     * thread du jeu ou le thread UI : un force() peut prendre des dizaines de millisecondes.
+     *
+     * @throws IOException si une écriture a échoué (les parties suivantes sont abandonnées)
+     */
+    public void flush() throws IOException {
+        synchronized (lock) {
+            long target = recordCount;
+            while (committedCount < target && failure == null && writerRunning) {
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Attente des écritures interrompue");
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+        }
+    }
+
+    /** Écrit les parties en attente, arrête le thread d'écriture et ferme le fichier. */
+    @Override
+    public void close() throws IOException {
+        synchronized (lock) {
+            closing = true;
+            lock.notifyAll();
+        }
+        boolean interrupted = false;
+        while (writer.isAlive()) {
+            try {
+                writer.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        channel.close();
+        synchronized (lock) {
+            if (failure != null) {
+                throw failure;
+            }
+        }
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // Lecture
+    //----------------------------------------------------------------------------------------------
+
+    /** Copie cohérente du classement (into doit avoir la capacité voulue). */
+    public void copyTop(TopScores into) {
+        synchronized (lock) {
+            top.copyInto(into);
+        }
+    }
+
+    /** Taille du classement. */
+    public int getTopCount() {
+        return top.getCapacity();
+    }
+
+    /** Parties enregistrées, y compris celles pas encore écrites sur le disque. */
+    public long getRecordCount() {
+        synchronized (lock) {
+            return recordCount;
+        }
+    }
+
+    /** Parties abandonnées par record() (écritures en retard ou en erreur). */
+    public long getDroppedCount() {
+        synchronized (lock) {
+            return droppedCount;
+        }
+    }
+
+    /** Enregistrements au CRC faux sautés à l'ouverture (parties perdues du journal). */
+    public long getCorruptCount() {
+        return corruptCount;
+    }
+
+    /** Résumé lisible : nombre de parties puis classement. */
+    public void dump(StringBuilder out) {
+        synchronized (lock) {
+            out.append(recordCount).append(" parties (").append(recordCount - committedCount)
+                    .append(" en attente, ").append(droppedCount).append(" perdues, ")
+                    .append(corruptCount).append(" illisibles)\n");
+            top.dump(out);
+        }
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // Ouverture : relecture du journal
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Vérifie les count enregistrements complets du fichier et propose les valides au
+     * classement (comptés dans committedCount) ; ceux au CRC faux sont sautés.
+     *
+     * @return nombre d'enregistrements à garder : jusqu'au dernier valide inclus
+     */
+    private long scan(long count) throws IOException {
+        byte[] chunk = new byte[SCAN_CHUNK_RECORDS * ScoreLog.RECORD_SIZE];
+        ByteBuffer view = ByteBuffer.wrap(chunk);
+        long index = 0;
+        long kept = 0;
+        while (index < count) {
+            long windowRecords = Math.min(SCAN_WINDOW_RECORDS, count - index);
+            MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY,
+                    ScoreLog.HEADER_SIZE + index * ScoreLog.RECORD_SIZE,
+                    windowRecords * ScoreLog.RECORD_SIZE);
+            while (window.hasRemaining()) {
+                int bytes = Math.min(window.remaining(), chunk.length);
+                window.get(chunk, 0, bytes);
+                for (int offset = 0; offset < bytes; offset += ScoreLog.RECORD_SIZE) {
+                    crc.reset();
+                    crc.update(chunk, offset, ScoreLog.PAYLOAD_SIZE);
+                    index++;
+                    if ((int) crc.getValue() != view.getInt(offset + ScoreLog.PAYLOAD_SIZE)) {
+                        continue;
+                    }
+                    top.offer(view.getInt(offset), view.getInt(offset + 4),
+                            view.getLong(offset + 8), view.getLong(offset + 16),
+                            view.getLong(offset + 24));
+                    committedCount++;
+                    kept = index;
+                }
+            }
+        }
+        return kept;
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // Thread d'écriture
+    //----------------------------------------------------------------------------------------------
+
+    private void writeLoop() {
+        try {
+            while (takeBatch()) {
+                int count = writing.remaining() / ScoreLog.RECORD_SIZE;
+                writeFully(writing, fileEnd);
+                channel.force(false);
+                fileEnd += (long) count * ScoreLog.RECORD_SIZE;
+                writing.clear();
+                synchronized (lock) {
+                    committedCount += count;
+                    lock.notifyAll();
+                }
+            }
+        } catch (IOException e) {
+            synchronized (lock) {
+                failure = e;
+            }
+        } finally {
+            synchronized (lock) {
+                writerRunning = false;
+                lock.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Attend des parties à écrire et échange les tampons : writing contient alors tout ce
+     * qui s'est accumulé (prêt à être lu), et record() remplit l'autre tampon.
+     *
+     * @return faux quand le journal est fermé et qu'il ne reste rien à écrire
+     */
+    private boolean takeBatch() throws InterruptedIOException {
+        synchronized (lock) {
+            while (pending.position() == 0) {
+                if (closing) {
+                    return false;
+                }
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    throw new InterruptedIOException("Thread d'écriture interrompu");
+                }
+            }
+            ByteBuffer batch = pending;
+            pending = writing;
+            writing = batch;
+        }
+        writing.flip();
+        return true;
+    }
+
+    private void writeFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.snake.scores;
+
+/**
+ * Les K meilleures parties, triées par score décroissant (à score égal, la plus ancienne
+ * d'abord). Tableaux parallèles de taille fixe : offer() ne fait qu'une comparaison pour
+ * une partie qui n'entre pas dans le classement, et n'alloue jamais.
+ * Non synchronisé : ScoreStore.copyTop() en donne une copie cohérente.
+ */
+public final class TopScores {
+
+    private final int[] scores;
+    private final int[] lengths;
+    private final long[] durations;
+    private final long[] seeds;
+    private final long[] timestamps;
+    private int size;
+
+    public TopScores(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity doit être >= 1 : " + capacity);
+        }
+        scores = new int[capacity];
+        lengths = new int[capacity];
+        durations = new long[capacity];
+        seeds = new long[capacity];
+        timestamps = new long[capacity];
+    }
+
+    /**
+     * Propose une partie au classement.
+     *
+     * @return vrai si elle y entre (la dernière en sort si le classement était plein)
+     */
+    public boolean offer(int score, int length, long durationMillis, long seed,
+                         long timestampMillis) {
+        int capacity = scores.length;
+        if (size == capacity && score <= scores[capacity - 1]) {
+            return false;
+        }
+        int i = size == capacity ? capacity - 1 : size++;
+        // Décale les scores strictement plus petits : les égaux restent devant
+        while (i > 0 && scores[i - 1] < score) {
+            scores[i] = scores[i - 1];
+            lengths[i] = lengths[i - 1];
+            durations[i] = durations[i - 1];
+            seeds[i] = seeds[i - 1];
+            timestamps[i] = timestamps[i - 1];
+            i--;
+        }
+        scores[i] = score;
+        lengths[i] = length;
+        durations[i] = durationMillis;
+        seeds[i] = seed;
+        timestamps[i] = timestampMillis;
+        return true;
+    }
+
+    /** Copie le classement dans target (tronqué à sa capacité). */
+    public void copyInto(TopScores target) {
+        int count = Math.min(size, target.scores.length);
+        System.arraycopy(scores, 0, target.scores, 0, count);
+        System.arraycopy(lengths, 0, target.lengths, 0, count);
+        System.arraycopy(durations, 0, target.durations, 0, count);
+        System.arraycopy(seeds, 0, target.seeds, 0, count);
+        System.arraycopy(timestamps, 0, target.timestamps, 0, count);
+        target.size = count;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // Accès (rang 0 = meilleur score)
+    //----------------------------------------------------------------------------------------------
+
+    public int size() {
+        return size;
+    }
+
+    public int getCapacity() {
+        return scores.length;
+    }
+
+    public int getScore(int rank) {
+        return scores[checkRank(rank)];
+    }
+
+    public int getLength(int rank) {
+        return lengths[checkRank(rank)];
+    }
+
+    public long getDurationMillis(int rank) {
+        return durations[checkRank(rank)];
+    }
+
+    /** Graine de la partie : avec son journal de commandes, elle permet de la rejouer. */
+    public long getSeed(int rank) {
+        return seeds[checkRank(rank)];
+    }
+
+    public long getTimestampMillis(int rank) {
+        return timestamps[checkRank(rank)];
+    }
+
+    /** Une ligne par partie : rang, score, longueur, durée. */
+    public void dump(StringBuilder out) {
+        for (int i = 0; i < size; i++) {
+            long seconds = durations[i] / 1000;
+            out.append(i + 1).append(". ").append(scores[i])
+                    .append(" (longueur ").append(lengths[i])
+                    .append(", ").append(seconds / 60).append(seconds % 60 < 10 ? ":0" : ":")
+                    .append(seconds % 60).append(")\n");
+        }
+    }
+
+    private int checkRank(int rank) {
+        if (rank < 0 || rank >= size) {
+            throw new IndexOutOfBoundsException("Rang " + rank + " hors de [0, " + size + ")");
+        }
+        return rank;
+    }
+}
@@ -0,0 +1,472 @@
+package com.example.snake.sim;
+
+import com.example.snake.engine.SnakeEngine;
+
+/**
+ * Pilote automatique : va chercher la pomme par le plus court chemin sans s'enfermer.
+ *  - Le corps reste rangé dans l'ordre d'un circuit hamiltonien (HamiltonianCycle) : un pas
+ *    n'est admis que s'il avance dans cet ordre sans atteindre la queue ni dépasser la
+ *    pomme. Le serpent ne peut donc pas mourir et chaque pas le rapproche de la pomme.
+ *  - Chemin tête -> pomme par A* (distance de Manhattan) restreint à ces pas, sur des
+ *    tableaux préalloués avec un tas binaire d'entiers : aucune allocation par pas. Le
+ *    chemin est gardé en cache et suivi tant qu'il reste valide (même pomme, cases libres).
+ *  - Avant d'adopter un chemin, on vérifie que le serpent virtuel arrivé sur la pomme
+ *    (corps = chemin + début du corps actuel) peut encore atteindre sa queue.
+ *  - Sans chemin (recherche bornée à MAX_EXPANSIONS cases, ou serpent occupant la moitié
+ *    du circuit), le serpent prend le plus grand raccourci admis vers la pomme, sinon la
+ *    case suivante du circuit.
+ * Sur une grille aux deux dimensions impaires, le circuit n'est pas complet : la dernière
+ * pomme peut rester hors d'atteinte. Une instance par thread (voir Policy).
+ */
+public final class AutopilotPolicy implements Policy {
+
+    /** Nombre maximal de cases explorées par recherche A*. */
+    static final int MAX_EXPANSIONS = 4096;
+
+    /** Pas d'attente avant une nouvelle recherche après un échec. */
+    private static final int RETRY_TICKS = 32;
+
+    private static final int NONE = -1;
+
+    // Grille courante
+    private int rowCount;
+    private int columnCount;
+    /** Circuit de secours (null si la grille n'en a pas, par ex. une seule ligne). */
+    private HamiltonianCycle cycle;
+
+    // A* : tableaux par case, valides seulement si stamp[cell] == generation
+    private int[] stamp;
+    private int generation;
+    private int[] gScore;
+    private int[] parent;
+    private int[] heapPos;
+    // Tas binaire (clé = f << 32 | h), borné par le nombre d'expansions
+    private final int[] heap = new int[4 * MAX_EXPANSIONS + 4];
+    private final long[] heapKey = new long[4 * MAX_EXPANSIONS + 4];
+    private int heapSize;
+
+    // Serpent virtuel (vérification de la queue) : mark[cell] == 2 * virtualGeneration pour
+    // une case du chemin, 2 * virtualGeneration + 1 pour un segment libéré
+    private int[] mark;
+    private int virtualGeneration;
+
+    // Chemin en cache : path[0] = premier pas, path[pathLength - 1] = pomme
+    private final int[] path = new int[MAX_EXPANSIONS + 1];
+    private int pathLength;
+    private int pathStep;
+    private int pathOrigin;
+    private int pathApple = NONE;
+
+    // Contraintes du circuit pour la recherche du chemin (voir isForward)
+    private int planOrigin;
+    private int planTailLimit;
+
+    /** Compteur de pas (pour espacer les recherches après un échec). */
+    private long tick;
+    private long retryAt;
+
+    @Override
+    public void onNewGame(SnakeEngine engine) {
+        ensureGrid(engine);
+        pathLength = 0;
+        pathApple = NONE;
+        retryAt = 0;
+    }
+
+    @Override
+    public int chooseDirection(SnakeEngine engine) {
+        ensureGrid(engine);
+        tick++;
+        int head = engine.getHeadCell();
+        int length = engine.getLength();
+        int target = NONE;
+
+        // 1) Raccourci vers la pomme, tant que le serpent est court
+        boolean shortcuts = cycle == null || length < cycle.length() / 2;
+        if (shortcuts && engine.getAppleCell() != SnakeEngine.NO_APPLE) {
+            int next = nextPathCell(engine, head);
+            if (next != NONE && isShortcutSafe(engine, head, next)) {
+                target = next;
+                pathStep++;
+            } else if (next != NONE) {
+                // Pas refusé par la règle du circuit (ne devrait pas arriver) : on recalculera
+                pathLength = 0;
+            }
+        }
+
+        // 2) Raccourci le long du circuit : le plus grand saut autorisé sans dépasser la pomme
+        if (target == NONE && cycle != null
+                && engine.getAppleCell() != SnakeEngine.NO_APPLE) {
+            target = cycleShortcut(engine, head);
+        }
+
+        // 3) Sinon, suivre le circuit
+        if (target == NONE && cycle != null) {
+            int next = cycle.successor(head);
+            if (isFree(engine, next)) {
+                target = next;
+            }
+        }
+        if (target != NONE) {
+            return directionTo(head, target);
+        }
+
+        // 4) En dernier recours, n'importe quel pas qui ne termine pas la partie
+        int headRow = head / columnCount;
+        int headCol = head % columnCount;
+        for (int direction = SnakeEngine.UP; direction <= SnakeEngine.RIGHT; direction++) {
+            if (GreedyPolicy.isSafe(engine, headRow, headCol, direction)) {
+                return direction;
+            }
+        }
+        return engine.getDirection();
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // Chemin vers la pomme
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Prochaine case du chemin vers la pomme (en cache, ou recalculé), ou NONE s'il n'y a pas
+     * de chemin sûr connu.
+     */
+    private int nextPathCell(SnakeEngine engine, int head) {
+        int apple = engine.getAppleCell();
+        boolean valid = pathLength > 0 && apple == pathApple && pathStep < pathLength
+                && head == (pathStep == 0 ? pathOrigin : path[pathStep - 1])
+                && isFree(engine, path[pathStep]);
+        if (!valid) {
+            pathLength = 0;
+            if (tick < retryAt) {
+                return NONE;
+            }
+            if (!findPath(engine, head, apple) || !canReachTailAfterPath(engine)) {
+                pathLength = 0;
+                retryAt = tick + RETRY_TICKS;
+                return NONE;
+            }
+            pathApple = apple;
+            pathOrigin = head;
+            pathStep = 0;
+        }
+        return path[pathStep];
+    }
+
+    /** A* de head à apple ; remplit path et pathLength. */
+    private boolean findPath(SnakeEngine engine, int head, int apple) {
+        int length = engine.getLength();
+        int tail = engine.getSegmentCell(length - 1);
+        if (cycle != null) {
+            planOrigin = head;
+            planTailLimit = length == 1 ? cycle.length() : cycle.distance(head, tail);
+        }
+        int found = search(engine, head, apple, tail, false);
+        if (found == NONE) {
+            return false;
+        }
+        // Reconstruit le chemin à l'envers depuis la pomme
+        int steps = 0;
+        for (int cell = apple; cell != head; cell = parent[cell]) {
+            steps++;
+        }
+        if (steps > path.length) {
+            return false;
+        }
+        int i = steps;
+        for (int cell = apple; cell != head; cell = parent[cell]) {
+            path[--i] = cell;
+        }
+        pathLength = steps;
+        return true;
+    }
+
+    /**
+     * Vrai si, une fois la pomme mangée au bout du chemin, la tête peut encore rejoindre la
+     * queue : le serpent ne s'est pas enfermé.
+     */
+    private boolean canReachTailAfterPath(SnakeEngine engine) {
+        int length = engine.getLength();
+        int p = pathLength;
+        virtualGeneration++;
+        int pathMark = 2 * virtualGeneration;
+        for (int i = 0; i < p; i++) {
+            mark[path[i]] = pathMark;
+        }
+        // Le serpent grandit d'un segment : ses p - 1 derniers segments sont libérés
+        for (int j = Math.max(0, length + 1 - p); j < length; j++) {
+            mark[engine.getSegmentCell(j)] = pathMark + 1;
+        }
+        int virtualTail = length < p
+                ? path[p - 1 - length]
+                : engine.getSegmentCell(length - p);
+        return search(engine, path[p - 1], virtualTail, NONE, true) != NONE;
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // A*
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Recherche A* de from à to (4 voisins, distance de Manhattan), bornée à MAX_EXPANSIONS.
+     *
+     * @param passable case occupée mais franchissable (la queue, qui se libère), ou NONE
+     * @param virtual  vrai pour bloquer les cases du serpent virtuel (voir mark)
+     * @return to si la cible est atteinte, NONE sinon
+     */
+    private int search(SnakeEngine engine, int from, int to, int passable, boolean virtual) {
+        generation++;
+        heapSize = 0;
+        int toRow = to / columnCount;
+        int toCol = to % columnCount;
+        visit(from, NONE, 0, toRow, toCol);
+
+        int expansions = 0;
+        while (heapSize > 0 && expansions < MAX_EXPANSIONS) {
+            int u = pop();
+            if (u == to) {
+                return to;
+            }
+            expansions++;
+            int row = u / columnCount;
+            int col = u % columnCount;
+            int g = gScore[u] + 1;
+            if (row > 0) relax(engine, u, u - columnCount, g, to, passable, virtual, toRow, toCol);
+            if (row < rowCount - 1) relax(engine, u, u + columnCount, g, to, passable, virtual, toRow, toCol);
+            if (col > 0) relax(engine, u, u - 1, g, to, passable, virtual, toRow, toCol);
+            if (col < columnCount - 1) relax(engine, u, u + 1, g, to, passable, virtual, toRow, toCol);
+        }
+        return NONE;
+    }
+
+    private void relax(SnakeEngine engine, int u, int v, int g, int to, int passable,
+                       boolean virtual, int toRow, int toCol) {
+        if (v != to && isBlocked(engine, v, passable, virtual)) {
+            return;
+        }
+        if (!virtual && cycle != null && !isForward(engine, u, v)) {
+            return;
+        }
+        if (stamp[v] != generation) {
+            visit(v, u, g, toRow, toCol);
+        } else if (g < gScore[v] && heapPos[v] >= 0) {
+            gScore[v] = g;
+            parent[v] = u;
+            int h = manhattan(v, toRow, toCol);
+            heapKey[heapPos[v]] = ((long) (g + h) << 32) | h;
+            siftUp(heapPos[v]);
+        }
+    }
+
+    /**
+     * Arc u -> v admis dans le chemin vers la pomme : il avance dans l'ordre du circuit vu
+     * depuis la tête, sans atteindre la queue ni dépasser la pomme. Chaque pas du chemin
+     * respecte alors la règle de isShortcutSafe (la queue ne fait qu'avancer) : le chemin
+     * reste valable jusqu'à la pomme.
+     */
+    private boolean isForward(SnakeEngine engine, int u, int v) {
+        int du = cycle.distance(planOrigin, u);
+        int dv = cycle.distance(planOrigin, v);
+        return dv > du && dv < planTailLimit && isBeforeApple(engine, planOrigin, v, dv);
+    }
+
+    private boolean isBlocked(SnakeEngine engine, int cell, int passable, boolean virtual) {
+        if (!virtual) {
+            return engine.isOccupied(cell) && cell != passable;
+        }
+        int m = mark[cell];
+        if (m == 2 * virtualGeneration) {
+            return true;
+        }
+        return engine.isOccupied(cell) && m != 2 * virtualGeneration + 1;
+    }
+
+    private void visit(int cell, int from, int g, int toRow, int toCol) {
+        stamp[cell] = generation;
+        gScore[cell] = g;
+        parent[cell] = from;
+        heapPos[cell] = NONE;
+        if (heapSize == heap.length) {
+            // Tas plein (ne peut arriver qu'en fin de budget) : case ignorée
+            return;
+        }
+        int h = manhattan(cell, toRow, toCol);
+        heap[heapSize] = cell;
+        heapKey[heapSize] = ((long) (g + h) << 32) | h;
+        heapPos[cell] = heapSize;
+        siftUp(heapSize++);
+    }
+
+    private int manhattan(int cell, int toRow, int toCol) {
+        return Math.abs(cell / columnCount - toRow) + Math.abs(cell % columnCount - toCol);
+    }
+
+    private int pop() {
+        int top = heap[0];
+        heapPos[top] = NONE;
+        heapSize--;
+        if (heapSize > 0) {
+            heap[0] = heap[heapSize];
+            heapKey[0] = heapKey[heapSize];
+            heapPos[heap[0]] = 0;
+            siftDown(0);
+        }
+        return top;
+    }
+
+    private void siftUp(int i) {
+        int cell = heap[i];
+        long key = heapKey[i];
+        while (i > 0) {
+            int p = (i - 1) >>> 1;
+            if (heapKey[p] <= key) {
+                break;
+            }
+            heap[i] = heap[p];
+            heapKey[i] = heapKey[p];
+            heapPos[heap[i]] = i;
+            i = p;
+        }
+        heap[i] = cell;
+        heapKey[i] = key;
+        heapPos[cell] = i;
+    }
+
+    private void siftDown(int i) {
+        int cell = heap[i];
+        long key = heapKey[i];
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= heapSize) {
+                break;
+            }
+            if (child + 1 < heapSize && heapKey[child + 1] < heapKey[child]) {
+                child++;
+            }
+            if (heapKey[child] >= key) {
+                break;
+            }
+            heap[i] = heap[child];
+            heapKey[i] = heapKey[child];
+            heapPos[heap[i]] = i;
+            i = child;
+        }
+        heap[i] = cell;
+        heapKey[i] = key;
+        heapPos[cell] = i;
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // Circuit et utilitaires
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Règle du circuit : en suivant l'ordre du circuit, la nouvelle tête doit rester avant
+     * la queue (le corps reste alors rangé entre la queue et la tête dans cet ordre, et le
+     * serpent peut toujours finir en suivant le circuit) et ne pas dépasser la pomme (chaque
+     * pas rapproche alors la tête de la pomme dans cet ordre : pas de boucle sans fin).
+     */
+    private boolean isShortcutSafe(SnakeEngine engine, int head, int next) {
+        if (cycle == null) {
+            return true;
+        }
+        int length = engine.getLength();
+        int distance = cycle.distance(head, next);
+        if (!isBeforeApple(engine, head, next, distance)) {
+            return false;
+        }
+        return length == 1 || distance < cycle.distance(head, engine.getSegmentCell(length - 1));
+    }
+
+    /**
+     * Voisin libre qui avance le plus loin dans l'ordre du circuit en respectant la règle
+     * (isShortcutSafe) et sans dépasser la pomme, ou NONE.
+     */
+    private int cycleShortcut(SnakeEngine engine, int head) {
+        int length = engine.getLength();
+        int limitTail = length == 1
+                ? cycle.length() : cycle.distance(head, engine.getSegmentCell(length - 1));
+
+        int row = head / columnCount;
+        int col = head % columnCount;
+        int best = NONE;
+        int bestDistance = 0;
+        for (int direction = SnakeEngine.UP; direction <= SnakeEngine.RIGHT; direction++) {
+            int next = neighbour(row, col, direction);
+            if (next == NONE || !isFree(engine, next)) {
+                continue;
+            }
+            int distance = cycle.distance(head, next);
+            if (distance < limitTail && distance > bestDistance
+                    && isBeforeApple(engine, head, next, distance)) {
+                best = next;
+                bestDistance = distance;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Vrai si next (à distance pas de head) ne dépasse pas la pomme dans l'ordre du circuit.
+     * Sur une grille impaire, le coin et la case qu'il remplace ont la même position : seule
+     * la pomme elle-même peut alors être atteinte à sa distance.
+     */
+    private boolean isBeforeApple(SnakeEngine engine, int head, int next, int distance) {
+        int apple = engine.getAppleCell();
+        if (next == apple) {
+            return true;
+        }
+        int appleDistance = cycle.distance(head, apple);
+        return distance < (appleDistance == 0 ? cycle.length() : appleDistance);
+    }
+
+    /** Case voisine dans la direction donnée, ou NONE hors de la grille. */
+    private int neighbour(int row, int col, int direction) {
+        switch (direction) {
+            case SnakeEngine.UP:    return col > 0 ? row * columnCount + col - 1 : NONE;
+            case SnakeEngine.DOWN:  return col < columnCount - 1 ? row * columnCount + col + 1 : NONE;
+            case SnakeEngine.LEFT:  return row > 0 ? (row - 1) * columnCount + col : NONE;
+            default:                return row < rowCount - 1 ? (row + 1) * columnCount + col : NONE;
+        }
+    }
+
+    /** Vrai si la tête peut entrer dans la case au prochain pas. */
+    private static boolean isFree(SnakeEngine engine, int cell) {
+        if (!engine.isOccupied(cell)) {
+            return true;
+        }
+        // La queue libère sa case, sauf si le serpent mange (ou s'il est réduit à sa tête)
+        int length = engine.getLength();
+        return length > 2 && cell == engine.getSegmentCell(length - 1)
+                && cell != engine.getAppleCell();
+    }
+
+    private int directionTo(int from, int to) {
+        int diff = to - from;
+        if (diff == -columnCount) return SnakeEngine.LEFT;
+        if (diff == columnCount) return SnakeEngine.RIGHT;
+        return diff < 0 ? SnakeEngine.UP : SnakeEngine.DOWN;
+    }
+
+    /** (Ré)alloue les tableaux si la grille a changé. */
+    private void ensureGrid(SnakeEngine engine) {
+        if (stamp != null && engine.getRowCount() == rowCount
+                && engine.getColumnCount() == columnCount) {
+            return;
+        }
+        rowCount = engine.getRowCount();
+        columnCount = engine.getColumnCount();
+        cycle = rowCount >= 2 && columnCount >= 2
+                ? HamiltonianCycle.forGrid(rowCount, columnCount)
+                : null;
+        int cells = rowCount * columnCount;
+        stamp = new int[cells];
+        gScore = new int[cells];
+        parent = new int[cells];
+        heapPos = new int[cells];
+        mark = new int[cells];
+        generation = 0;
+        virtualGeneration = 0;
+        pathLength = 0;
+        pathApple = NONE;
+    }
+}
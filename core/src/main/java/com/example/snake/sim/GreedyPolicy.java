@@ -0,0 +1,59 @@
+package com.example.snake.sim;
+
+import com.example.snake.engine.SnakeEngine;
+
+/**
+ * Stratégie gloutonne : première direction rapprochant de la pomme dont la case d'arrivée
+ * est libre, sinon n'importe quelle direction libre, sinon tout droit.
+ * Ne regarde qu'un pas en avant : elle finit par s'enfermer dans son propre corps.
+ */
+public final class GreedyPolicy implements Policy {
+
+    private final int[] preferred = new int[2];
+
+    @Override
+    public int chooseDirection(SnakeEngine engine) {
+        int columnCount = engine.getColumnCount();
+        int head = engine.getHeadCell();
+        int headRow = head / columnCount;
+        int headCol = head % columnCount;
+
+        int n = 0;
+        int apple = engine.getAppleCell();
+        if (apple != SnakeEngine.NO_APPLE) {
+            int dRow = apple / columnCount - headRow;
+            int dCol = apple % columnCount - headCol;
+            if (dRow != 0) preferred[n++] = dRow < 0 ? SnakeEngine.LEFT : SnakeEngine.RIGHT;
+            if (dCol != 0) preferred[n++] = dCol < 0 ? SnakeEngine.UP : SnakeEngine.DOWN;
+        }
+        for (int i = 0; i < n; i++) {
+            if (isSafe(engine, headRow, headCol, preferred[i])) {
+                return preferred[i];
+            }
+        }
+        for (int direction = SnakeEngine.UP; direction <= SnakeEngine.RIGHT; direction++) {
+            if (isSafe(engine, headRow, headCol, direction)) {
+                return direction;
+            }
+        }
+        return engine.getDirection();
+    }
+
+    /** Vrai si le pas dans cette direction ne termine pas la partie. */
+    static boolean isSafe(SnakeEngine engine, int headRow, int headCol, int direction) {
+        if (engine.getLength() > 1 && SnakeEngine.isReversal(engine.getDirection(), direction)) {
+            return false;
+        }
+        int row = headRow + SnakeEngine.deltaRow(direction);
+        int col = headCol + SnakeEngine.deltaCol(direction);
+        if (row < 0 || row >= engine.getRowCount() || col < 0 || col >= engine.getColumnCount()) {
+            // Le bord bloque la tête : elle resterait sur place, sur son propre corps
+            return engine.getLength() == 1;
+        }
+        int cell = engine.cellOf(row, col);
+        // La queue libère sa case pendant le pas (sauf si le serpent mange la pomme)
+        return !engine.isOccupied(cell)
+                || (cell == engine.getSegmentCell(engine.getLength() - 1)
+                    && cell != engine.getAppleCell());
+    }
+}
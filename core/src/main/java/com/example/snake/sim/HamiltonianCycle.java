@@ -0,0 +1,169 @@
+package com.example.snake.sim;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Circuit fermé passant une fois par chaque case de la grille (cycle hamiltonien), calculé
+ * une seule fois par taille de grille puis partagé (cache) :
+ *  - Au moins une dimension paire : le circuit couvre toute la grille.
+ *  - Dimensions toutes deux impaires : un tel circuit n'existe pas ; il couvre toutes les
+ *    cases sauf le coin bas-gauche (index -1). Ce coin reste atteignable par un détour qui
+ *    remplace sa voisine (R-2, 1) : il prend sa position (voir position et successor).
+ * Un serpent qui suit le circuit ne se mord jamais ; il peut prendre des raccourcis tant
+ * qu'il ne dépasse pas sa propre queue dans l'ordre du circuit (voir AutopilotPolicy).
+ * Immuable après construction : utilisable depuis plusieurs threads.
+ */
+public final class HamiltonianCycle {
+
+    private static final ConcurrentMap<Long, HamiltonianCycle> CACHE = new ConcurrentHashMap<>();
+
+    private final int rowCount;
+    private final int columnCount;
+
+    /** Cases du circuit, dans l'ordre de parcours. */
+    private final int[] order;
+    /** Position de chaque case dans order (-1 si la case est hors circuit). */
+    private final int[] index;
+    /** Coin hors circuit des grilles impaires, ou -1. */
+    private final int detourCell;
+    /** Position prise par le coin lors du détour (celle de la case (R-2, 1)). */
+    private final int detourPosition;
+
+    /**
+     * Circuit de la grille rowCount x columnCount (au moins 2 x 2), calculé au premier appel.
+     */
+    public static HamiltonianCycle forGrid(int rowCount, int columnCount) {
+        if (rowCount < 2 || columnCount < 2) {
+            throw new IllegalArgumentException(
+                    "Pas de circuit sur une grille " + rowCount + "x" + columnCount);
+        }
+        long key = ((long) rowCount << 32) | columnCount;
+        return CACHE.computeIfAbsent(key, k -> new HamiltonianCycle(rowCount, columnCount));
+    }
+
+    private HamiltonianCycle(int rowCount, int columnCount) {
+        this.rowCount = rowCount;
+        this.columnCount = columnCount;
+        boolean odd = rowCount % 2 == 1 && columnCount % 2 == 1;
+        order = new int[rowCount * columnCount - (odd ? 1 : 0)];
+        if (rowCount % 2 == 0) {
+            buildEven(rowCount, columnCount, false);
+        } else if (columnCount % 2 == 0) {
+            // Même tracé sur la grille transposée
+            buildEven(columnCount, rowCount, true);
+        } else {
+            buildOdd();
+        }
+
+        index = new int[rowCount * columnCount];
+        Arrays.fill(index, -1);
+        for (int i = 0; i < order.length; i++) {
+            index[order[i]] = i;
+        }
+        detourCell = odd ? (rowCount - 1) * columnCount : -1;
+        detourPosition = odd ? index[(rowCount - 2) * columnCount + 1] : -1;
+    }
+
+    /**
+     * rows pair : première ligne de gauche à droite, zigzag sur les colonnes 1.. des lignes
+     * suivantes, retour par la colonne 0.
+     */
+    private void buildEven(int rows, int columns, boolean transposed) {
+        int k = 0;
+        for (int c = 0; c < columns; c++) {
+            order[k++] = cell(0, c, transposed);
+        }
+        for (int r = 1; r < rows; r++) {
+            if (r % 2 == 1) {
+                for (int c = columns - 1; c >= 1; c--) order[k++] = cell(r, c, transposed);
+            } else {
+                for (int c = 1; c < columns; c++) order[k++] = cell(r, c, transposed);
+            }
+        }
+        for (int r = rows - 1; r >= 1; r--) {
+            order[k++] = cell(r, 0, transposed);
+        }
+    }
+
+    /**
+     * Dimensions impaires : comme buildEven jusqu'à l'avant-dernière paire de lignes, puis
+     * zigzag vertical sur les deux dernières lignes (colonnes C-1 à 1), retour par la
+     * colonne 0 en sautant le coin (R-1, 0).
+     */
+    private void buildOdd() {
+        int rows = rowCount;
+        int columns = columnCount;
+        int k = 0;
+        for (int c = 0; c < columns; c++) {
+            order[k++] = cell(0, c, false);
+        }
+        for (int r = 1; r <= rows - 3; r++) {
+            if (r % 2 == 1) {
+                for (int c = columns - 1; c >= 1; c--) order[k++] = cell(r, c, false);
+            } else {
+                for (int c = 1; c < columns; c++) order[k++] = cell(r, c, false);
+            }
+        }
+        for (int c = columns - 1; c >= 1; c--) {
+            boolean down = (columns - 1 - c) % 2 == 0;
+            order[k++] = cell(down ? rows - 2 : rows - 1, c, false);
+            order[k++] = cell(down ? rows - 1 : rows - 2, c, false);
+        }
+        for (int r = rows - 2; r >= 1; r--) {
+            order[k++] = cell(r, 0, false);
+        }
+    }
+
+    private int cell(int row, int col, boolean transposed) {
+        return transposed ? col * columnCount + row : row * columnCount + col;
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // Requêtes
+    //----------------------------------------------------------------------------------------------
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    public int getColumnCount() {
+        return columnCount;
+    }
+
+    /** Nombre de cases du circuit. */
+    public int length() {
+        return order.length;
+    }
+
+    /** Case à la position i du circuit. */
+    public int cellAt(int i) {
+        return order[i];
+    }
+
+    /** Position de la case dans le circuit, ou -1 si elle est hors circuit. */
+    public int indexOf(int cell) {
+        return index[cell];
+    }
+
+    /**
+     * Position de la case pour l'ordre du circuit : son index, ou pour le coin hors circuit
+     * celui de la case qu'il remplace lors du détour. Définie pour toutes les cases.
+     */
+    public int position(int cell) {
+        return cell == detourCell ? detourPosition : index[cell];
+    }
+
+    /** Case suivante dans l'ordre du circuit (depuis le coin : sortie du détour). */
+    public int successor(int cell) {
+        int i = position(cell) + 1;
+        return order[i == order.length ? 0 : i];
+    }
+
+    /** Nombre de pas pour aller de from à to dans l'ordre du circuit (voir position). */
+    public int distance(int from, int to) {
+        int d = position(to) - position(from);
+        return d < 0 ? d + order.length : d;
+    }
+}
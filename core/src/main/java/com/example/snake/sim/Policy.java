@@ -0,0 +1,21 @@
+package com.example.snake.sim;
+
+import com.example.snake.engine.SnakeEngine;
+
+/**
+ * Stratégie de jeu : choisit la direction du prochain pas à partir de l'état du moteur.
+ * Une instance n'est utilisée que par un seul thread à la fois (le simulateur en crée une
+ * par thread) ; elle peut donc garder un état interne sans synchronisation, mais ne doit
+ * rien allouer à chaque pas.
+ */
+public interface Policy {
+
+    /** Début d'une nouvelle partie (moteur tout juste réinitialisé). */
+    default void onNewGame(SnakeEngine engine) {
+    }
+
+    /**
+     * @return l'une des constantes SnakeEngine.UP, DOWN, LEFT, RIGHT
+     */
+    int chooseDirection(SnakeEngine engine);
+}
@@ -0,0 +1,201 @@
+package com.example.snake.sim;
+
+import com.example.snake.engine.SnakeEngine;
+import com.example.snake.engine.SnakeRandom;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Supplier;
+
+/**
+ * Simulateur sans affichage : joue N parties indépendantes en parallèle sur tous les cœurs.
+ *  - Pool fork/join (vol de tâches) : les plages de parties sont découpées récursivement,
+ *    les threads inoccupés volent le travail des autres.
+ *  - Chaque thread réutilise son propre moteur et sa propre stratégie d'une partie à
+ *    l'autre, et cumule ses résultats localement : aucune allocation ni synchronisation
+ *    par pas de jeu.
+ *  - La partie i utilise la graine SnakeRandom.mix(baseSeed + i) : les résultats ne
+ *    dépendent pas du nombre de threads.
+ *
+ * Exemple : new SimulationRunner(11, 11, GreedyPolicy::new, 32).run(1_000_000, 42L, 100_000)
+ */
+public final class SimulationRunner implements AutoCloseable {
+
+    /** Nombre de tâches visé par thread (équilibrage quand les parties ont des durées variées). */
+    private static final int TASKS_PER_THREAD = 16;
+
+    private final int rowCount;
+    private final int columnCount;
+    private final Supplier<? extends Policy> policyFactory;
+    private final ForkJoinPool pool;
+
+    /**
+     * @param rowCount      nombre de lignes de la grille
+     * @param columnCount   nombre de colonnes de la grille
+     * @param policyFactory crée une stratégie par thread
+     * @param parallelism   nombre de threads (par ex. Runtime.availableProcessors())
+     */
+    public SimulationRunner(int rowCount, int columnCount,
+                            Supplier<? extends Policy> policyFactory, int parallelism) {
+        if (rowCount <= 0 || columnCount <= 0) {
+            throw new IllegalArgumentException(
+                    "Grille invalide : " + rowCount + "x" + columnCount);
+        }
+        this.rowCount = rowCount;
+        this.columnCount = columnCount;
+        this.policyFactory = policyFactory;
+        this.pool = new ForkJoinPool(parallelism);
+    }
+
+    /**
+     * Joue gameCount parties et agrège leurs résultats.
+     *
+     * @param gameCount       nombre de parties (>= 0)
+     * @param baseSeed        graine de la série (partie i : SnakeRandom.mix(baseSeed + i))
+     * @param maxTicksPerGame limite de pas par partie (une stratégie peut tourner en rond)
+     */
+    public SimulationStats run(long gameCount, long baseSeed, long maxTicksPerGame) {
+        if (gameCount < 0 || maxTicksPerGame <= 0) {
+            throw new IllegalArgumentException(
+                    "Paramètres invalides : " + gameCount + " parties, " + maxTicksPerGame + " pas");
+        }
+        Run run = new Run(baseSeed, maxTicksPerGame);
+        long grain = Math.max(1, gameCount / ((long) pool.getParallelism() * TASKS_PER_THREAD));
+
+        long start = System.nanoTime();
+        pool.invoke(new GameRange(run, 0, gameCount, grain));
+        long elapsed = System.nanoTime() - start;
+
+        SimulationStats total = new SimulationStats();
+        for (Worker worker : run.workers) {
+            total.add(worker.stats);
+        }
+        total.setElapsedNanos(elapsed);
+        return total;
+    }
+
+    public int getParallelism() {
+        return pool.getParallelism();
+    }
+
+    /** Arrête les threads du pool. */
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // Exécution
+    //----------------------------------------------------------------------------------------------
+
+    /** État d'une série : un Worker par thread qui y participe. */
+    private final class Run {
+        final long baseSeed;
+        final long maxTicksPerGame;
+        final Queue<Worker> workers = new ConcurrentLinkedQueue<>();
+        final ThreadLocal<Worker> localWorker = ThreadLocal.withInitial(() -> {
+            Worker worker = new Worker(new SnakeEngine(rowCount, columnCount, 0L),
+                    policyFactory.get());
+            workers.add(worker);
+            return worker;
+        });
+
+        Run(long baseSeed, long maxTicksPerGame) {
+            this.baseSeed = baseSeed;
+            this.maxTicksPerGame = maxTicksPerGame;
+        }
+    }
+
+    /** Moteur, stratégie et résultats d'un thread, réutilisés pour toutes ses parties. */
+    private static final class Worker {
+        final SnakeEngine engine;
+        final Policy policy;
+        final SimulationStats stats = new SimulationStats();
+
+        Worker(SnakeEngine engine, Policy policy) {
+            this.engine = engine;
+            this.policy = policy;
+        }
+
+        void play(long seed, long maxTicks) {
+            engine.reset(seed);
+            policy.onNewGame(engine);
+            long ticks = 0;
+            while (!engine.isGameOver() && ticks < maxTicks) {
+                engine.tick(policy.chooseDirection(engine));
+                ticks++;
+            }
+            stats.recordGame(engine.getScore(), engine.getLength(), ticks,
+                    engine.hasWon(), !engine.isGameOver());
+        }
+    }
+
+    /** Plage de parties [from, to), découpée en deux tant qu'elle dépasse grain. */
+    private static final class GameRange extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Run run;
+        private final long from;
+        private final long to;
+        private final long grain;
+
+        GameRange(Run run, long from, long to, long grain) {
+            this.run = run;
+            this.from = from;
+            this.to = to;
+            this.grain = grain;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= grain) {
+                Worker worker = run.localWorker.get();
+                for (long i = from; i < to; i++) {
+                    worker.play(SnakeRandom.mix(run.baseSeed + i), run.maxTicksPerGame);
+                }
+                return;
+            }
+            long middle = (from + to) >>> 1;
+            invokeAll(new GameRange(run, from, middle, grain),
+                    new GameRange(run, middle, to, grain));
+        }
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // Ligne de commande
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * java -cp core.jar com.example.snake.sim.SimulationRunner lignes colonnes parties
+     *     [graine [greedy|autopilot]]
+     * Joue les parties avec la stratégie choisie (gloutonne par défaut) sur tous les cœurs et
+     * affiche le résumé.
+     */
+    public static void main(String[] args) {
+        if (args.length < 3) {
+            System.err.println(
+                    "Usage : SimulationRunner lignes colonnes parties [graine [greedy|autopilot]]");
+            System.exit(2);
+        }
+        int rows = Integer.parseInt(args[0]);
+        int columns = Integer.parseInt(args[1]);
+        long games = Long.parseLong(args[2]);
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : System.nanoTime();
+        boolean autopilot = args.length > 4 && args[4].equals("autopilot");
+        long maxTicks = 100L * rows * columns;
+
+        Supplier<Policy> policies = autopilot ? AutopilotPolicy::new : GreedyPolicy::new;
+        try (SimulationRunner runner = new SimulationRunner(rows, columns, policies,
+                Runtime.getRuntime().availableProcessors())) {
+            SimulationStats stats = runner.run(games, seed, maxTicks);
+            StringBuilder out = new StringBuilder();
+            out.append(runner.getParallelism()).append(" threads, grille ")
+                    .append(rows).append('x').append(columns).append(", graine ")
+                    .append(seed).append('\n');
+            stats.dump(out);
+            System.out.println(out);
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.example.snake.arena;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.example.snake.engine.SnakeEngine;
+import com.example.snake.replay.InputLogReader;
+import com.example.snake.replay.InputLogWriter;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Tests de l'arène à plusieurs serpents.
+ */
+public class ArenaTest {
+
+    @Test
+    public void results_doNotDependOnParallelism() {
+        long single;
+        long parallel;
+        try (Arena arena = new Arena(256, 256, 2_000, 2_000, 42L, new ArenaGreedyPolicy(), 1)) {
+            run(arena, 300);
+            single = arena.stateHash();
+            assertTrue(arena.getApplesEaten() > 0);
+            assertTrue(arena.getDeathCount() > 0);
+        }
+        try (Arena arena = new Arena(256, 256, 2_000, 2_000, 42L, new ArenaGreedyPolicy(), 4)) {
+            run(arena, 300);
+            parallel = arena.stateHash();
+        }
+
+        assertEquals(single, parallel);
+    }
+
+    @Test
+    public void ownershipGrid_matchesBodiesAfterEveryTick() {
+        try (Arena arena = new Arena(64, 64, 300, 200, 7L, new ArenaGreedyPolicy(), 2)) {
+            for (int tick = 0; tick < 500; tick++) {
+                arena.tick();
+
+                int occupied = 0;
+                for (int s = 0; s < arena.getSnakeCount(); s++) {
+                    for (int i = 0; i < arena.getLength(s); i++) {
+                        assertEquals(s, arena.getSnakeAt(arena.getSegmentCell(s, i)));
+                    }
+                    occupied += arena.getLength(s);
+                }
+                int snakeCells = 0;
+                int apples = 0;
+                for (int cell = 0; cell < 64 * 64; cell++) {
+                    if (arena.getSnakeAt(cell) != Arena.NO_SNAKE) snakeCells++;
+                    if (arena.isApple(cell)) apples++;
+                }
+                assertEquals(occupied, snakeCells);
+                assertEquals(arena.getAppleCount(), apples);
+            }
+            assertEquals(200, arena.getAppleCount());
+            assertEquals(300, arena.getAliveCount());
+        }
+    }
+
+    @Test
+    public void headToHead_killsBoth() {
+        int[] directions = {SnakeEngine.DOWN, SnakeEngine.UP};
+        try (Arena arena = scripted(1, 5, 2, directions)) {
+            arena.place(0, SnakeEngine.DOWN, 1);
+            arena.place(1, SnakeEngine.UP, 3);
+
+            arena.tick();
+
+            assertEquals(2, arena.getDeathCount());
+            assertEquals(0, arena.getMoveCount());
+        }
+    }
+
+    @Test
+    public void headOnBody_killsOnlyTheMover() {
+        int[] directions = {SnakeEngine.DOWN, SnakeEngine.RIGHT};
+        try (Arena arena = scripted(3, 5, 2, directions)) {
+            arena.place(0, SnakeEngine.DOWN,
+                    arena.cellOf(1, 3), arena.cellOf(1, 2), arena.cellOf(1, 1));
+            arena.place(1, SnakeEngine.RIGHT, arena.cellOf(0, 2));
+
+            arena.tick();
+
+            assertEquals(1, arena.getDeathCount());
+            assertEquals(arena.cellOf(1, 4), arena.getHeadCell(0));
+            assertEquals(3, arena.getLength(0));
+        }
+    }
+
+    @Test
+    public void ownTail_isFreedButOtherTailIsNot() {
+        // Serpent 0 : boucle 2 x 2 qui se mord la queue ; serpent 1 vise la queue du serpent 2
+        int[] directions = {SnakeEngine.RIGHT, SnakeEngine.DOWN, SnakeEngine.DOWN};
+        try (Arena arena = scripted(2, 8, 3, directions)) {
+            arena.place(0, SnakeEngine.UP, arena.cellOf(0, 0), arena.cellOf(0, 1),
+                    arena.cellOf(1, 1), arena.cellOf(1, 0));
+            arena.place(1, SnakeEngine.DOWN, arena.cellOf(0, 3));
+            arena.place(2, SnakeEngine.DOWN, arena.cellOf(0, 5), arena.cellOf(0, 4));
+
+            arena.tick();
+
+            assertEquals(arena.cellOf(1, 0), arena.getHeadCell(0));
+            assertEquals(4, arena.getLength(0));
+            assertEquals(arena.cellOf(0, 6), arena.getHeadCell(2));
+            assertEquals(1, arena.getDeathCount());
+        }
+    }
+
+    @Test
+    public void wall_kills() {
+        try (Arena arena = scripted(1, 5, 1, new int[]{SnakeEngine.UP})) {
+            arena.place(0, SnakeEngine.UP, 0);
+
+            arena.tick();
+
+            assertEquals(1, arena.getDeathCount());
+            // Réapparu au même pas
+            assertTrue(arena.isAlive(0));
+            assertEquals(1, arena.getLength(0));
+        }
+    }
+
+    @Test
+    public void replayPolicy_followsRecordedInputs() throws IOException {
+        int[] inputs = {SnakeEngine.RIGHT, SnakeEngine.RIGHT, SnakeEngine.DOWN, SnakeEngine.DOWN};
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        InputLogWriter writer = new InputLogWriter(bytes);
+        writer.begin(11, 11, 1L);
+        SnakeEngine engine = new SnakeEngine(11, 11, 1L);
+        for (int direction : inputs) {
+            engine.tick(direction);
+            writer.record(direction);
+        }
+        writer.finish(engine);
+        InputLogReader log = new InputLogReader(ByteBuffer.wrap(bytes.toByteArray()));
+
+        try (Arena arena = new Arena(20, 20, 1, 0, 3L, new ArenaReplayPolicy(log), 1)) {
+            arena.place(0, SnakeEngine.UP, arena.cellOf(5, 5));
+            for (int i = 0; i < 6; i++) {
+                arena.tick();
+            }
+
+            // 2 pas vers le bas de la grille, 2 vers la droite, puis tout droit (journal fini)
+            assertEquals(arena.cellOf(7, 9), arena.getHeadCell(0));
+            assertEquals(0, arena.getDeathCount());
+            assertEquals(1, arena.getLength(0));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_rejectsOvercrowdedGrid() {
+        new Arena(10, 10, 40, 11, 0L, new ArenaGreedyPolicy(), 1);
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // Utilitaires
+    //----------------------------------------------------------------------------------------------
+
+    private static void run(Arena arena, int ticks) {
+        for (int i = 0; i < ticks; i++) {
+            arena.tick();
+        }
+    }
+
+    /** Arène sans pomme dont chaque serpent suit une direction fixe. */
+    private static Arena scripted(int rows, int columns, int snakes, int[] directions) {
+        return new Arena(rows, columns, snakes, 0, 1L, (arena, s) -> directions[s], 1);
+    }
+}
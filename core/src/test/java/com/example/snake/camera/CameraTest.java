@@ -0,0 +1,61 @@
+package com.example.snake.camera;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Tests de la fenêtre visible qui suit la tête du serpent.
+ */
+public class CameraTest {
+
+    @Test
+    public void smallBoard_isEntirelyVisible() {
+        Camera camera = new Camera(11, 11);
+        camera.setVisibleSize(40, 20);
+
+        assertEquals(11, camera.getVisibleRows());
+        assertEquals(11, camera.getVisibleColumns());
+        assertFalse(camera.follow(10, 0));
+        assertEquals(0, camera.getFirstRow());
+        assertTrue(camera.contains(10, 10));
+    }
+
+    @Test
+    public void follow_movesOnlyWhenHeadLeavesCentralZone() {
+        Camera camera = new Camera(1000, 1000);
+        camera.setVisibleSize(20, 12);
+        camera.centerOn(500, 500);
+        assertEquals(490, camera.getFirstRow());
+        assertEquals(494, camera.getFirstColumn());
+
+        // Marge de 5 lignes : la tête peut aller de 495 à 504 sans faire bouger la caméra
+        assertFalse(camera.follow(504, 500));
+        assertTrue(camera.follow(505, 500));
+        assertEquals(491, camera.getFirstRow());
+        assertTrue(camera.contains(505, 500));
+    }
+
+    @Test
+    public void camera_staysInsideBoard() {
+        Camera camera = new Camera(1000, 1000);
+        camera.setVisibleSize(20, 20);
+
+        camera.centerOn(0, 999);
+        assertEquals(0, camera.getFirstRow());
+        assertEquals(980, camera.getFirstColumn());
+
+        camera.follow(999, 0);
+        assertEquals(980, camera.getFirstRow());
+        assertEquals(0, camera.getFirstColumn());
+    }
+
+    @Test
+    public void visibleCount_respectsMinimumCellSize() {
+        assertEquals(11, Camera.visibleCount(1080, 72f, 11));
+        assertEquals(15, Camera.visibleCount(1080, 72f, 1000));
+        assertEquals(1, Camera.visibleCount(10, 72f, 1000));
+    }
+}
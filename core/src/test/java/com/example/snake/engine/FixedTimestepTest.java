@@ -0,0 +1,33 @@
+package com.example.snake.engine;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+/**
+ * Tests de l'ordonnanceur à pas fixe.
+ */
+public class FixedTimestepTest {
+
+    @Test
+    public void advance_accumulatesPartialSteps() {
+        FixedTimestep timestep = new FixedTimestep(100, 5);
+        timestep.reset(0);
+
+        assertEquals(0, timestep.advance(60));
+        assertEquals(1, timestep.advance(120));
+        assertEquals(80, timestep.nanosUntilNextStep());
+        assertEquals(2, timestep.advance(320));
+    }
+
+    @Test
+    public void advance_capsCatchUpAndDropsExcess() {
+        FixedTimestep timestep = new FixedTimestep(100, 3);
+        timestep.reset(0);
+
+        assertEquals(3, timestep.advance(1_050));
+        // L'excédent est abandonné, seule la fraction de pas est conservée
+        assertEquals(50, timestep.nanosUntilNextStep());
+        assertEquals(1, timestep.advance(1_100));
+    }
+}
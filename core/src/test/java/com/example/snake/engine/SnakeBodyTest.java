@@ -0,0 +1,72 @@
+package com.example.snake.engine;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import java.nio.IntBuffer;
+
+/**
+ * Tests du tampon circulaire du corps du serpent.
+ */
+public class SnakeBodyTest {
+
+    @Test
+    public void pushAndPop_keepHeadFirstOrderAcrossWrapAround() {
+        SnakeBody body = new SnakeBody(4);
+        body.pushHead(1);
+        body.pushHead(2);
+        body.pushHead(3);
+
+        // Fait tourner le tampon plusieurs fois autour du tableau
+        for (int cell = 4; cell < 20; cell++) {
+            assertEquals(cell - 3, body.popTail());
+            body.pushHead(cell);
+        }
+
+        assertEquals(3, body.size());
+        assertEquals(19, body.head());
+        assertEquals(18, body.get(1));
+        assertEquals(17, body.tail());
+    }
+
+    @Test
+    public void push_growsPastInitialCapacity() {
+        SnakeBody body = new SnakeBody(2);
+        body.pushHead(10);
+        body.popTail();
+        for (int cell = 0; cell < 100; cell++) {
+            body.pushHead(cell);
+        }
+
+        assertEquals(100, body.size());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(99 - i, body.get(i));
+        }
+        assertEquals(0, body.popTail());
+    }
+
+    @Test
+    public void writeToThenReadFrom_keepsOrderAcrossWrapAround() {
+        SnakeBody body = new SnakeBody(8);
+        for (int cell = 0; cell < 20; cell++) {
+            body.pushHead(cell);
+            if (body.size() > 6) {
+                body.popTail();
+            }
+        }
+        IntBuffer buffer = IntBuffer.allocate(6);
+        body.writeTo(buffer);
+        buffer.flip();
+
+        SnakeBody copy = new SnakeBody(2);
+        copy.readFrom(buffer, 6);
+
+        assertEquals(6, copy.size());
+        for (int i = 0; i < 6; i++) {
+            assertEquals(19 - i, copy.get(i));
+        }
+        copy.pushHead(20);
+        assertEquals(14, copy.popTail());
+    }
+}
@@ -0,0 +1,304 @@
+package com.example.snake.engine;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Tests du moteur de jeu, exécutés sur une JVM classique (sans Android).
+ */
+public class SnakeEngineTest {
+
+    @Test
+    public void reset_placesHeadAtCenterAndAppleOffSnake() {
+        SnakeEngine engine = new SnakeEngine(11, 11, 42L);
+
+        assertEquals(1, engine.getLength());
+        assertEquals(5, engine.getSegmentRow(0));
+        assertEquals(5, engine.getSegmentCol(0));
+        assertEquals(0, engine.getScore());
+        assertFalse(engine.isGameOver());
+        assertFalse(engine.getAppleRow() == 5 && engine.getAppleCol() == 5);
+    }
+
+    @Test
+    public void tick_usesAccelerometerMapping() {
+        SnakeEngine engine = new SnakeEngine(11, 11, 1L);
+
+        engine.tick(SnakeEngine.UP);
+        assertEquals(5, engine.getSegmentRow(0));
+        assertEquals(4, engine.getSegmentCol(0));
+
+        engine.tick(SnakeEngine.RIGHT);
+        assertEquals(6, engine.getSegmentRow(0));
+        assertEquals(4, engine.getSegmentCol(0));
+        assertEquals(SnakeEngine.RIGHT, engine.getDirection());
+    }
+
+    @Test
+    public void tick_clampsHeadToGrid() {
+        SnakeEngine engine = new SnakeEngine(3, 3, 7L);
+
+        for (int i = 0; i < 5; i++) {
+            engine.tick(SnakeEngine.LEFT);
+        }
+        if (engine.getLength() == 1) {
+            assertEquals(0, engine.getSegmentRow(0));
+        } else {
+            // Le serpent a grandi puis a buté contre le bord : collision avec son corps
+            assertTrue(engine.isGameOver());
+        }
+    }
+
+    @Test
+    public void eatingApple_growsSnakeAndIncrementsScore() {
+        SnakeEngine engine = new SnakeEngine(11, 11, 3L);
+
+        steerToApple(engine);
+
+        assertEquals(1, engine.getScore());
+        assertEquals(2, engine.getLength());
+        assertFalse(engine.isGameOver());
+    }
+
+    @Test
+    public void reversal_isIgnoredWhenLongerThanOneSegment() {
+        SnakeEngine engine = new SnakeEngine(11, 11, 5L);
+        steerToApple(engine);
+        int direction = engine.getDirection();
+        int row = engine.getSegmentRow(0);
+        int col = engine.getSegmentCol(0);
+
+        engine.tick(opposite(direction));
+
+        assertEquals(direction, engine.getDirection());
+        assertEquals(row, engine.getSegmentRow(0));
+        assertEquals(col, engine.getSegmentCol(0));
+    }
+
+    @Test
+    public void sameSeedAndInputs_playSameGame() {
+        SnakeEngine a = new SnakeEngine(15, 9, 1234L);
+        SnakeEngine b = new SnakeEngine(15, 9, 1234L);
+        SnakeRandom inputs = new SnakeRandom(99L);
+
+        for (int i = 0; i < 10_000; i++) {
+            int direction = inputs.nextInt(4);
+            a.tick(direction);
+            b.tick(direction);
+            if (a.isGameOver()) {
+                a.reset();
+                b.reset();
+            }
+        }
+
+        assertEquals(a.getScore(), b.getScore());
+        assertEquals(a.getLength(), b.getLength());
+        assertEquals(a.getAppleRow(), b.getAppleRow());
+        assertEquals(a.getAppleCol(), b.getAppleCol());
+        for (int i = 0; i < a.getLength(); i++) {
+            assertEquals(a.getSegmentRow(i), b.getSegmentRow(i));
+            assertEquals(a.getSegmentCol(i), b.getSegmentCol(i));
+        }
+    }
+
+    @Test
+    public void fillingTheBoard_winsAndRemovesApple() {
+        SnakeEngine engine = new SnakeEngine(2, 2, 11L);
+        SnakeRandom inputs = new SnakeRandom(17L);
+
+        // Marche aléatoire sur une grille 2x2 jusqu'à ce qu'une partie soit gagnée
+        int games = 0;
+        while (!engine.hasWon() && games < 1_000) {
+            engine.tick(inputs.nextInt(4));
+            if (engine.isGameOver() && !engine.hasWon()) {
+                engine.reset();
+                games++;
+            }
+        }
+
+        assertTrue(engine.hasWon());
+        assertTrue(engine.isGameOver());
+        assertEquals(4, engine.getLength());
+        assertEquals(SnakeEngine.NO_APPLE, engine.getAppleCell());
+    }
+
+    @Test
+    public void freeCellSet_swapRemoveKeepsMembership() {
+        FreeCellSet set = new FreeCellSet(5);
+        set.remove(0);
+        set.remove(3);
+        set.remove(3);
+        set.add(0);
+
+        assertEquals(4, set.size());
+        assertTrue(set.contains(0));
+        assertFalse(set.contains(3));
+        for (int i = 0; i < set.size(); i++) {
+            assertTrue(set.get(i) != 3);
+        }
+    }
+
+    @Test
+    public void loadSnake_placesBodyAndKeepsPlaying() {
+        SnakeEngine engine = new SnakeEngine(5, 5, 8L);
+        // Tête en (0,2), corps vers la gauche sur la première ligne
+        int[] cells = {engine.cellOf(0, 2), engine.cellOf(0, 1), engine.cellOf(0, 0)};
+
+        engine.loadSnake(cells, 3, SnakeEngine.DOWN);
+
+        assertEquals(3, engine.getLength());
+        assertEquals(2, engine.getScore());
+        assertTrue(engine.isOccupied(engine.cellOf(0, 0)));
+        assertFalse(engine.isOccupied(engine.getAppleCell()));
+
+        engine.tick(SnakeEngine.DOWN);
+        assertEquals(engine.cellOf(0, 3), engine.getHeadCell());
+        assertFalse(engine.isOccupied(engine.cellOf(0, 0)) && engine.getLength() == 3);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void loadSnake_rejectsDisjointSegments() {
+        SnakeEngine engine = new SnakeEngine(5, 5, 8L);
+        engine.loadSnake(new int[]{engine.cellOf(0, 0), engine.cellOf(2, 2)}, 2, SnakeEngine.UP);
+    }
+
+    @Test
+    public void writeStateThenReadState_continuesSameGame() {
+        SnakeEngine original = new SnakeEngine(15, 9, 21L);
+        SnakeRandom inputs = new SnakeRandom(5L);
+        for (int i = 0; i < 300 && !original.isGameOver(); i++) {
+            original.tick(inputs.nextInt(4));
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(original.stateSize());
+        original.writeState(buffer);
+        assertEquals(0, buffer.remaining());
+        buffer.flip();
+
+        SnakeEngine restored = new SnakeEngine(15, 9, 999L);
+        restored.readState(buffer);
+
+        assertEquals(original.stateHash(), restored.stateHash());
+        for (int i = 0; i < 1_000; i++) {
+            int direction = inputs.nextInt(4);
+            original.tick(direction);
+            restored.tick(direction);
+            if (original.isGameOver()) {
+                original.reset();
+                restored.reset();
+            }
+        }
+        assertEquals(original.stateHash(), restored.stateHash());
+    }
+
+    @Test
+    public void readState_restoresLongSnake() {
+        // Serpent de 100 000 segments en zigzag sur une grille 400 x 400
+        int size = 400;
+        int length = 100_000;
+        SnakeEngine original = new SnakeEngine(size, size, 2L);
+        int[] cells = new int[length];
+        for (int i = 0; i < length; i++) {
+            int row = i / size;
+            int col = row % 2 == 0 ? i % size : size - 1 - i % size;
+            cells[length - 1 - i] = original.cellOf(row, col);
+        }
+        original.loadSnake(cells, length, SnakeEngine.DOWN);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(original.stateSize());
+        original.writeState(buffer);
+        buffer.flip();
+
+        SnakeEngine restored = new SnakeEngine(size, size, 3L);
+        restored.readState(buffer);
+
+        assertEquals(length, restored.getLength());
+        assertEquals(original.stateHash(), restored.stateHash());
+    }
+
+    @Test
+    public void readState_rejectsOtherGridAndResets() {
+        SnakeEngine original = new SnakeEngine(5, 5, 1L);
+        ByteBuffer buffer = ByteBuffer.allocate(original.stateSize());
+        original.writeState(buffer);
+        buffer.flip();
+        SnakeEngine other = new SnakeEngine(6, 5, 1L);
+
+        try {
+            other.readState(buffer);
+            fail();
+        } catch (IllegalArgumentException expected) {
+            assertEquals(1, other.getLength());
+            assertFalse(other.isGameOver());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void readState_rejectsTruncatedState() {
+        SnakeEngine engine = new SnakeEngine(5, 5, 1L);
+        ByteBuffer buffer = ByteBuffer.allocate(engine.stateSize());
+        engine.writeState(buffer);
+        buffer.flip();
+        buffer.limit(buffer.limit() - 2);
+
+        engine.readState(buffer);
+    }
+
+    @Test
+    public void generation_changesOnNewGameOnly() {
+        SnakeEngine engine = new SnakeEngine(11, 11, 3L);
+        int generation = engine.getGeneration();
+        for (int i = 0; i < 20 && !engine.isGameOver(); i++) {
+            engine.tick(SnakeEngine.DOWN);
+        }
+        assertEquals(generation, engine.getGeneration());
+
+        engine.reset();
+        assertTrue(engine.getGeneration() != generation);
+        generation = engine.getGeneration();
+        engine.loadSnake(new int[]{engine.cellOf(0, 0)}, 1, SnakeEngine.RIGHT);
+        assertTrue(engine.getGeneration() != generation);
+        generation = engine.getGeneration();
+        ByteBuffer buffer = ByteBuffer.allocate(engine.stateSize());
+        engine.writeState(buffer);
+        buffer.flip();
+        engine.readState(buffer);
+        assertTrue(engine.getGeneration() != generation);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_rejectsEmptyGrid() {
+        new SnakeEngine(0, 11, 0L);
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // Utilitaires
+    //----------------------------------------------------------------------------------------------
+
+    /** Dirige le serpent (longueur 1) vers la pomme jusqu'à la manger. */
+    static void steerToApple(SnakeEngine engine) {
+        int score = engine.getScore();
+        while (engine.getScore() == score) {
+            int dRow = engine.getAppleRow() - engine.getSegmentRow(0);
+            int dCol = engine.getAppleCol() - engine.getSegmentCol(0);
+            if (dRow != 0) {
+                engine.tick(dRow < 0 ? SnakeEngine.LEFT : SnakeEngine.RIGHT);
+            } else {
+                engine.tick(dCol < 0 ? SnakeEngine.UP : SnakeEngine.DOWN);
+            }
+        }
+    }
+
+    static int opposite(int direction) {
+        switch (direction) {
+            case SnakeEngine.UP:   return SnakeEngine.DOWN;
+            case SnakeEngine.DOWN: return SnakeEngine.UP;
+            case SnakeEngine.LEFT: return SnakeEngine.RIGHT;
+            default:               return SnakeEngine.LEFT;
+        }
+    }
+}
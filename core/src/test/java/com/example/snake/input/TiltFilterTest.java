@@ -0,0 +1,102 @@
+package com.example.snake.input;
+
+import static org.junit.Assert.assertEquals;
+
+import com.example.snake.engine.SnakeEngine;
+
+import org.junit.Test;
+
+/**
+ * Tests du filtrage de l'accéléromètre.
+ */
+public class TiltFilterTest {
+
+    @Test
+    public void flatPhone_givesNoDirection() {
+        TiltFilter filter = new TiltFilter(1f, 1f, 0.5f);
+
+        assertEquals(TurnQueue.NO_DIRECTION, filter.update(0.3f, -0.4f));
+    }
+
+    @Test
+    public void clearTilt_followsLegacyMapping() {
+        TiltFilter filter = new TiltFilter(1f, 1f, 0f);
+
+        assertEquals(SnakeEngine.UP, filter.update(0f, -3f));
+        assertEquals(SnakeEngine.RIGHT, filter.update(3f, 0f));
+        assertEquals(SnakeEngine.DOWN, filter.update(0f, 3f));
+        assertEquals(SnakeEngine.LEFT, filter.update(-3f, 0f));
+    }
+
+    @Test
+    public void hysteresis_ignoresSmallDominanceChanges() {
+        TiltFilter filter = new TiltFilter(1f, 1f, 1f);
+        filter.update(3f, 0f);
+
+        // y domine à peine : pas assez pour quitter RIGHT
+        assertEquals(TurnQueue.NO_DIRECTION, filter.update(2.5f, 3f));
+        assertEquals(SnakeEngine.RIGHT, filter.direction());
+        // y domine nettement : virage
+        assertEquals(SnakeEngine.DOWN, filter.update(1f, 3f));
+    }
+
+    @Test
+    public void lowPass_absorbsSingleSpike() {
+        TiltFilter filter = new TiltFilter(0.2f, 1f, 0.5f);
+        filter.update(3f, 0f);
+
+        assertEquals(TurnQueue.NO_DIRECTION, filter.update(0f, -8f));
+        assertEquals(SnakeEngine.RIGHT, filter.direction());
+    }
+
+    @Test
+    public void heldTilt_givesOneCommand() {
+        TiltFilter filter = new TiltFilter(1f, 1f, 0.5f);
+
+        assertEquals(SnakeEngine.RIGHT, filter.update(3f, 0f));
+        for (int i = 0; i < 50; i++) {
+            assertEquals(TurnQueue.NO_DIRECTION, filter.update(3f, 0.2f));
+        }
+        assertEquals(SnakeEngine.RIGHT, filter.direction());
+    }
+
+    @Test
+    public void flatPhone_clearsDirectionAndTiltingAgainGivesCommand() {
+        TiltFilter filter = new TiltFilter(1f, 1f, 0.5f);
+        filter.update(3f, 0f);
+
+        assertEquals(TurnQueue.NO_DIRECTION, filter.update(0.2f, 0.1f));
+        assertEquals(TurnQueue.NO_DIRECTION, filter.direction());
+        assertEquals(SnakeEngine.RIGHT, filter.update(3f, 0f));
+    }
+
+    @Test
+    public void heldTilt_doesNotOverrideQueuedSwipe() {
+        // Comme TiltController : seules les commandes du filtre sont proposées à la file
+        TiltFilter filter = new TiltFilter(1f, 1f, 0.5f);
+        TurnQueue queue = new TurnQueue();
+        offerTilt(filter, queue, 3f, 0f);
+        int direction = queue.poll(SnakeEngine.DOWN, false);
+        assertEquals(SnakeEngine.RIGHT, direction);
+
+        // Glissement vers le haut, le téléphone reste penché à droite (échantillons à 50 Hz)
+        queue.offer(SnakeEngine.UP);
+        for (int i = 0; i < 5; i++) {
+            offerTilt(filter, queue, 3f, 0f);
+        }
+        direction = queue.poll(direction, false);
+        for (int i = 0; i < 5; i++) {
+            offerTilt(filter, queue, 3f, 0f);
+        }
+
+        assertEquals(SnakeEngine.UP, direction);
+        assertEquals(TurnQueue.NO_DIRECTION, queue.poll(direction, false));
+    }
+
+    private static void offerTilt(TiltFilter filter, TurnQueue queue, float x, float y) {
+        int command = filter.update(x, y);
+        if (command != TurnQueue.NO_DIRECTION) {
+            queue.offer(command);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.snake.input;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.example.snake.engine.SnakeEngine;
+
+import org.junit.Test;
+
+/**
+ * Tests de la file de virages.
+ */
+public class TurnQueueTest {
+
+    @Test
+    public void quickSuccessiveTurns_areAllKept() {
+        TurnQueue queue = new TurnQueue();
+        assertTrue(queue.offer(SnakeEngine.UP));
+        assertTrue(queue.offer(SnakeEngine.RIGHT));
+
+        assertEquals(SnakeEngine.UP, queue.poll(SnakeEngine.LEFT, false));
+        assertEquals(SnakeEngine.RIGHT, queue.poll(SnakeEngine.UP, false));
+        assertEquals(TurnQueue.NO_DIRECTION, queue.poll(SnakeEngine.RIGHT, false));
+    }
+
+    @Test
+    public void offer_rejectsDuplicateAndReversalOfQueuedTurn() {
+        TurnQueue queue = new TurnQueue();
+        queue.offer(SnakeEngine.UP);
+
+        assertFalse(queue.offer(SnakeEngine.UP));
+        assertFalse(queue.offer(SnakeEngine.DOWN));
+        assertEquals(1, queue.size());
+    }
+
+    @Test
+    public void offer_rejectsWhenFull() {
+        TurnQueue queue = new TurnQueue(2);
+        queue.offer(SnakeEngine.UP);
+        queue.offer(SnakeEngine.LEFT);
+
+        assertFalse(queue.offer(SnakeEngine.DOWN));
+    }
+
+    @Test
+    public void poll_skipsReversalOfCurrentDirection() {
+        TurnQueue queue = new TurnQueue();
+        queue.offer(SnakeEngine.LEFT);
+        queue.offer(SnakeEngine.UP);
+
+        assertEquals(SnakeEngine.UP, queue.poll(SnakeEngine.RIGHT, false));
+    }
+
+    @Test
+    public void poll_exposesTimestampOfAppliedTurn() {
+        TurnQueue queue = new TurnQueue();
+        queue.offer(SnakeEngine.RIGHT, 100L);
+        queue.offer(SnakeEngine.UP, 200L);
+
+        assertEquals(SnakeEngine.UP, queue.poll(SnakeEngine.RIGHT, false));
+        assertEquals(200L, queue.lastPolledTimestamp());
+        assertEquals(TurnQueue.NO_DIRECTION, queue.poll(SnakeEngine.UP, false));
+        assertEquals(TurnQueue.NO_TIMESTAMP, queue.lastPolledTimestamp());
+    }
+
+    @Test
+    public void poll_allowsReversalForSingleSegment() {
+        TurnQueue queue = new TurnQueue();
+        queue.offer(SnakeEngine.LEFT);
+
+        assertEquals(SnakeEngine.LEFT, queue.poll(SnakeEngine.RIGHT, true));
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.snake.metrics;
+
+import static org.junit.Assume.assumeTrue;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Mesure des allocations du thread courant pour les tests (compteur d'octets alloués de
+ * com.sun.management.ThreadMXBean, HotSpot / OpenJDK) :
+ *  - Le code mesuré est d'abord exécuté plusieurs fois (chauffe : chargement des classes,
+ *    compilation JIT, tampons qui atteignent leur taille de croisière).
+ *  - On garde le minimum de plusieurs passes mesurées : une recompilation JIT peut allouer
+ *    quelques octets une fois, alors qu'une allocation du code mesuré se voit à chaque passe.
+ *  - Le test est ignoré (assumption) sur une JVM sans ce compteur.
+ */
+public final class AllocationMeter {
+
+    /** Nombre de passes de chauffe avant la mesure. */
+    private static final int WARM_UP_ROUNDS = 3;
+
+    /** Nombre de passes mesurées (on garde la plus faible). */
+    private static final int MEASURED_ROUNDS = 3;
+
+    private final com.sun.management.ThreadMXBean threads;
+
+    public AllocationMeter() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+        threads = (com.sun.management.ThreadMXBean) bean;
+        assumeTrue(threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+    }
+
+    /** Un pas du code mesuré. */
+    public interface Step {
+        void run() throws Exception;
+    }
+
+    /**
+     * Octets alloués par le thread courant pendant iterations appels de step (minimum de
+     * MEASURED_ROUNDS passes), après WARM_UP_ROUNDS passes identiques de chauffe.
+     */
+    public long allocatedBytes(int iterations, Step step) throws Exception {
+        for (int round = 0; round < WARM_UP_ROUNDS; round++) {
+            for (int i = 0; i < iterations; i++) {
+                step.run();
+            }
+        }
+        long thread = Thread.currentThread().getId();
+        long min = Long.MAX_VALUE;
+        for (int round = 0; round < MEASURED_ROUNDS; round++) {
+            long before = threads.getThreadAllocatedBytes(thread);
+            for (int i = 0; i < iterations; i++) {
+                step.run();
+            }
+            min = Math.min(min, threads.getThreadAllocatedBytes(thread) - before);
+        }
+        return min;
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.snake.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Tests des mesures de rendu par phase.
+ */
+public class FrameMetricsTest {
+
+    private static final String[] PHASES = {"fond", "cases", "copie"};
+
+    @Test
+    public void phasesAndFrames_areAccumulated() {
+        long[] allocations = {0};
+        FrameMetrics metrics = new FrameMetrics(PHASES, 10_000, () -> allocations[0]);
+        metrics.setEnabled(true);
+
+        // Frame 1 : 1 + 2 + 3 us, 4 allocations
+        metrics.beginFrame(0);
+        metrics.endPhase(0, 1_000);
+        metrics.endPhase(1, 3_000);
+        allocations[0] += 4;
+        metrics.endPhase(2, 6_000);
+        metrics.endFrame(6_000);
+
+        // Frame 2 : hors budget (12 us > 10 us), phase "cases" seulement
+        metrics.beginFrame(100_000);
+        metrics.endPhase(1, 112_000);
+        metrics.endFrame(112_000);
+
+        FrameMetrics.Snapshot snapshot = metrics.newSnapshot();
+        metrics.snapshot(snapshot);
+
+        assertEquals(2, snapshot.frameCount);
+        assertEquals(1, snapshot.droppedFrames);
+        assertEquals(1_000, snapshot.phaseTotalNanos[0]);
+        assertEquals(14_000, snapshot.phaseTotalNanos[1]);
+        assertEquals(12_000, snapshot.phaseMaxNanos[1]);
+        assertEquals(7_000, snapshot.meanPhaseNanos(1));
+        assertEquals(12_000, snapshot.maxFrameNanos);
+        assertTrue(snapshot.allocationsAvailable);
+        assertEquals(4, snapshot.totalAllocations);
+        assertEquals(4, snapshot.maxAllocationsPerFrame);
+    }
+
+    @Test
+    public void waitPhase_isExcludedFromBudget() {
+        FrameMetrics metrics = new FrameMetrics(PHASES, 10_000, null);
+        metrics.setWaitPhase(0);
+        metrics.setEnabled(true);
+
+        // Frame 1 : 15 us d'attente + 5 us de rendu, retenue mais dans le budget
+        metrics.beginFrame(0);
+        metrics.endPhase(0, 15_000);
+        metrics.endPhase(1, 20_000);
+        metrics.endFrame(20_000);
+
+        // Frame 2 : 2 us d'attente + 11 us de rendu, hors budget
+        metrics.beginFrame(100_000);
+        metrics.endPhase(0, 102_000);
+        metrics.endPhase(1, 113_000);
+        metrics.endFrame(113_000);
+
+        FrameMetrics.Snapshot snapshot = metrics.newSnapshot();
+        metrics.snapshot(snapshot);
+
+        assertEquals(2, snapshot.frameCount);
+        assertEquals(1, snapshot.droppedFrames);
+        assertEquals(1, snapshot.waitedFrames);
+        // L'attente reste mesurée, dans sa phase et dans la durée des frames
+        assertEquals(17_000, snapshot.phaseTotalNanos[0]);
+        assertEquals(20_000, snapshot.maxFrameNanos);
+    }
+
+    @Test
+    public void disabled_recordsNothing() {
+        FrameMetrics metrics = new FrameMetrics(PHASES, 10_000, null);
+
+        metrics.beginFrame(0);
+        metrics.endPhase(0, 50_000);
+        metrics.endFrame(50_000);
+
+        FrameMetrics.Snapshot snapshot = metrics.newSnapshot();
+        metrics.snapshot(snapshot);
+        assertEquals(0, snapshot.frameCount);
+        assertEquals(0, snapshot.phaseTotalNanos[0]);
+        assertFalse(snapshot.allocationsAvailable);
+    }
+
+    @Test
+    public void dump_namesEachPhase() {
+        FrameMetrics metrics = new FrameMetrics(PHASES, 10_000, null);
+        metrics.setEnabled(true);
+        metrics.beginFrame(0);
+        metrics.endPhase(2, 2_000);
+        metrics.endFrame(2_000);
+        StringBuilder out = new StringBuilder();
+
+        metrics.dump(out);
+
+        assertTrue(out.toString(), out.toString().contains("fond=0us cases=0us copie=2us"));
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.snake.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Tests de l'histogramme de latences.
+ */
+public class LatencyHistogramTest {
+
+    @Test
+    public void percentiles_stayWithinRelativePrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long v = 1; v <= 100_000; v++) {
+            histogram.record(v * 1_000);
+        }
+
+        assertEquals(100_000, histogram.getCount());
+        assertClose(50_000_000, histogram.valueAtPercentile(50));
+        assertClose(95_000_000, histogram.valueAtPercentile(95));
+        assertClose(99_000_000, histogram.valueAtPercentile(99));
+        assertEquals(100_000_000, histogram.valueAtPercentile(100));
+        assertEquals(1_000, histogram.getMin());
+    }
+
+    @Test
+    public void indexing_coversWholeLongRange() {
+        for (long v : new long[]{0, 127, 128, 129, 1L << 40, Long.MAX_VALUE}) {
+            int index = LatencyHistogram.indexOf(v);
+            assertTrue(LatencyHistogram.highestValueAt(index) >= v);
+        }
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(Long.MAX_VALUE);
+        assertEquals(Long.MAX_VALUE, histogram.valueAtPercentile(50));
+    }
+
+    @Test
+    public void dump_printsMilliseconds() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(12_340_000);
+        StringBuilder out = new StringBuilder();
+
+        histogram.dump(out);
+
+        assertTrue(out.toString(), out.toString().startsWith("n=1 min=12.34ms"));
+    }
+
+    private static void assertClose(long expected, long actual) {
+        assertTrue("attendu ~" + expected + ", obtenu " + actual,
+                Math.abs(actual - expected) <= expected / 60);
+    }
+}
@@ -0,0 +1,196 @@
+package com.example.snake.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.example.snake.camera.Camera;
+import com.example.snake.engine.SnakeEngine;
+import com.example.snake.engine.SnakeRandom;
+import com.example.snake.input.TurnQueue;
+import com.example.snake.replay.InputLogReader;
+import com.example.snake.replay.InputLogWriter;
+import com.example.snake.replay.StateStreamReader;
+import com.example.snake.replay.StateStreamWriter;
+import com.example.snake.scores.ScoreStore;
+import com.example.snake.sim.AutopilotPolicy;
+import com.example.snake.sim.GreedyPolicy;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+
+/**
+ * Garantie « zéro allocation » en régime établi : des milliers de pas de jeu et de frames
+ * sont joués après chauffe, et le moindre octet alloué fait échouer le build.
+ * Le rendu Android est couvert par le test instrumenté SnakeViewAllocationTest (app).
+ */
+public class SteadyStateAllocationTest {
+
+    private static final int ITERATIONS = 20_000;
+
+    private AllocationMeter meter;
+
+    @Before
+    public void setUp() {
+        meter = new AllocationMeter();
+    }
+
+    @Test
+    public void meter_seesAllocations() throws Exception {
+        Object[] sink = new Object[1];
+        long bytes = meter.allocatedBytes(1_000, () -> sink[0] = new long[16]);
+
+        assertTrue(bytes >= 1_000 * 16 * 8);
+    }
+
+    @Test
+    public void autopilotGames_doNotAllocate() throws Exception {
+        // Parties complètes (grille 10 x 10 gagnée en quelques centaines de pas), resets compris
+        SnakeEngine engine = new SnakeEngine(10, 10, 1L);
+        AutopilotPolicy policy = new AutopilotPolicy();
+        policy.onNewGame(engine);
+
+        long bytes = meter.allocatedBytes(ITERATIONS, () -> {
+            if (engine.isGameOver()) {
+                engine.reset();
+                policy.onNewGame(engine);
+            }
+            engine.tick(policy.chooseDirection(engine));
+        });
+
+        assertEquals(0, bytes);
+    }
+
+    @Test
+    public void gameLoopStep_doesNotAllocate() throws Exception {
+        // Ce que fait un pas de SnakeView : file de virages, moteur, journal, latence, caméra
+        SnakeEngine engine = new SnakeEngine(64, 64, 2L);
+        GreedyPolicy policy = new GreedyPolicy();
+        TurnQueue queue = new TurnQueue();
+        InputLogWriter recorder = new InputLogWriter(OutputStream.nullOutputStream());
+        recorder.begin(64, 64, 2L);
+        LatencyHistogram latency = new LatencyHistogram();
+        Camera camera = new Camera(64, 64);
+        camera.setVisibleSize(20, 12);
+        long[] clock = {1};
+
+        long bytes = meter.allocatedBytes(ITERATIONS, () -> {
+            if (engine.isGameOver() || engine.getLength() > 60) {
+                // Longueur bornée : le corps ne grandit pas au-delà de sa capacité initiale
+                engine.reset();
+            }
+            queue.offer(policy.chooseDirection(engine), clock[0]);
+            int direction = queue.poll(engine.getDirection(), engine.getLength() == 1);
+            if (direction == TurnQueue.NO_DIRECTION) {
+                direction = engine.getDirection();
+            }
+            engine.tick(direction);
+            recorder.record(direction);
+            latency.record(clock[0]++ - queue.lastPolledTimestamp() + 1);
+            int head = engine.getHeadCell();
+            camera.follow(head / 64, head % 64);
+        });
+
+        assertEquals(0, bytes);
+    }
+
+    @Test
+    public void frameMetrics_doNotAllocate() throws Exception {
+        FrameMetrics metrics = new FrameMetrics(new String[]{"a", "b", "c"},
+                FrameMetrics.DEFAULT_FRAME_BUDGET_NANOS, null);
+        metrics.setEnabled(true);
+        long[] now = {0};
+        FrameMetrics.Snapshot snapshot = metrics.newSnapshot();
+
+        long bytes = meter.allocatedBytes(ITERATIONS, () -> {
+            metrics.beginFrame(now[0]);
+            metrics.endPhase(0, now[0] += 1_000);
+            metrics.endPhase(1, now[0] += 5_000);
+            metrics.endPhase(2, now[0] += 500);
+            metrics.endFrame(now[0]);
+            now[0] += 10_000_000;
+            metrics.snapshot(snapshot);
+        });
+
+        assertEquals(0, bytes);
+    }
+
+    @Test
+    public void replayReading_doesNotAllocate() throws Exception {
+        ByteArrayOutputStream bytesOut = new ByteArrayOutputStream();
+        InputLogWriter writer = new InputLogWriter(bytesOut);
+        SnakeEngine engine = new SnakeEngine(11, 11, 3L);
+        SnakeRandom inputs = new SnakeRandom(4L);
+        writer.begin(11, 11, 3L);
+        for (int i = 0; i < 6 * ITERATIONS + 1; i++) {
+            int direction = inputs.nextInt(4);
+            engine.tick(direction);
+            writer.record(direction);
+        }
+        writer.finish(engine);
+        InputLogReader reader = new InputLogReader(ByteBuffer.wrap(bytesOut.toByteArray()));
+
+        long bytes = meter.allocatedBytes(ITERATIONS, reader::nextDirection);
+
+        assertEquals(0, bytes);
+    }
+
+    @Test
+    public void stateStream_doesNotAllocate() throws Exception {
+        SnakeEngine engine = new SnakeEngine(16, 16, 5L);
+        GreedyPolicy policy = new GreedyPolicy();
+        StateStreamWriter sink = new StateStreamWriter(OutputStream.nullOutputStream(), 64);
+        sink.begin(engine);
+
+        long writing = meter.allocatedBytes(ITERATIONS, () -> {
+            if (engine.isGameOver()) {
+                engine.reset();
+            } else {
+                engine.tick(policy.chooseDirection(engine));
+            }
+            sink.tick(engine);
+        });
+
+        ByteArrayOutputStream bytesOut = new ByteArrayOutputStream();
+        StateStreamWriter writer = new StateStreamWriter(bytesOut, 64);
+        writer.begin(engine);
+        for (int i = 0; i < 6 * ITERATIONS + 1; i++) {
+            engine.tick(policy.chooseDirection(engine));
+            if (engine.isGameOver()) {
+                engine.reset();
+            }
+            writer.tick(engine);
+        }
+        writer.finish();
+        StateStreamReader reader = new StateStreamReader(ByteBuffer.wrap(bytesOut.toByteArray()));
+        reader.next();
+        // Le corps garde la capacité atteinte par le serpent le plus long
+        long reading = meter.allocatedBytes(ITERATIONS, reader::next);
+
+        assertEquals(0, writing);
+        assertEquals(0, reading);
+    }
+
+    @Test
+    public void scoreRecord_doesNotAllocate() throws Exception {
+        // Fin de partie vue du thread du jeu : encodage et classement, pas d'accès disque
+        File file = Files.createTempFile("scores", ".snl").toFile();
+        try (ScoreStore store = ScoreStore.open(file, ScoreStore.DEFAULT_TOP_COUNT)) {
+            int[] score = {0};
+
+            long bytes = meter.allocatedBytes(ITERATIONS, () -> {
+                score[0]++;
+                store.record(score[0] % 1000, 3, 12_000L, score[0], 1_700_000_000_000L);
+            });
+
+            assertEquals(0, bytes);
+        } finally {
+            assertTrue(file.delete());
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.snake.net;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Tests du découpage en blocs des octets reçus du serveur.
+ */
+public class ChunkDecoderTest {
+
+    @Test
+    public void chunks_surviveAnyFragmentation() throws IOException {
+        // Trois blocs : accueil, 300 octets pour l'emplacement 1, bloc vide pour le 0
+        ByteBuffer wire = ByteBuffer.allocate(3 + 2 + 3 + 300 + 3);
+        wire.put((byte) NetProtocol.WELCOME).putShort((short) 2).put((byte) 1).put((byte) 2);
+        wire.put((byte) 1).putShort((short) 300);
+        for (int i = 0; i < 300; i++) {
+            wire.put((byte) i);
+        }
+        wire.put((byte) 0).putShort((short) 0);
+        byte[] bytes = wire.array();
+
+        for (int piece = 1; piece <= bytes.length; piece += 7) {
+            ChunkDecoder decoder = new ChunkDecoder(512);
+            int[] sums = new int[3];
+            int[] count = new int[1];
+            ChunkDecoder.Listener listener = (slot, payload) -> {
+                int index = count[0]++;
+                assertEquals(index == 0 ? NetProtocol.WELCOME : index == 1 ? 1 : 0, slot);
+                while (payload.hasRemaining()) {
+                    sums[index] += payload.get() & 0xFF;
+                }
+            };
+            for (int from = 0; from < bytes.length; from += piece) {
+                decoder.feed(ByteBuffer.wrap(bytes, from, Math.min(piece, bytes.length - from)),
+                        listener);
+            }
+
+            assertEquals(3, count[0]);
+            assertEquals(3, sums[0]);
+            int expected = 0;
+            for (int i = 0; i < 300; i++) {
+                expected += i & 0xFF;
+            }
+            assertEquals(expected, sums[1]);
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void oversizedChunk_isRejected() throws IOException {
+        ByteBuffer wire = ByteBuffer.allocate(3 + 100);
+        wire.put((byte) 0).putShort((short) 100);
+        new ChunkDecoder(64).feed(ByteBuffer.wrap(wire.array()), (slot, payload) -> { });
+    }
+}
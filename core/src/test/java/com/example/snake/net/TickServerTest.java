@@ -0,0 +1,177 @@
+package com.example.snake.net;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.example.snake.engine.SnakeEngine;
+import com.example.snake.metrics.LatencyHistogram;
+import com.example.snake.replay.StateStreamReader;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests du serveur de parties, sur la boucle locale.
+ */
+public class TickServerTest {
+
+    private static final long TICK = TimeUnit.MILLISECONDS.toNanos(5);
+
+    @Test
+    public void match_broadcastsBothGamesAndAppliesTurns() throws IOException {
+        try (TickServer server = new TickServer(new InetSocketAddress("127.0.0.1", 0),
+                11, 11, 2, TICK, 1L)) {
+            server.start();
+            try (TestClient first = new TestClient(server.getAddress());
+                 TestClient second = new TestClient(server.getAddress())) {
+                first.readFor(100);
+                assertEquals(0, first.slot);
+                assertEquals(2, first.players);
+
+                // Sans commande, le serpent part vers la droite : UP prouve que le virage passe
+                first.send(SnakeEngine.UP);
+                first.readFor(100);
+                second.readFor(100);
+
+                assertEquals(1, second.slot);
+                assertTrue(seesDirection(first.streams[0].toByteArray(), SnakeEngine.UP));
+                assertTrue(seesDirection(second.streams[0].toByteArray(), SnakeEngine.UP));
+                // Les deux clients reçoivent le même flux pour une même partie
+                byte[] a = first.streams[1].toByteArray();
+                byte[] b = second.streams[1].toByteArray();
+                int common = Math.min(a.length, b.length);
+                assertTrue(common > 20);
+                assertArrayEquals(Arrays.copyOf(a, common), Arrays.copyOf(b, common));
+            }
+        }
+    }
+
+    @Test
+    public void invalidByte_closesConnection() throws IOException {
+        try (TickServer server = new TickServer(new InetSocketAddress("127.0.0.1", 0),
+                11, 11, 1, TICK, 1L)) {
+            server.start();
+            try (TestClient client = new TestClient(server.getAddress())) {
+                client.send(9);
+
+                assertTrue(client.readUntilClosed(2_000));
+            }
+        }
+    }
+
+    @Test
+    public void loadGenerator_runsHundredsOfSessionsOnLoopback() throws IOException {
+        try (TickServer server = new TickServer(new InetSocketAddress("127.0.0.1", 0),
+                32, 32, 2, TimeUnit.MILLISECONDS.toNanos(10), 1L)) {
+            server.start();
+
+            LoadGenerator.Result result = LoadGenerator.run(server.getAddress(), 300,
+                    TickServer.maxChunkSize(32, 32), TimeUnit.SECONDS.toNanos(1),
+                    TimeUnit.MILLISECONDS.toNanos(40), 7L);
+
+            assertEquals(300, result.connected);
+            assertEquals(300, result.welcomed);
+            assertEquals(0, result.disconnected);
+            assertTrue(result.turnsSent > 300);
+            assertTrue(result.chunksReceived > 300 * 20);
+            LatencyHistogram durations = new LatencyHistogram();
+            LatencyHistogram lateness = new LatencyHistogram();
+            server.copyMetrics(durations, lateness);
+            assertTrue(durations.getCount() > 20);
+        }
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // Utilitaires
+    //----------------------------------------------------------------------------------------------
+
+    /** Vrai si une partie du flux a la direction donnée. */
+    private static boolean seesDirection(byte[] stream, int direction) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(stream);
+        StateStreamReader reader = new StateStreamReader(buffer);
+        while (buffer.hasRemaining()) {
+            reader.next();
+            if (reader.hasState() && reader.getDirection() == direction) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Client bloquant minimal : accumule le flux de chaque emplacement. */
+    private static final class TestClient implements ChunkDecoder.Listener, AutoCloseable {
+        final SocketChannel channel;
+        final ChunkDecoder decoder = new ChunkDecoder();
+        final ByteBuffer buffer = ByteBuffer.allocate(4096);
+        final ByteArrayOutputStream[] streams = new ByteArrayOutputStream[NetProtocol.MAX_PLAYERS];
+        int slot = -1;
+        int players;
+
+        TestClient(InetSocketAddress address) throws IOException {
+            channel = SocketChannel.open(address);
+            channel.configureBlocking(false);
+        }
+
+        void send(int value) throws IOException {
+            channel.write(ByteBuffer.wrap(new byte[]{(byte) value}));
+        }
+
+        void readFor(long millis) throws IOException {
+            long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis);
+            while (System.nanoTime() - end < 0) {
+                buffer.clear();
+                if (channel.read(buffer) < 0) {
+                    return;
+                }
+                buffer.flip();
+                decoder.feed(buffer, this);
+                Thread.yield();
+            }
+        }
+
+        boolean readUntilClosed(long millis) throws IOException {
+            long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis);
+            while (System.nanoTime() - end < 0) {
+                buffer.clear();
+                try {
+                    if (channel.read(buffer) < 0) {
+                        return true;
+                    }
+                } catch (IOException e) {
+                    // Connexion réinitialisée par le serveur
+                    return true;
+                }
+                Thread.yield();
+            }
+            return false;
+        }
+
+        @Override
+        public void onChunk(int chunkSlot, ByteBuffer payload) {
+            if (chunkSlot == NetProtocol.WELCOME) {
+                slot = payload.get();
+                players = payload.get();
+                return;
+            }
+            if (streams[chunkSlot] == null) {
+                streams[chunkSlot] = new ByteArrayOutputStream();
+            }
+            while (payload.hasRemaining()) {
+                streams[chunkSlot].write(payload.get());
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.snake.replay;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.example.snake.engine.SnakeEngine;
+import com.example.snake.sim.GreedyPolicy;
+import com.example.snake.sim.Policy;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Tests de l'enregistrement et du rejeu des parties.
+ */
+public class ReplayTest {
+
+    @Test
+    public void replay_reachesRecordedState() throws IOException {
+        SnakeEngine engine = new SnakeEngine(15, 15, 0L);
+        byte[] log = recordGame(engine, 1234L);
+
+        Replayer.Result result = Replayer.replay(new InputLogReader(ByteBuffer.wrap(log)));
+
+        assertTrue(result.isIdentical());
+        assertEquals(engine.stateHash(), result.stateHash);
+        assertEquals(engine.getScore(), result.score);
+        assertTrue(result.gameOver);
+    }
+
+    @Test
+    public void straightRuns_takeOneVarintEach() throws IOException {
+        SnakeEngine engine = new SnakeEngine(1000, 1000, 3L);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        InputLogWriter writer = new InputLogWriter(bytes);
+        writer.begin(1000, 1000, 3L);
+        engine.reset(3L);
+        for (int i = 0; i < 1_000_000; i++) {
+            int direction = (i / 100_000) % 2 == 0 ? SnakeEngine.LEFT : SnakeEngine.RIGHT;
+            engine.tick(direction);
+            writer.record(direction);
+        }
+        writer.finish(engine);
+
+        // En-tête (4 + 1 + 2 + 2 + 8) + 10 plages de 3 octets + fin (1 + 3 + 8)
+        assertTrue("taille " + bytes.size(), bytes.size() < 60);
+        InputLogReader reader = InputLogReader.stream(
+                Channels.newChannel(new ByteArrayInputStream(bytes.toByteArray())));
+        assertTrue(Replayer.replay(reader).isIdentical());
+    }
+
+    @Test
+    public void mappedFile_replaysLikeMemory() throws IOException {
+        SnakeEngine engine = new SnakeEngine(11, 11, 0L);
+        byte[] log = recordGame(engine, 99L);
+        Path file = Files.createTempFile("partie", ".snk");
+        try {
+            Files.write(file, log);
+            try (InputLogReader reader = InputLogReader.open(file)) {
+                assertEquals(11, reader.getRowCount());
+                assertEquals(99L, reader.getSeed());
+                assertTrue(Replayer.replay(reader).isIdentical());
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void alteredInput_isDetected() throws IOException {
+        SnakeEngine engine = new SnakeEngine(11, 11, 0L);
+        byte[] log = recordGame(engine, 5L);
+
+        // Fait démarrer la partie dans une autre direction (premier octet des plages)
+        int firstRun = 4 + 1 + 1 + 1 + 8;
+        log[firstRun] ^= 1;
+
+        assertFalse(Replayer.replay(new InputLogReader(ByteBuffer.wrap(log))).isIdentical());
+    }
+
+    @Test(expected = IOException.class)
+    public void truncatedLog_isRejected() throws IOException {
+        byte[] log = recordGame(new SnakeEngine(11, 11, 0L), 5L);
+        byte[] truncated = new byte[log.length - 3];
+        System.arraycopy(log, 0, truncated, 0, truncated.length);
+
+        Replayer.replay(new InputLogReader(ByteBuffer.wrap(truncated)));
+    }
+
+    /** Joue une partie complète avec la stratégie gloutonne en l'enregistrant. */
+    private static byte[] recordGame(SnakeEngine engine, long seed) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        InputLogWriter writer = new InputLogWriter(bytes);
+        Policy policy = new GreedyPolicy();
+        engine.reset(seed);
+        writer.begin(engine.getRowCount(), engine.getColumnCount(), seed);
+        while (!engine.isGameOver()) {
+            int direction = policy.chooseDirection(engine);
+            engine.tick(direction);
+            writer.record(direction);
+        }
+        writer.finish(engine);
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,205 @@
+package com.example.snake.replay;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.example.snake.engine.SnakeEngine;
+import com.example.snake.engine.SnakeRandom;
+import com.example.snake.sim.AutopilotPolicy;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tests du flux d'état (images clés + écarts par pas).
+ */
+public class StateStreamTest {
+
+    @Test
+    public void reader_mirrorsEngineAfterEveryTick() throws IOException {
+        SnakeEngine engine = new SnakeEngine(15, 9, 4L);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        StateStreamWriter writer = new StateStreamWriter(bytes, 64);
+        List<int[]> snapshots = new ArrayList<>();
+        SnakeRandom inputs = new SnakeRandom(8L);
+
+        writer.begin(engine);
+        snapshots.add(snapshot(engine));
+        for (int i = 0; i < 3_000; i++) {
+            if (engine.isGameOver()) {
+                // Nouvelle partie sans image clé explicite : le writer doit s'en rendre compte
+                engine.reset();
+            } else {
+                engine.tick(inputs.nextInt(4));
+            }
+            writer.tick(engine);
+            snapshots.add(snapshot(engine));
+        }
+        writer.finish();
+
+        StateStreamReader reader = new StateStreamReader(ByteBuffer.wrap(bytes.toByteArray()));
+        assertEquals(StateStreamReader.KEYFRAME, reader.next());
+        assertMirrors(snapshots.get(0), reader);
+        int keyframes = 0;
+        int record;
+        while ((record = reader.next()) != StateStreamReader.END) {
+            assertTrue(reader.hasState());
+            assertMirrors(snapshots.get((int) reader.getTick()), reader);
+            if (record == StateStreamReader.KEYFRAME) {
+                keyframes++;
+            }
+        }
+        assertEquals(3_000, reader.getTick());
+        // Images clés périodiques, plus celles des nouvelles parties plus courtes
+        assertTrue(keyframes >= 3_000 / 64);
+    }
+
+    @Test
+    public void ticks_costAboutOneByteWhateverTheLength() throws IOException {
+        SnakeEngine engine = new SnakeEngine(32, 32, 6L);
+        AutopilotPolicy policy = new AutopilotPolicy();
+        policy.onNewGame(engine);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        StateStreamWriter writer = new StateStreamWriter(bytes, Integer.MAX_VALUE);
+        writer.begin(engine);
+        writer.flush();
+        int header = bytes.size();
+
+        int ticks = 0;
+        while (!engine.isGameOver() && engine.getLength() < 500) {
+            engine.tick(policy.chooseDirection(engine));
+            writer.tick(engine);
+            ticks++;
+        }
+        writer.flush();
+
+        // Un octet par pas, plus pomme et score (quelques octets) à chaque pomme mangée
+        double bytesPerTick = (bytes.size() - header) / (double) ticks;
+        assertTrue("octets par pas : " + bytesPerTick, bytesPerTick < 1.1);
+        assertTrue(engine.getLength() >= 500);
+    }
+
+    @Test
+    public void newGameThatLooksLikeAStep_isSentAsKeyframe() throws IOException {
+        SnakeEngine engine = new SnakeEngine(11, 11, 5L);
+        // Serpent d'un segment juste à gauche du centre, où reset() place la tête
+        engine.loadSnake(new int[]{engine.cellOf(5, 4)}, 1, SnakeEngine.RIGHT);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        StateStreamWriter writer = new StateStreamWriter(bytes, 1_000);
+        writer.begin(engine);
+
+        // Même tête et même longueur qu'un pas vers la droite, sans appel à keyframe()
+        engine.reset();
+        writer.tick(engine);
+        writer.finish();
+
+        StateStreamReader reader = new StateStreamReader(ByteBuffer.wrap(bytes.toByteArray()));
+        assertEquals(StateStreamReader.KEYFRAME, reader.next());
+        assertEquals(StateStreamReader.KEYFRAME, reader.next());
+        assertEquals(1, reader.getTick());
+        assertMirrors(snapshot(engine), reader);
+        assertEquals(StateStreamReader.END, reader.next());
+    }
+
+    @Test
+    public void keyframe_packsTwoBitsPerSegment() throws IOException {
+        int size = 400;
+        int length = 100_000;
+        SnakeEngine engine = new SnakeEngine(size, size, 2L);
+        int[] cells = new int[length];
+        for (int i = 0; i < length; i++) {
+            int row = i / size;
+            int col = row % 2 == 0 ? i % size : size - 1 - i % size;
+            cells[length - 1 - i] = engine.cellOf(row, col);
+        }
+        engine.loadSnake(cells, length, SnakeEngine.DOWN);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        StateStreamWriter writer = new StateStreamWriter(bytes, 1_000);
+
+        writer.begin(engine);
+        writer.finish();
+
+        assertTrue("taille " + bytes.size(), bytes.size() < length / 4 + 32);
+        StateStreamReader reader = new StateStreamReader(ByteBuffer.wrap(bytes.toByteArray()));
+        reader.next();
+        assertMirrors(snapshot(engine), reader);
+    }
+
+    @Test
+    public void skipToKeyframe_jumpsAheadAndResynchronizes() throws IOException {
+        SnakeEngine engine = new SnakeEngine(11, 11, 12L);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        StateStreamWriter writer = new StateStreamWriter(bytes, 100);
+        List<int[]> snapshots = new ArrayList<>();
+        SnakeRandom inputs = new SnakeRandom(3L);
+        writer.begin(engine);
+        snapshots.add(snapshot(engine));
+        for (int i = 0; i < 450; i++) {
+            if (engine.isGameOver()) {
+                engine.reset();
+            } else {
+                engine.tick(inputs.nextInt(4));
+            }
+            writer.tick(engine);
+            snapshots.add(snapshot(engine));
+        }
+        writer.finish();
+
+        StateStreamReader reader = StateStreamReader.stream(
+                Channels.newChannel(new ByteArrayInputStream(bytes.toByteArray())));
+        assertEquals(StateStreamReader.KEYFRAME, reader.next());
+        reader.next();
+        reader.next();
+
+        assertEquals(StateStreamReader.KEYFRAME, reader.skipToKeyframe());
+        assertTrue(reader.getTick() > 2);
+        assertTrue(reader.hasState());
+        assertMirrors(snapshots.get((int) reader.getTick()), reader);
+        while (reader.next() != StateStreamReader.END) {
+            assertMirrors(snapshots.get((int) reader.getTick()), reader);
+        }
+        reader.close();
+    }
+
+    @Test(expected = IOException.class)
+    public void reader_rejectsOtherFormats() throws IOException {
+        new StateStreamReader(ByteBuffer.wrap(new byte[]{'S', 'N', 'K', '1', 1, 11, 11}));
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // Utilitaires
+    //----------------------------------------------------------------------------------------------
+
+    /** score, pomme, direction, statut, longueur, puis les cases (tête en premier). */
+    private static int[] snapshot(SnakeEngine engine) {
+        int length = engine.getLength();
+        int[] state = new int[5 + length];
+        state[0] = engine.getScore();
+        state[1] = engine.getAppleCell();
+        state[2] = engine.getDirection();
+        state[3] = engine.isGameOver() ? 1 : 0;
+        state[4] = length;
+        for (int i = 0; i < length; i++) {
+            state[5 + i] = engine.getSegmentCell(i);
+        }
+        return state;
+    }
+
+    private static void assertMirrors(int[] expected, StateStreamReader reader) {
+        assertEquals(expected[0], reader.getScore());
+        assertEquals(expected[1], reader.getAppleCell());
+        assertEquals(expected[3] == 1, reader.isGameOver());
+        assertEquals(expected[4], reader.getLength());
+        assertEquals(expected[2], reader.getDirection());
+        for (int i = 0; i < reader.getLength(); i++) {
+            assertEquals(expected[5 + i], reader.getSegmentCell(i));
+        }
+    }
+}
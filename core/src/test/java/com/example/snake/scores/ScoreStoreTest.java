@@ -0,0 +1,238 @@
+package com.example.snake.scores;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.example.snake.engine.SnakeEngine;
+import com.example.snake.replay.StateStreamWriter;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.zip.CRC32;
+
+/**
+ * Tests du journal des scores : relecture, écritures interrompues, classement.
+ */
+public class ScoreStoreTest {
+
+    private File file;
+
+    @Before
+    public void setUp() throws IOException {
+        file = Files.createTempFile("scores", ".snl").toFile();
+        // Fichier vide : le journal est créé à l'ouverture
+    }
+
+    @After
+    public void tearDown() {
+        assertTrue(file.delete());
+    }
+
+    @Test
+    public void reopen_rebuildsTopScores() throws IOException {
+        try (ScoreStore store = ScoreStore.open(file, 3)) {
+            for (int score = 1; score <= 20; score++) {
+                // 7, 14 : meilleurs scores ; les autres au-dessous
+                assertTrue(store.record(score % 7 == 0 ? 100 + score : score, score + 1,
+                        1000L * score, score, 1_000_000L + score));
+            }
+            store.flush();
+        }
+
+        try (ScoreStore store = ScoreStore.open(file, 3)) {
+            TopScores top = new TopScores(3);
+            store.copyTop(top);
+
+            assertEquals(20, store.getRecordCount());
+            assertEquals(3, top.size());
+            assertEquals(114, top.getScore(0));
+            assertEquals(15, top.getLength(0));
+            assertEquals(14_000L, top.getDurationMillis(0));
+            assertEquals(14L, top.getSeed(0));
+            assertEquals(1_000_014L, top.getTimestampMillis(0));
+            assertEquals(107, top.getScore(1));
+            assertEquals(20, top.getScore(2));
+        }
+        assertEquals(ScoreLog.HEADER_SIZE + 20 * ScoreLog.RECORD_SIZE, file.length());
+    }
+
+    @Test
+    public void close_writesPendingRecords() throws IOException {
+        try (ScoreStore store = ScoreStore.open(file, ScoreStore.DEFAULT_TOP_COUNT)) {
+            for (int i = 0; i < 50; i++) {
+                store.record(i, 1, 0, 0, 0);
+            }
+        }
+
+        try (ScoreStore store = ScoreStore.open(file, ScoreStore.DEFAULT_TOP_COUNT)) {
+            assertEquals(50, store.getRecordCount());
+            assertEquals(0, store.getDroppedCount());
+        }
+    }
+
+    @Test
+    public void tornRecord_isDiscardedAndTruncated() throws IOException {
+        try (ScoreStore store = ScoreStore.open(file, 5)) {
+            store.record(10, 2, 0, 1L, 0);
+            store.record(30, 4, 0, 2L, 0);
+            store.flush();
+        }
+        try (RandomAccessFile raw = new RandomAccessFile(file, "rw")) {
+            // Moitié d'un enregistrement, comme après une coupure pendant l'écriture
+            raw.seek(raw.length());
+            raw.write(new byte[ScoreLog.RECORD_SIZE / 2]);
+        }
+
+        try (ScoreStore store = ScoreStore.open(file, 5)) {
+            assertEquals(2, store.getRecordCount());
+            assertEquals(ScoreLog.HEADER_SIZE + 2 * ScoreLog.RECORD_SIZE, file.length());
+            store.record(20, 3, 0, 3L, 0);
+        }
+
+        try (ScoreStore store = ScoreStore.open(file, 5)) {
+            TopScores top = new TopScores(5);
+            store.copyTop(top);
+            assertEquals(3, store.getRecordCount());
+            assertEquals(30, top.getScore(0));
+            assertEquals(20, top.getScore(1));
+            assertEquals(10, top.getScore(2));
+        }
+    }
+
+    @Test
+    public void corruptedRecord_isSkippedAndLaterRecordsSurvive() throws IOException {
+        try (ScoreStore store = ScoreStore.open(file, 5)) {
+            for (int i = 0; i < 4; i++) {
+                store.record(10 + i, 1, 0, i, 0);
+            }
+        }
+        flipBit(ScoreLog.HEADER_SIZE + 2 * ScoreLog.RECORD_SIZE + 3);
+
+        try (ScoreStore store = ScoreStore.open(file, 5)) {
+            TopScores top = new TopScores(5);
+            store.copyTop(top);
+
+            assertEquals(3, store.getRecordCount());
+            assertEquals(1, store.getCorruptCount());
+            assertEquals(ScoreLog.HEADER_SIZE + 4 * ScoreLog.RECORD_SIZE, file.length());
+            // Le quatrième enregistrement est gardé, le troisième (score 12) est perdu
+            assertEquals(3, top.size());
+            assertEquals(13, top.getScore(0));
+            assertEquals(11, top.getScore(1));
+            assertEquals(10, top.getScore(2));
+            store.record(20, 1, 0, 4L, 0);
+        }
+
+        try (ScoreStore store = ScoreStore.open(file, 5)) {
+            assertEquals(4, store.getRecordCount());
+            assertEquals(1, store.getCorruptCount());
+        }
+    }
+
+    @Test
+    public void corruptedLastRecord_isDiscardedAndTruncated() throws IOException {
+        try (ScoreStore store = ScoreStore.open(file, 5)) {
+            for (int i = 0; i < 3; i++) {
+                store.record(10 + i, 1, 0, i, 0);
+            }
+        }
+        // Enregistrement complet mais au CRC faux en fin de fichier : écriture interrompue
+        flipBit(ScoreLog.HEADER_SIZE + 2 * ScoreLog.RECORD_SIZE + 3);
+
+        try (ScoreStore store = ScoreStore.open(file, 5)) {
+            assertEquals(2, store.getRecordCount());
+            assertEquals(0, store.getCorruptCount());
+            assertEquals(ScoreLog.HEADER_SIZE + 2 * ScoreLog.RECORD_SIZE, file.length());
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void otherFile_isRejected() throws IOException {
+        Files.write(file.toPath(), new byte[]{'S', 'N', 'K', '1', 0, 0, 0, 1});
+        ScoreStore.open(file, 5).close();
+    }
+
+    @Test
+    public void stateStreamFile_isRejectedByItsHeader() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        StateStreamWriter stream = new StateStreamWriter(bytes, 16);
+        SnakeEngine engine = new SnakeEngine(11, 11, 3L);
+        stream.begin(engine);
+        for (int i = 0; i < 40 && !engine.isGameOver(); i++) {
+            engine.tick(engine.getDirection());
+            stream.tick(engine);
+        }
+        stream.finish();
+        Files.write(file.toPath(), bytes.toByteArray());
+
+        try {
+            ScoreStore.open(file, 5).close();
+            fail("Flux d'état ouvert comme journal des scores");
+        } catch (IOException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("en-tête invalide"));
+        }
+    }
+
+    @Test
+    public void manyRecords_areScannedAcrossWindows() throws IOException {
+        // Plus d'un million d'enregistrements : deux fenêtres de projection
+        int count = (1 << 20) + 1000;
+        ByteBuffer records = ByteBuffer.allocate(ScoreLog.HEADER_SIZE
+                + count * ScoreLog.RECORD_SIZE);
+        records.putInt(ScoreLog.MAGIC).putInt(ScoreLog.VERSION);
+        CRC32 crc = new CRC32();
+        for (int i = 0; i < count; i++) {
+            ScoreLog.encode(records, crc, (int) ((i * 2654435761L) % 1_000_000), i, i, i, i);
+        }
+        Files.write(file.toPath(), records.array());
+
+        long start = System.nanoTime();
+        try (ScoreStore store = ScoreStore.open(file, ScoreStore.DEFAULT_TOP_COUNT)) {
+            long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+            TopScores top = new TopScores(ScoreStore.DEFAULT_TOP_COUNT);
+            store.copyTop(top);
+
+            assertEquals(count, store.getRecordCount());
+            assertEquals(ScoreStore.DEFAULT_TOP_COUNT, top.size());
+            for (int i = 1; i < top.size(); i++) {
+                assertTrue(top.getScore(i - 1) >= top.getScore(i));
+            }
+            assertTrue(top.getScore(0) >= 999_990);
+            // Large marge : quelques dizaines de ms attendues
+            assertTrue("Relecture : " + elapsedMillis + " ms", elapsedMillis < 5_000);
+        }
+    }
+
+    @Test
+    public void closedStore_dropsRecords() throws IOException {
+        ScoreStore store = ScoreStore.open(file, 5);
+        store.close();
+
+        assertFalse(store.record(1, 1, 0, 0, 0));
+        assertEquals(1, store.getDroppedCount());
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // Utilitaires
+    //----------------------------------------------------------------------------------------------
+
+    /** Change un bit de l'octet à cette position du fichier. */
+    private void flipBit(long position) throws IOException {
+        try (RandomAccessFile raw = new RandomAccessFile(file, "rw")) {
+            raw.seek(position);
+            int value = raw.read();
+            raw.seek(position);
+            raw.write(value ^ 0x40);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.snake.scores;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Tests du classement des meilleures parties.
+ */
+public class TopScoresTest {
+
+    @Test
+    public void offer_keepsBestScoresInOrder() {
+        TopScores top = new TopScores(3);
+
+        assertTrue(top.offer(5, 0, 0, 1L, 0));
+        assertTrue(top.offer(9, 0, 0, 2L, 0));
+        assertTrue(top.offer(1, 0, 0, 3L, 0));
+        assertTrue(top.offer(7, 0, 0, 4L, 0));
+        assertFalse(top.offer(2, 0, 0, 5L, 0));
+
+        assertEquals(3, top.size());
+        assertEquals(9, top.getScore(0));
+        assertEquals(7, top.getScore(1));
+        assertEquals(5, top.getScore(2));
+        assertEquals(4L, top.getSeed(1));
+    }
+
+    @Test
+    public void equalScores_keepOldestFirst() {
+        TopScores top = new TopScores(2);
+        top.offer(4, 0, 0, 1L, 0);
+        top.offer(4, 0, 0, 2L, 0);
+
+        assertFalse(top.offer(4, 0, 0, 3L, 0));
+        assertEquals(1L, top.getSeed(0));
+        assertEquals(2L, top.getSeed(1));
+    }
+
+    @Test
+    public void copyInto_truncatesToTargetCapacity() {
+        TopScores top = new TopScores(4);
+        for (int i = 0; i < 4; i++) {
+            top.offer(i, i, i, i, i);
+        }
+        TopScores copy = new TopScores(2);
+        top.copyInto(copy);
+
+        assertEquals(2, copy.size());
+        assertEquals(3, copy.getScore(0));
+        assertEquals(2, copy.getLength(1));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void rankBeyondSize_isRejected() {
+        new TopScores(3).getScore(0);
+    }
+}
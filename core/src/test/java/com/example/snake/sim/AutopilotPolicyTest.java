@@ -0,0 +1,74 @@
+package com.example.snake.sim;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.example.snake.engine.SnakeEngine;
+
+import org.junit.Test;
+
+/**
+ * Tests du pilote automatique.
+ */
+public class AutopilotPolicyTest {
+
+    @Test
+    public void evenGrid_isAlwaysWon() {
+        for (long seed = 1; seed <= 20; seed++) {
+            SnakeEngine engine = new SnakeEngine(8, 6, seed);
+            play(engine, new AutopilotPolicy(), 100_000);
+
+            assertTrue("graine " + seed, engine.hasWon());
+            assertEquals(48, engine.getLength());
+        }
+    }
+
+    @Test
+    public void evenGrid_runnerWinsEveryGame() {
+        try (SimulationRunner runner = new SimulationRunner(10, 10, AutopilotPolicy::new, 2)) {
+            SimulationStats stats = runner.run(50, 7L, 50_000);
+
+            assertEquals(50, stats.getWins());
+        }
+    }
+
+    @Test
+    public void oddGrid_playsFarBetterThanGreedy() {
+        // Pas de circuit complet sur 11x11 : la dernière pomme peut rester hors d'atteinte
+        SimulationStats autopilot;
+        SimulationStats greedy;
+        try (SimulationRunner runner = new SimulationRunner(11, 11, AutopilotPolicy::new, 2)) {
+            autopilot = runner.run(50, 7L, 20_000);
+        }
+        try (SimulationRunner runner = new SimulationRunner(11, 11, GreedyPolicy::new, 2)) {
+            greedy = runner.run(50, 7L, 20_000);
+        }
+
+        assertTrue(autopilot.scoreAtPercentile(50) >= 110);
+        assertTrue(autopilot.getMeanScore() > 3 * greedy.getMeanScore());
+    }
+
+    @Test
+    public void largeGrid_reachesApplesQuickly() {
+        SnakeEngine engine = new SnakeEngine(1000, 1000, 3L);
+        AutopilotPolicy policy = new AutopilotPolicy();
+        policy.onNewGame(engine);
+
+        long ticks = 0;
+        while (engine.getScore() < 50 && !engine.isGameOver()) {
+            engine.tick(policy.chooseDirection(engine));
+            ticks++;
+        }
+
+        assertEquals(50, engine.getScore());
+        // Environ 667 pas par pomme en moyenne sur 1000x1000 par le plus court chemin
+        assertTrue("pas : " + ticks, ticks < 50 * 1_500);
+    }
+
+    private static void play(SnakeEngine engine, Policy policy, int maxTicks) {
+        policy.onNewGame(engine);
+        for (int i = 0; i < maxTicks && !engine.isGameOver(); i++) {
+            engine.tick(policy.chooseDirection(engine));
+        }
+    }
+}
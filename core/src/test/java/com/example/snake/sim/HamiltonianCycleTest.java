@@ -0,0 +1,58 @@
+package com.example.snake.sim;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Tests du circuit hamiltonien.
+ */
+public class HamiltonianCycleTest {
+
+    @Test
+    public void cycle_visitsEachCellOnceThroughNeighbours() {
+        int[][] sizes = {{2, 2}, {4, 6}, {5, 4}, {3, 3}, {11, 11}, {7, 13}};
+        for (int[] size : sizes) {
+            HamiltonianCycle cycle = HamiltonianCycle.forGrid(size[0], size[1]);
+            int cells = size[0] * size[1];
+            boolean odd = size[0] % 2 == 1 && size[1] % 2 == 1;
+            assertEquals(odd ? cells - 1 : cells, cycle.length());
+
+            boolean[] seen = new boolean[cells];
+            for (int i = 0; i < cycle.length(); i++) {
+                int cell = cycle.cellAt(i);
+                assertTrue(!seen[cell]);
+                seen[cell] = true;
+                assertEquals(i, cycle.indexOf(cell));
+                assertTrue("grille " + size[0] + "x" + size[1] + " case " + i,
+                        areNeighbours(cell, cycle.successor(cell), size[1]));
+            }
+        }
+    }
+
+    @Test
+    public void oddGrid_cornerIsReachedByDetour() {
+        HamiltonianCycle cycle = HamiltonianCycle.forGrid(5, 7);
+        int corner = 4 * 7;
+        int entry = 4 * 7 + 1;
+
+        assertEquals(-1, cycle.indexOf(corner));
+        assertEquals(1, cycle.distance(entry, corner));
+        assertTrue(areNeighbours(corner, cycle.successor(corner), 7));
+        assertEquals(2, cycle.distance(entry, cycle.successor(corner)));
+    }
+
+    @Test
+    public void forGrid_isCachedPerSize() {
+        assertSame(HamiltonianCycle.forGrid(8, 8), HamiltonianCycle.forGrid(8, 8));
+        HamiltonianCycle cycle = HamiltonianCycle.forGrid(8, 8);
+        assertEquals(1, cycle.distance(cycle.cellAt(63), cycle.cellAt(0)));
+    }
+
+    private static boolean areNeighbours(int a, int b, int columnCount) {
+        return Math.abs(a / columnCount - b / columnCount)
+                + Math.abs(a % columnCount - b % columnCount) == 1;
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.snake.sim;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.example.snake.engine.SnakeEngine;
+
+import org.junit.Test;
+
+/**
+ * Tests du simulateur parallèle.
+ */
+public class SimulationRunnerTest {
+
+    @Test
+    public void results_doNotDependOnParallelism() {
+        SimulationStats single;
+        SimulationStats parallel;
+        try (SimulationRunner runner = new SimulationRunner(11, 11, GreedyPolicy::new, 1)) {
+            single = runner.run(500, 42L, 10_000);
+        }
+        try (SimulationRunner runner = new SimulationRunner(11, 11, GreedyPolicy::new, 4)) {
+            parallel = runner.run(500, 42L, 10_000);
+        }
+
+        assertEquals(500, single.getGames());
+        assertEquals(single.getGames(), parallel.getGames());
+        assertEquals(single.getTicks(), parallel.getTicks());
+        assertEquals(single.getTotalScore(), parallel.getTotalScore());
+        assertEquals(single.getMaxLength(), parallel.getMaxLength());
+        assertTrue(single.getMeanScore() > 0);
+    }
+
+    @Test
+    public void tickLimit_stopsLoopingPolicies() {
+        // Tourne en rond sur place : ne mange jamais, ne meurt jamais
+        Policy circle = new Policy() {
+            private final int[] loop = {SnakeEngine.UP, SnakeEngine.LEFT, SnakeEngine.DOWN,
+                    SnakeEngine.RIGHT};
+            private int next;
+
+            @Override
+            public void onNewGame(SnakeEngine engine) {
+                next = 0;
+            }
+
+            @Override
+            public int chooseDirection(SnakeEngine engine) {
+                return loop[next++ & 3];
+            }
+        };
+
+        try (SimulationRunner runner = new SimulationRunner(1000, 1000, () -> circle, 1)) {
+            SimulationStats stats = runner.run(3, 1L, 50);
+
+            assertEquals(3, stats.getTimeouts());
+            assertEquals(150, stats.getTicks());
+        }
+    }
+}